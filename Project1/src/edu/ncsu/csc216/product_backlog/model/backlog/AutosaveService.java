@@ -0,0 +1,244 @@
+package edu.ncsu.csc216.product_backlog.model.backlog;
+
+import java.util.ArrayList;
+import java.util.IdentityHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+import java.util.function.Supplier;
+
+import edu.ncsu.csc216.product_backlog.model.io.ProductsWriter;
+import edu.ncsu.csc216.product_backlog.model.product.Product;
+
+/**
+ * The AutosaveService class saves the products of the BacklogManager to a file on a background thread.
+ * A change only schedules a save one interval later, so a burst of changes is written once. The save
+ * takes a ProductsSnapshot of the products while holding the lock the BacklogManager changes them under,
+ * and then writes it without the lock, so changes can go on while a large file is written. Products whose
+ * tasks are not loaded are copied from their source file instead of being loaded, and the copies of
+ * loaded products that have not changed since the last save are reused. Once a save is written, every
+ * product that has not changed since the snapshot was taken is marked clean.
+ * @author Riya Gunda
+ */
+class AutosaveService {
+
+	/** File the products are saved to */
+	private final String fileName;
+	/** Time in milliseconds from the first change to the save that writes it */
+	private final long interval;
+	/** Lock the products are changed under */
+	private final Object lock;
+	/** Returns the products to save while the lock is held */
+	private final Supplier<ArrayList<Product>> products;
+	/** Told the message of every save that fails, or null if no one is told */
+	private final Consumer<String> errorHandler;
+	/** Thread the saves run on */
+	private final ScheduledExecutorService saver;
+	/** Copies of the loaded products written by the last save */
+	private IdentityHashMap<Product, Product> copies = new IdentityHashMap<Product, Product>();
+	/** Change counts of the products when they were copied */
+	private IdentityHashMap<Product, Integer> copiedCounts = new IdentityHashMap<Product, Integer>();
+	/** True if a save is scheduled and has not started yet */
+	private boolean scheduled;
+	/** True once the service is closed */
+	private boolean closed;
+	/** True if the last save failed */
+	private boolean failed;
+	/** True if the file should be compressed when it is saved */
+	private boolean compress;
+	/** Number of saves written */
+	private int saveCount;
+
+	/**
+	 * Creates a service that saves the products to the given file and schedules the first save right
+	 * away.
+	 * @param fileName of the file to save to
+	 * @param interval time in milliseconds from the first change to the save that writes it
+	 * @param lock the products are changed under
+	 * @param products returns the products to save while the lock is held
+	 * @param errorHandler told the message of every save that fails, or null
+	 */
+	AutosaveService(String fileName, long interval, Object lock, Supplier<ArrayList<Product>> products,
+			Consumer<String> errorHandler) {
+		this.fileName = fileName;
+		this.interval = interval;
+		this.lock = lock;
+		this.products = products;
+		this.errorHandler = errorHandler;
+		ScheduledThreadPoolExecutor executor = new ScheduledThreadPoolExecutor(1, r -> {
+			Thread thread = new Thread(r, "Backlog autosave");
+			thread.setDaemon(true);
+			return thread;
+		});
+		executor.setExecuteExistingDelayedTasksAfterShutdownPolicy(false);
+		this.saver = Executors.unconfigurableScheduledExecutorService(executor);
+		synchronized(this) {
+			scheduled = true;
+			saver.execute(this::save);
+		}
+	}
+
+	/**
+	 * Returns true if the service saves to the file with the given name.
+	 * @param fileName of the file
+	 * @return true if the service saves to that file
+	 */
+	boolean isFile(String fileName) {
+		return this.fileName.equals(fileName);
+	}
+
+	/**
+	 * Schedules a save one interval from now, unless one is already scheduled or the service is closed.
+	 */
+	synchronized void changed() {
+		if(!scheduled && !closed) {
+			scheduled = true;
+			saver.schedule(this::save, interval, TimeUnit.MILLISECONDS);
+		}
+	}
+
+	/**
+	 * Starts a save right away without waiting for it to finish.
+	 */
+	synchronized void saveNow() {
+		if(!closed) {
+			saver.execute(this::save);
+		}
+	}
+
+	/**
+	 * Saves the products right away and waits for the save to finish. The save runs on the background
+	 * thread like every other save, so it never writes the file at the same time as another save.
+	 * @param compress true if this and later saves should compress the file
+	 * @throws IllegalArgumentException with the message "Unable to save file." if the save failed
+	 */
+	void flush(boolean compress) {
+		Future<?> save;
+		synchronized(this) {
+			if(closed) {
+				throw new IllegalArgumentException("Unable to save file.");
+			}
+			this.compress = compress;
+			save = saver.submit(this::save);
+		}
+		try {
+			save.get();
+		} catch(ExecutionException e) {
+			throw new IllegalArgumentException("Unable to save file.");
+		} catch(InterruptedException e) {
+			Thread.currentThread().interrupt();
+			throw new IllegalArgumentException("Unable to save file.");
+		}
+		synchronized(this) {
+			if(failed) {
+				throw new IllegalArgumentException("Unable to save file.");
+			}
+		}
+	}
+
+	/**
+	 * Saves any changes that are not saved yet and stops the service, waiting for the last save to
+	 * finish.
+	 * @throws IllegalArgumentException with the message "Unable to save file." if the last save failed
+	 */
+	void close() {
+		synchronized(this) {
+			if(closed) {
+				return;
+			}
+			closed = true;
+			if(scheduled || failed) {
+				saver.execute(this::save);
+			}
+		}
+		saver.shutdown();
+		try {
+			while(!saver.awaitTermination(1, TimeUnit.MINUTES)) {
+				// Keep waiting, the last save must finish before the changes are safe
+			}
+		} catch(InterruptedException e) {
+			Thread.currentThread().interrupt();
+		}
+		synchronized(this) {
+			if(failed) {
+				throw new IllegalArgumentException("Unable to save file.");
+			}
+		}
+	}
+
+	/**
+	 * Returns the number of saves written so far.
+	 * @return the number of saves written
+	 */
+	synchronized int getSaveCount() {
+		return saveCount;
+	}
+
+	/**
+	 * Takes a snapshot of the products and writes it to the file. If the save fails for any reason,
+	 * including a product whose source cannot be read, the failure is reported and another save is
+	 * scheduled so the changes are not lost. An exception must not escape, since the executor would keep
+	 * it to itself.
+	 */
+	private void save() {
+		synchronized(this) {
+			scheduled = false;
+		}
+		try {
+			ProductsSnapshot snapshot;
+			boolean compressed;
+			synchronized(this) {
+				compressed = compress;
+			}
+			synchronized(lock) {
+				snapshot = takeSnapshot(products.get(), compressed);
+			}
+			ProductsWriter.writeProductsToFile(fileName, snapshot.getProducts(), compressed);
+			synchronized(lock) {
+				snapshot.markSaved();
+			}
+			synchronized(this) {
+				failed = false;
+				saveCount++;
+			}
+		} catch(RuntimeException e) {
+			synchronized(this) {
+				failed = true;
+			}
+			if(errorHandler != null) {
+				errorHandler.accept("Unable to save file.");
+			}
+			changed();
+		}
+	}
+
+	/**
+	 * Takes a snapshot of the products, reusing the copy from the last save of every loaded product that
+	 * has not changed since.
+	 * @param current products to take the snapshot of
+	 * @param compressed true if the file will be compressed
+	 * @return the snapshot of the products
+	 */
+	private ProductsSnapshot takeSnapshot(ArrayList<Product> current, boolean compressed) {
+		IdentityHashMap<Product, Product> newCopies = new IdentityHashMap<Product, Product>();
+		IdentityHashMap<Product, Integer> newCounts = new IdentityHashMap<Product, Integer>();
+		ProductsSnapshot snapshot = new ProductsSnapshot(current, compressed, product -> {
+			Product copy = copies.get(product);
+			Integer count = copiedCounts.get(product);
+			if(copy == null || count.intValue() != product.getChangeCount()) {
+				copy = ProductsSnapshot.copy(product);
+			}
+			newCopies.put(product, copy);
+			newCounts.put(product, product.getChangeCount());
+			return copy;
+		});
+		copies = newCopies;
+		copiedCounts = newCounts;
+		return snapshot;
+	}
+
+}
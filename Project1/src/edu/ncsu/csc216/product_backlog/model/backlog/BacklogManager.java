@@ -3,20 +3,35 @@
  */
 package edu.ncsu.csc216.product_backlog.model.backlog;
 
+import java.io.File;
 import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ForkJoinPool;
+import java.util.function.Consumer;
+import java.util.function.DoubleConsumer;
 
 
 
 import edu.ncsu.csc216.product_backlog.model.command.Command;
+import edu.ncsu.csc216.product_backlog.model.io.CommandJournal;
+import edu.ncsu.csc216.product_backlog.model.io.ProductsDirectory;
+import edu.ncsu.csc216.product_backlog.model.io.ProductsExporter;
+import edu.ncsu.csc216.product_backlog.model.io.ProductsImporter;
 import edu.ncsu.csc216.product_backlog.model.io.ProductsReader;
 import edu.ncsu.csc216.product_backlog.model.io.ProductsWriter;
+import edu.ncsu.csc216.product_backlog.model.io.SnapshotReader;
+import edu.ncsu.csc216.product_backlog.model.io.SnapshotWriter;
 import edu.ncsu.csc216.product_backlog.model.product.Product;
 import edu.ncsu.csc216.product_backlog.model.task.Task;
 
 /**
  * The BacklogManager class provides functionality for editing the product backlog, including methods
  * for adding, deleting, and managing tasks and products. This class implements the Singleton design 
- * pattern to ensure a single instance is used throughout the application.
+ * pattern to ensure a single instance is used throughout the application. Loads, saves, autosaves and
+ * reloads change the products on other threads, so every method that reads or changes the products
+ * list or the current product holds the manager's lock while it does.
  * @author Riya Gunda
  */
 public class BacklogManager {
@@ -35,6 +50,26 @@ public class BacklogManager {
 	 */
 	private Product currentProduct;
 	
+	/**
+	 * Journal every change is recorded in before it is made, or null if changes are not journaled
+	 */
+	private CommandJournal journal;
+	
+	/**
+	 * Directory the products were last loaded from or saved to, or null if there is none
+	 */
+	private ProductsDirectory directory;
+	
+	/**
+	 * Service saving every change in the background, or null if changes are not saved automatically
+	 */
+	private AutosaveService autosave;
+	
+	/**
+	 * Reloader merging changes other programs make to the loaded file, or null if no file is watched
+	 */
+	private LiveReloader reloader;
+	
 	/**
 	 * This is a parameterless constructor for the class
 	 */
@@ -61,21 +96,475 @@ public class BacklogManager {
 	 * "Unable to save file."
 	 */
 	public void saveToFile(String fileName) {
-		if(currentProduct == null || currentProduct.getTasks().size() == 0) {
+		saveToFile(fileName, false);
+	}
+
+	/**
+	 * Saves the products list into a file, compressing it with GZIP if compress is true. Compressed
+	 * files are recognized when they are loaded. If fileName names a directory, every product is kept in
+	 * its own file in the directory, and saving to the same directory again only rewrites the products
+	 * that changed. If fileName is the file changes are saved to automatically, the save runs on the
+	 * autosave thread so the two never write the file at the same time. Once the file is written, every
+	 * product that did not change while it was written is marked clean.
+	 * @param fileName of the file to save to
+	 * @param compress true if the file should be compressed
+	 * @throws IllegalArgumentException if the current product is null or empty with the message
+	 * "Unable to save file."
+	 */
+	public void saveToFile(String fileName, boolean compress) {
+		if(!hasTasksToSave()) {
 			throw new IllegalArgumentException("Unable to save file.");
 		}
 		
-		ProductsWriter.writeProductsToFile(fileName, products);
+		if(autosave != null && autosave.isFile(fileName)) {
+			autosave.flush(compress);
+		} else if(new File(fileName).isDirectory()) {
+			synchronized(this) {
+				if(directory == null || !directory.isDirectory(fileName)) {
+					directory = new ProductsDirectory(fileName);
+				}
+				directory.writeProducts(products, compress);
+			}
+		} else {
+			ProductsSnapshot snapshot;
+			synchronized(this) {
+				// The products are written on this thread, so only unloaded ones need a shell
+				snapshot = new ProductsSnapshot(products, compress, product -> product);
+			}
+			ProductsWriter.writeProductsToFile(fileName, snapshot.getProducts(), compress);
+			synchronized(this) {
+				snapshot.markSaved();
+			}
+		}
+	}
 
+	/**
+	 * Returns true if there is a current product and it has tasks, which is required before saving.
+	 * @return true if the current product has tasks
+	 */
+	private synchronized boolean hasTasksToSave() {
+		return currentProduct != null && currentProduct.getTasks().size() > 0;
 	}
 
 	/**
-	 * Loads the products and tasks into the end of the products list 
+	 * Loads the products and tasks into the end of the products list. If the file was saved with an
+	 * index, each product is only parsed the first time it is loaded.
 	 * @param fileName the method should load data from
 	 */
 	public void loadFromFile(String fileName) {
-		ArrayList<Product> temp = ProductsReader.readProductsFile(fileName);
+		loadFromFile(fileName, false);
+	}
+
+	/**
+	 * Loads the products and tasks into the end of the products list. If lazyNotes is true, the notes of
+	 * each task are only read from the file the first time they are needed. Otherwise, if the file was
+	 * saved with an index, each product is only parsed the first time it is loaded. If fileName names a
+	 * directory saved by saveToFile, each product is read from its own file the first time it is loaded.
+	 * @param fileName the method should load data from
+	 * @param lazyNotes true if notes should be read the first time they are needed
+	 */
+	public synchronized void loadFromFile(String fileName, boolean lazyNotes) {
+		if(new File(fileName).isDirectory()) {
+			ProductsDirectory loaded = new ProductsDirectory(fileName);
+			addLoadedProducts(loaded.readProducts());
+			directory = loaded;
+			return;
+		}
+		ArrayList<Product> temp = lazyNotes ? ProductsReader.readProductsFileLazy(fileName)
+				: ProductsReader.readProductsFileIndexed(fileName);
+		addLoadedProducts(temp);
+	}
+
+	/**
+	 * Saves the products list into a file on the common fork/join pool. The returned future completes
+	 * once the file is written, or completes exceptionally with an IllegalArgumentException with the
+	 * message "Unable to save file." if it cannot be written.
+	 * @param fileName of the file to save to
+	 * @return future completing once the file is written
+	 */
+	public CompletableFuture<Void> saveToFileAsync(String fileName) {
+		return saveToFileAsync(fileName, false, ForkJoinPool.commonPool(), null);
+	}
+
+	/**
+	 * Saves the products list into a file on the given executor, reporting the part of the products
+	 * written so far. The products are copied under the manager's lock on the executor and the copies
+	 * are written without it, so the products can keep changing while a large file is written. Products
+	 * whose tasks are not loaded are copied from their source file without loading them. A
+	 * directory, or the file changes are saved to automatically, is saved the same way saveToFile saves
+	 * it, but on the executor.
+	 * @param fileName of the file to save to
+	 * @param compress true if the file should be compressed
+	 * @param executor to save on
+	 * @param progress told the part of the products written so far, from 0 to 1, or null if no one is
+	 * told
+	 * @return future completing once the file is written, or completing exceptionally with an
+	 * IllegalArgumentException if the current product is null or empty or the file cannot be written
+	 */
+	public CompletableFuture<Void> saveToFileAsync(String fileName, boolean compress, Executor executor,
+			DoubleConsumer progress) {
+		if(!hasTasksToSave()) {
+			return CompletableFuture.failedFuture(new IllegalArgumentException("Unable to save file."));
+		}
+		AutosaveService saving = autosave;
+		if(saving != null && saving.isFile(fileName)) {
+			return CompletableFuture.runAsync(() -> saving.flush(compress), executor);
+		}
+		if(new File(fileName).isDirectory()) {
+			return CompletableFuture.runAsync(() -> {
+				synchronized(this) {
+					saveToFile(fileName, compress);
+				}
+			}, executor);
+		}
+		return CompletableFuture.runAsync(() -> {
+			ProductsSnapshot snapshot;
+			synchronized(this) {
+				snapshot = new ProductsSnapshot(products, compress, ProductsSnapshot::copy);
+			}
+			ProductsWriter.writeProductsToFile(fileName, snapshot.getProducts(), compress, progress);
+			synchronized(this) {
+				snapshot.markSaved();
+			}
+		}, executor);
+	}
+
+	/**
+	 * Loads the products and tasks of a file into the end of the products list on the common fork/join
+	 * pool. The returned future completes once the products are added, or completes exceptionally with
+	 * an IllegalArgumentException with the message "Unable to load file." if the file cannot be loaded.
+	 * @param fileName the method should load data from
+	 * @return future completing once the products are added
+	 */
+	public CompletableFuture<Void> loadFromFileAsync(String fileName) {
+		return loadFromFileAsync(fileName, ForkJoinPool.commonPool(), null);
+	}
+
+	/**
+	 * Loads the products and tasks of a file into the end of the products list, reading the file on the
+	 * given executor and reporting the part of it read so far. The file is read without the manager's
+	 * lock, so several files can be read at the same time, and only adding the products takes the lock.
+	 * Files are read the same way loadFromFile reads them.
+	 * @param fileName the method should load data from
+	 * @param executor to read the file on
+	 * @param progress told the part of the file read so far, from 0 to 1, or null if no one is told
+	 * @return future completing once the products are added, or completing exceptionally with an
+	 * IllegalArgumentException if the file cannot be loaded
+	 */
+	public CompletableFuture<Void> loadFromFileAsync(String fileName, Executor executor, DoubleConsumer progress) {
+		if(new File(fileName).isDirectory()) {
+			ProductsDirectory loaded = new ProductsDirectory(fileName);
+			return CompletableFuture.supplyAsync(loaded::readProducts, executor).thenAccept(temp -> {
+				synchronized(this) {
+					addLoadedProducts(temp);
+					directory = loaded;
+				}
+				if(progress != null) {
+					progress.accept(1.0);
+				}
+			});
+		}
+		return CompletableFuture.supplyAsync(() -> ProductsReader.readProductsFileIndexed(fileName, progress), executor)
+				.thenAccept(temp -> {
+					synchronized(this) {
+						addLoadedProducts(temp);
+					}
+				});
+	}
+
+	/**
+	 * Imports the tasks of a CSV or JSON Lines file exported by another tracker into the end of the
+	 * products list. A file whose name ends in .csv is read as CSV, and any other file as JSON Lines.
+	 * The imported products have not been saved yet.
+	 * @param fileName of the file to import
+	 * @throws IllegalArgumentException with the message "Unable to load file." if the file cannot be
+	 * read
+	 */
+	public synchronized void importFromFile(String fileName) {
+		addLoadedProducts(ProductsImporter.importFile(fileName));
+	}
+
+	/**
+	 * Exports every task of every product to a CSV or JSON Lines file for other tools to read. A file
+	 * whose name ends in .csv is written as CSV, and any other file as JSON Lines. The tasks are written
+	 * as they are visited, so the export needs no more memory for millions of tasks than for a few. The
+	 * products are copied under the manager's lock the same way saveToFileAsync copies them, and the
+	 * copies are exported without it, so products whose tasks are not loaded stay unloaded.
+	 * @param fileName of the file to write
+	 * @throws IllegalArgumentException with the message "Unable to save file." if the file cannot be
+	 * written
+	 */
+	public void exportToFile(String fileName) {
+		ProductsSnapshot snapshot;
+		synchronized(this) {
+			snapshot = new ProductsSnapshot(products, false, ProductsSnapshot::copy);
+		}
+		ProductsExporter.exportFile(fileName, snapshot.getProducts());
+	}
+
+	/**
+	 * Saves the products list into a binary snapshot file, which can be loaded back much faster than
+	 * the text file written by saveToFile.
+	 * @param fileName of the snapshot to save to
+	 * @throws IllegalArgumentException if the current product is null or empty with the message
+	 * "Unable to save file."
+	 */
+	public void saveToSnapshot(String fileName) {
+		if(currentProduct == null || currentProduct.getTasks().size() == 0) {
+			throw new IllegalArgumentException("Unable to save file.");
+		}
 		
+		SnapshotWriter.writeSnapshot(fileName, products);
+	}
+
+	/**
+	 * Loads the products and tasks of a binary snapshot file into the end of the products list
+	 * @param fileName of the snapshot to load data from
+	 */
+	public synchronized void loadFromSnapshot(String fileName) {
+		addLoadedProducts(SnapshotReader.readSnapshot(fileName));
+	}
+
+	/**
+	 * Saves the products list into a binary snapshot file and starts journaling every later change next
+	 * to it, so the change is saved right away without rewriting the whole file. Any journal already in
+	 * use is closed first.
+	 * @param fileName of the snapshot to save to
+	 * @throws IllegalArgumentException with the message "Unable to save file." if the snapshot or
+	 * journal cannot be written
+	 */
+	public void startJournal(String fileName) {
+		closeJournal();
+		journal = CommandJournal.create(fileName, products);
+	}
+
+	/**
+	 * Replaces the products list with the products of a binary snapshot file and the changes journaled
+	 * next to it, and keeps journaling every later change. Any journal already in use is closed first.
+	 * @param fileName of the snapshot to load data from
+	 * @throws IllegalArgumentException with the message "Unable to load file." if the snapshot or
+	 * journal cannot be loaded
+	 */
+	public synchronized void loadFromJournal(String fileName) {
+		CommandJournal opened = CommandJournal.open(fileName);
+		closeJournal();
+		products = new ArrayList<Product>();
+		currentProduct = null;
+		addLoadedProducts(opened.getProducts());
+		journal = opened;
+	}
+
+	/**
+	 * Compacts the journal into its snapshot in the background. Does nothing if no journal is in use.
+	 */
+	public void compactJournal() {
+		if(journal != null) {
+			journal.compact();
+		}
+	}
+
+	/**
+	 * Stops journaling changes, waiting for a running compaction to finish. Does nothing if no journal
+	 * is in use.
+	 */
+	public void closeJournal() {
+		if(journal != null) {
+			journal.close();
+			journal = null;
+		}
+	}
+
+	/**
+	 * Starts saving the products list to a file on a background thread. The file is saved right away,
+	 * and after that every change is saved one interval after it is made, so a burst of changes is
+	 * written once. If changes are already saved to the same file, it is only saved right away.
+	 * Otherwise the file changes were saved to before is brought up to date first.
+	 * @param fileName of the file to save to
+	 * @param interval time in milliseconds from a change to the save that writes it
+	 * @throws IllegalArgumentException with the message "Unable to save file." if the current product
+	 * is null or empty or the file is a directory
+	 */
+	public void startAutosave(String fileName, long interval) {
+		startAutosave(fileName, interval, null);
+	}
+
+	/**
+	 * Starts saving the products list to a file on a background thread, telling the error handler the
+	 * message of every save that fails. The error handler is called on the background thread, and a
+	 * failed save is tried again one interval later.
+	 * @param fileName of the file to save to
+	 * @param interval time in milliseconds from a change to the save that writes it
+	 * @param errorHandler told the message of every save that fails, or null
+	 * @throws IllegalArgumentException with the message "Unable to save file." if the current product
+	 * is null or empty or the file is a directory
+	 */
+	public void startAutosave(String fileName, long interval, Consumer<String> errorHandler) {
+		if(currentProduct == null || currentProduct.getTasks().size() == 0 || fileName == null
+				|| fileName.isEmpty() || new File(fileName).isDirectory()) {
+			throw new IllegalArgumentException("Unable to save file.");
+		}
+		if(autosave != null && autosave.isFile(fileName)) {
+			autosave.saveNow();
+			return;
+		}
+		stopAutosave();
+		autosave = new AutosaveService(fileName, interval, this, () -> products, errorHandler);
+	}
+
+	/**
+	 * Stops saving changes automatically, first saving any change that is not saved yet and waiting
+	 * for the save to finish. Does nothing if changes are not saved automatically.
+	 * @throws IllegalArgumentException with the message "Unable to save file." if the last save failed
+	 */
+	public void stopAutosave() {
+		if(autosave != null) {
+			AutosaveService stopping = autosave;
+			autosave = null;
+			stopping.close();
+		}
+	}
+
+	/**
+	 * Starts watching a file for changes made by other programs. Whenever the file changes, only the
+	 * products whose lines changed are parsed again, and they replace the products of the same name in
+	 * place. Products that were removed from the file are removed, and products that are new in the file
+	 * are added to the end of the list. A product with unsaved changes is never replaced or removed. The
+	 * products list must match the file when watching starts, so a file is usually watched right after
+	 * it is loaded. Any file already watched stops being watched first.
+	 * @param fileName of the file to watch
+	 * @throws IllegalArgumentException with the message "Unable to load file." if the file cannot be
+	 * read or watched
+	 */
+	public void startWatching(String fileName) {
+		startWatching(fileName, null);
+	}
+
+	/**
+	 * Starts watching a file for changes made by other programs, calling the reload handler after every
+	 * change was merged. The reload handler is called on the watching thread.
+	 * @param fileName of the file to watch
+	 * @param reloadHandler called after changes were merged, or null
+	 * @throws IllegalArgumentException with the message "Unable to load file." if the file cannot be
+	 * read or watched
+	 */
+	public void startWatching(String fileName, Runnable reloadHandler) {
+		startWatching(fileName, reloadHandler, null);
+	}
+
+	/**
+	 * Starts watching a file for changes made by other programs, calling the reload handler after every
+	 * change was merged and telling the error handler about every change that could not be read. Both
+	 * are called on the watching thread, which goes on watching after a failed reload.
+	 * @param fileName of the file to watch
+	 * @param reloadHandler called after changes were merged, or null
+	 * @param errorHandler told the message of every reload that fails, or null
+	 * @throws IllegalArgumentException with the message "Unable to load file." if the file cannot be
+	 * read or watched
+	 */
+	public void startWatching(String fileName, Runnable reloadHandler, Consumer<String> errorHandler) {
+		stopWatching();
+		reloader = new LiveReloader(this, fileName, reloadHandler, errorHandler);
+	}
+
+	/**
+	 * Stops watching the file for changes, waiting for a running reload to finish. Does nothing if no
+	 * file is watched.
+	 */
+	public void stopWatching() {
+		if(reloader != null) {
+			reloader.close();
+			reloader = null;
+		}
+	}
+
+	/**
+	 * Merges products that changed in the watched file into the products list. Each changed product
+	 * replaces the product of the same name at its place in the list, or is added to the end if there is
+	 * none. Products with unsaved changes are left alone. The products to merge are journaled before they
+	 * are merged, if changes are journaled.
+	 * @param changed products read from the file again
+	 * @param removed names of the products that were removed from the file
+	 * @return the names of the changed and removed products that were left alone
+	 */
+	synchronized ArrayList<String> mergeProducts(ArrayList<Product> changed, ArrayList<String> removed) {
+		ArrayList<String> skipped = new ArrayList<String>();
+		ArrayList<Product> merged = new ArrayList<Product>();
+		ArrayList<String> deletedNames = new ArrayList<String>();
+		HashMap<String, Integer> indexes = new HashMap<String, Integer>(products.size() * 2);
+		for(int i = 0; i < products.size(); i++) {
+			indexes.put(products.get(i).getProductName(), i);
+		}
+		for(int i = 0; i < changed.size(); i++) {
+			Product product = changed.get(i);
+			Integer index = indexes.get(product.getProductName());
+			if(index == null || !products.get(index).isDirty()) {
+				merged.add(product);
+			} else {
+				skipped.add(product.getProductName());
+			}
+		}
+		for(int i = 0; i < removed.size(); i++) {
+			Integer index = indexes.get(removed.get(i));
+			if(index != null && !products.get(index).isDirty()) {
+				deletedNames.add(removed.get(i));
+			} else if(index != null) {
+				skipped.add(removed.get(i));
+			}
+		}
+		boolean deleted = !deletedNames.isEmpty();
+		if(journal != null && (!merged.isEmpty() || deleted)) {
+			journal.recordMergeProducts(merged, deletedNames);
+		}
+
+		for(int i = 0; i < merged.size(); i++) {
+			Product product = merged.get(i);
+			Integer index = indexes.get(product.getProductName());
+			if(index == null) {
+				indexes.put(product.getProductName(), products.size());
+				products.add(product);
+			} else {
+				if(products.get(index) == currentProduct) {
+					currentProduct = product;
+				}
+				products.set(index, product);
+			}
+		}
+		for(int i = 0; i < deletedNames.size(); i++) {
+			products.set(indexes.get(deletedNames.get(i)), null);
+		}
+		if(deleted) {
+			products.removeIf(product -> product == null);
+			if(currentProduct != null && !products.contains(currentProduct)) {
+				currentProduct = products.isEmpty() ? null : products.get(0);
+			}
+		}
+		if(currentProduct == null && !products.isEmpty()) {
+			currentProduct = products.get(0);
+		}
+		changed();
+		return skipped;
+	}
+
+	/**
+	 * Tells the autosave service, if there is one, that the products list changed.
+	 */
+	private void changed() {
+		if(autosave != null) {
+			autosave.changed();
+		}
+	}
+
+	/**
+	 * Adds the loaded products to the end of the products list and makes the first of them the current
+	 * product. If nothing was loaded, the first product in the list becomes the current product.
+	 * @param temp list of loaded products
+	 * @throws IllegalArgumentException with the message "Unable to load file." if the first loaded
+	 * product cannot be opened, in which case no product is added
+	 */
+	private void addLoadedProducts(ArrayList<Product> temp) {
+		if(temp.size() > 0) {
+			openProduct(temp.get(0));
+		}
 		if(temp.size() == 0) {
 			if(products.size() == 0) {
 				currentProduct = null;
@@ -83,31 +572,59 @@ public class BacklogManager {
 				currentProduct = products.get(0);
 			}
 		} else {
+			if(journal != null) {
+				journal.recordAddProducts(temp);
+			}
 			for(int i = 0; i < temp.size(); i++) {
 				products.add(temp.get(i));
 			}
 			currentProduct = temp.get(0);
+			changed();
 		}
 	} 
 
 	/**
 	 * Finds the product with the given name in the list of products and replaces currentProduct with
-	 * that value.
+	 * that value. The tasks of a product that was loaded through an index, and notes that were left in
+	 * the file, are read here, so a file that changed since it was loaded is reported here. The current
+	 * product does not change if the product cannot be read.
 	 * @param product of the product to load
 	 * @throws IllegalArgumentException with the message "Product not available." if the product does
-	 * not exist in the list.
+	 * not exist in the list, or "Unable to load file." if its tasks or notes cannot be read.
 	 */
-	public void loadProduct(String product) {
-		boolean exists = false;
+	public synchronized void loadProduct(String product) {
+		Product found = null;
 		for(int i = 0; i < products.size(); i++) {
 			if(products.get(i).getProductName().equals(product)) {
-				currentProduct = products.get(i);
-				exists = true;
+				found = products.get(i);
 			}
 		}
-		if(!exists) {
+		if(found == null) {
 			throw new IllegalArgumentException("Product not available.");
 		}
+		currentProduct = openProduct(found);
+	}
+
+	/**
+	 * Reads the tasks and notes of a product that is about to become the current product. A product read
+	 * lazily loads them from its file, which fails if the file changed since it was read, so reading them
+	 * here reports that once, when the product is opened, instead of from whichever later call needs a
+	 * task or note first.
+	 * @param product to open
+	 * @return the product
+	 * @throws IllegalArgumentException with the message "Unable to load file." if the tasks or notes of
+	 * the product cannot be read
+	 */
+	private static Product openProduct(Product product) {
+		try {
+			ArrayList<Task> tasks = product.getTasks();
+			for(int i = 0; i < tasks.size(); i++) {
+				tasks.get(i).getNotes();
+			}
+		} catch(IllegalArgumentException e) {
+			throw new IllegalArgumentException("Unable to load file.");
+		}
+		return product;
 	}
 
 	/**
@@ -126,7 +643,7 @@ public class BacklogManager {
 	 * Returns a 2D array with the tasks id, state, type, and title
 	 * @return a 2D array with the above information
 	 */
-	public String[][] getTasksAsArray() {
+	public synchronized String[][] getTasksAsArray() {
 		if(currentProduct == null) {
 			return null;
 		}
@@ -140,12 +657,41 @@ public class BacklogManager {
 		return taskArr;
 	}
 
+	/**
+	 * Returns the tasks of the current product that are in the given state, of the given type and owned
+	 * by the given owner, where a null argument matches every task. The search goes through the indexes
+	 * the product keeps, so it does not visit every task.
+	 * @param stateName name of the state, or null for any state
+	 * @param type of the tasks, or null for any type
+	 * @param owner of the tasks, or null for any owner
+	 * @return the matching tasks sorted by id, or an empty list if there is no current product
+	 */
+	public synchronized ArrayList<Task> findTasks(String stateName, Task.Type type, String owner) {
+		if(currentProduct == null) {
+			return new ArrayList<Task>();
+		}
+		return currentProduct.findTasks(stateName, type, owner);
+	}
+
+	/**
+	 * Returns the tasks of the current product whose titles or notes match a query, best match first.
+	 * The query is a list of words and phrases in double quotes.
+	 * @param query words and phrases to search for
+	 * @return the matching tasks, or an empty list if there is no current product
+	 */
+	public synchronized ArrayList<Task> searchTasks(String query) {
+		if(currentProduct == null) {
+			return new ArrayList<Task>();
+		}
+		return currentProduct.searchTasks(query);
+	}
+
 	/**
 	 * Returns the task corresponding to the given id number
 	 * @param id of the task to find
 	 * @return task to find
 	 */
-	public Task getTaskById(int id) {	
+	public synchronized Task getTaskById(int id) {
 		if(currentProduct == null) {
 			return null;
 		}
@@ -154,12 +700,29 @@ public class BacklogManager {
 
 	/**
 	 * This method calls the update method in the Task class and updates the given task to the next state
-	 * based on the given condition
+	 * based on the given condition. The command is journaled before it is executed, and its record is
+	 * discarded again if the task rejects it.
 	 * @param id of the task to update
 	 * @param c command to execute on the given task
+	 * @throws IllegalArgumentException with the message "No task selected." if the task does not exist
 	 */
-	public void executeCommand(int id, Command c) {
-		getTaskById(id).update(c);
+	public synchronized void executeCommand(int id, Command c) {
+		Task task = getTaskById(id);
+		if(task == null) {
+			throw new IllegalArgumentException("No task selected.");
+		}
+		if(journal != null) {
+			journal.recordExecuteCommand(currentProduct.getProductName(), id, c);
+		}
+		try {
+			task.update(c);
+		} catch(RuntimeException e) {
+			if(journal != null) {
+				journal.discardRecord();
+			}
+			throw e;
+		}
+		changed();
 	}
 
 	/**
@@ -168,9 +731,13 @@ public class BacklogManager {
 	 * @throws IllegalArgumentException with the message "No task selected." if the task does not exist
 	 * or is empty or null.
 	 */
-	public void deleteTaskById(int id) {
-		if(currentProduct != null) {
+	public synchronized void deleteTaskById(int id) {
+		if(currentProduct != null && currentProduct.getTaskById(id) != null) {
+			if(journal != null) {
+				journal.recordDeleteTask(currentProduct.getProductName(), id);
+			}
 			currentProduct.deleteTaskById(id);	
+			changed();
 		}
 	}
 
@@ -183,13 +750,18 @@ public class BacklogManager {
 	 * @throws IllegalArgumentException with the message "Task cannot be created." if any one of the 
 	 * parameters are empty except note.
 	 */
-	public void addTaskToProduct(String title, Task.Type taskType, String creator, String note) {
+	public synchronized void addTaskToProduct(String title, Task.Type taskType, String creator, String note) {
+		Task task;
 		try {
-			currentProduct.addTask(title, taskType, creator, note);
+			task = currentProduct.createTask(title, taskType, creator, note);
 		} catch(IllegalArgumentException e) {
 			throw new IllegalArgumentException("Task cannot be created.");
 		}
-		
+		if(journal != null) {
+			journal.recordAddTask(currentProduct.getProductName(), task, note);
+		}
+		currentProduct.addTask(task);
+		changed();
 	}
 
 	/**
@@ -197,7 +769,7 @@ public class BacklogManager {
 	 * it holds nothing.
 	 * @return null or the name of the product
 	 */
-	public String getProductName() {
+	public synchronized String getProductName() {
 		if(currentProduct == null) {
 			return null;
 		}
@@ -208,7 +780,7 @@ public class BacklogManager {
 	 * Returns a String array of product names in the order they are listed in the products list. 
 	 * @return a String array of products
 	 */
-	public String[] getProductList() {
+	public synchronized String[] getProductList() {
 		String[] p = new String[products.size()];
 		for(int i = 0; i < products.size(); i++) {
 			p[i] = products.get(i).getProductName();
@@ -219,9 +791,13 @@ public class BacklogManager {
 	/**
 	 * Resets the products list so that it is empty and sets currentProduct to null.
 	 */
-	public void clearProducts() {
+	public synchronized void clearProducts() {
+		if(journal != null) {
+			journal.recordClearProducts();
+		}
 		products = new ArrayList<Product>();
 		currentProduct = null;
+		changed();
 	}
 
 	/**
@@ -231,18 +807,27 @@ public class BacklogManager {
 	 * @throws IllegalArgumentException with the message "No product selected." if the current product
 	 * is null or empty
 	 */
-	public void editProduct(String updateName) {
+	public synchronized void editProduct(String updateName) {
 		isDuplicateProduct(updateName);
 		
 		if(currentProduct == null) {
 			throw new IllegalArgumentException("No product selected.");
 		}
 		
+		if(updateName == null || "".equals(updateName)) {
+			throw new IllegalArgumentException("Invalid product name.");
+		}
+		
+		String productName = currentProduct.getProductName();
+		if(journal != null) {
+			journal.recordEditProduct(productName, updateName);
+		}
 		for(int i = 0; i < products.size(); i++) {
-			if(products.get(i).getProductName().equals(currentProduct.getProductName())) {
+			if(products.get(i).getProductName().equals(productName)) {
 				products.get(i).setProductName(updateName);
 			}
 		}
+		changed();
 	}
 
 	/**
@@ -251,42 +836,46 @@ public class BacklogManager {
 	 * @throws IllegalArgumentException is thrown with the message "Invalid product name." if the name
 	 * is null or an empty string.
 	 */
-	public void addProduct(String productName) {
+	public synchronized void addProduct(String productName) {
 		isDuplicateProduct(productName);
 		
 		Product p = new Product(productName);
+		if(journal != null) {
+			journal.recordAddProduct(productName);
+		}
 		products.add(p);
 		loadProduct(productName);
+		changed();
 	}
 
 	/**
 	 * Deletes the current product and updates currentProduct to the product at index 0 or null if the
 	 * product list is empty.
 	 * @throws IllegalArgumentException with the message "No product selected" if the current product
-	 * is null or empty.
+	 * is null or empty, or "Unable to load file." if the product at index 0 cannot be opened, in which
+	 * case the product is still deleted and currentProduct is null.
 	 */
-	public void deleteProduct() {
+	public synchronized void deleteProduct() {
 		if(products.size() == 0) {
 			currentProduct = null;
-		} else {
-			currentProduct = products.get(0);
-		}
-		
-		if(currentProduct == null) {
 			throw new IllegalArgumentException("No product selected.");
 		}
 		
+		String productName = products.get(0).getProductName();
+		if(journal != null) {
+			journal.recordDeleteProduct(productName);
+		}
 		for(int i = 0; i < products.size(); i++) {
-			if(products.get(i).getProductName().equals(currentProduct.getProductName())) {
+			if(products.get(i).getProductName().equals(productName)) {
 				
 				products.remove(i);
 			}
 		}
+		changed();
 		
-		if(products.size() == 0) {
-			currentProduct = null;
-		} else {
-			currentProduct = products.get(0);
+		currentProduct = null;
+		if(products.size() > 0) {
+			currentProduct = openProduct(products.get(0));
 		}
 	}
 
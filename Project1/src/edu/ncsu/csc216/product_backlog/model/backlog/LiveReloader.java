@@ -0,0 +1,273 @@
+package edu.ncsu.csc216.product_backlog.model.backlog;
+
+import java.io.IOException;
+import java.nio.file.ClosedWatchServiceException;
+import java.nio.file.InvalidPathException;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardWatchEventKinds;
+import java.nio.file.WatchEvent;
+import java.nio.file.WatchKey;
+import java.nio.file.WatchService;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.function.Consumer;
+
+import edu.ncsu.csc216.product_backlog.model.io.ProductSections;
+import edu.ncsu.csc216.product_backlog.model.product.Product;
+
+/**
+ * The LiveReloader class watches a backlog file for changes made by other programs and merges them into
+ * the BacklogManager. It keeps the checksum of every product section the file had when it was last
+ * read, so when the file changes only the sections whose checksum changed are parsed, and only the
+ * products they hold are replaced. The file is copied into memory before it is parsed, and its changes
+ * are only merged if it still has the size and modification time it had before it was copied, so a file
+ * another program is still writing is read again instead of being merged half written.
+ * @author Riya Gunda
+ */
+class LiveReloader {
+
+	/** Time in milliseconds to wait after a change for the writer to finish before the file is read */
+	private static final long SETTLE_TIME = 100;
+	/** Number of times the file is read before a reload that finds it still changing gives up */
+	private static final int MAX_ATTEMPTS = 5;
+
+	/** Manager the changes are merged into */
+	private final BacklogManager manager;
+	/** File that is watched */
+	private final String fileName;
+	/** Name of the file inside its directory */
+	private final Path name;
+	/** Called after changes from the file were merged, or null if no one is told */
+	private final Runnable reloadHandler;
+	/** Told the message of every reload that fails, or null if no one is told */
+	private final Consumer<String> errorHandler;
+	/** Service telling the reloader about changes to the directory of the file */
+	private final WatchService watcher;
+	/** Thread waiting for changes */
+	private final Thread thread;
+	/** Checksums of the product sections of the file when it was last read, by product name */
+	private HashMap<String, Long> checksums = new HashMap<String, Long>();
+
+	/**
+	 * Starts watching the given file. The products of the manager must match the file when watching
+	 * starts.
+	 * @param manager to merge changes into
+	 * @param fileName of the file to watch
+	 * @param reloadHandler called on the watching thread after changes were merged, or null
+	 * @param errorHandler told on the watching thread the message of every reload that fails, or null
+	 * @throws IllegalArgumentException with the message "Unable to load file." if the file cannot be
+	 * read or watched
+	 */
+	LiveReloader(BacklogManager manager, String fileName, Runnable reloadHandler, Consumer<String> errorHandler) {
+		this.manager = manager;
+		this.fileName = fileName;
+		this.reloadHandler = reloadHandler;
+		this.errorHandler = errorHandler;
+		ProductSections sections = ProductSections.readSections(fileName);
+		for(int i = 0; i < sections.getSectionCount(); i++) {
+			checksums.put(sections.getProductName(i), sections.getChecksum(i));
+		}
+		try {
+			Path path = Paths.get(fileName).toAbsolutePath();
+			this.name = path.getFileName();
+			this.watcher = path.getFileSystem().newWatchService();
+			path.getParent().register(watcher, StandardWatchEventKinds.ENTRY_CREATE,
+					StandardWatchEventKinds.ENTRY_MODIFY);
+		} catch(IOException | InvalidPathException e) {
+			throw new IllegalArgumentException("Unable to load file.");
+		}
+		this.thread = new Thread(this::watch, "Backlog reload");
+		thread.setDaemon(true);
+		thread.start();
+	}
+
+	/**
+	 * Stops watching the file and waits for a running reload to finish.
+	 */
+	void close() {
+		try {
+			watcher.close();
+		} catch(IOException e) {
+			// The watching thread stops either way once it is interrupted
+		}
+		thread.interrupt();
+		try {
+			thread.join();
+		} catch(InterruptedException e) {
+			Thread.currentThread().interrupt();
+		}
+	}
+
+	/**
+	 * Waits for changes to the file and reloads it after each one until the reloader is closed. A reload
+	 * that fails is reported and the file is watched on, so the next change is reloaded.
+	 */
+	private void watch() {
+		try {
+			while(true) {
+				WatchKey key = watcher.take();
+				boolean changed = isChanged(key);
+				while(changed) {
+					// Let the writer finish, then reload once for every change made in the meantime
+					Thread.sleep(SETTLE_TIME);
+					WatchKey more = watcher.poll();
+					if(more == null) {
+						break;
+					}
+					isChanged(more);
+				}
+				if(changed) {
+					try {
+						reload();
+					} catch(RuntimeException e) {
+						report();
+					}
+				}
+			}
+		} catch(InterruptedException | ClosedWatchServiceException e) {
+			// The reloader was closed
+		}
+	}
+
+	/**
+	 * Returns true if the events of a watch key include a change to the file, and resets the key.
+	 * @param key to check
+	 * @return true if the file changed
+	 */
+	private boolean isChanged(WatchKey key) {
+		boolean changed = false;
+		for(WatchEvent<?> event : key.pollEvents()) {
+			if(event.kind() == StandardWatchEventKinds.OVERFLOW || name.equals(event.context())) {
+				changed = true;
+			}
+		}
+		key.reset();
+		return changed;
+	}
+
+	/**
+	 * Reads the file again and merges the products whose sections changed into the manager. Products
+	 * whose sections are gone, or no longer hold any tasks, are removed. A product the manager leaves
+	 * alone because it has unsaved changes keeps the checksum it had, so its section is merged after a
+	 * later change to the file once the product is saved. If the file changes while it is read, or cannot
+	 * be read, it is read again a little later. If it still cannot be read after MAX_ATTEMPTS reads, the
+	 * failure is reported and the file is read again after its next change.
+	 * @return true if anything was merged
+	 */
+	synchronized boolean reload() {
+		Changes changes = null;
+		for(int attempt = 1; changes == null; attempt++) {
+			try {
+				ProductSections sections = ProductSections.readSections(fileName);
+				Changes found = findChanges(sections);
+				if(sections.isCurrent()) {
+					changes = found;
+				}
+			} catch(IllegalArgumentException e) {
+				// The file may be in the middle of being replaced, so it is read again like a changing file
+			}
+			if(changes == null && attempt == MAX_ATTEMPTS) {
+				report();
+				return false;
+			} else if(changes == null) {
+				try {
+					Thread.sleep(SETTLE_TIME);
+				} catch(InterruptedException e) {
+					Thread.currentThread().interrupt();
+					return false;
+				}
+			}
+		}
+		HashMap<String, Long> next = changes.next;
+		ArrayList<Product> changed = changes.changed;
+		ArrayList<String> removed = changes.removed;
+		if(changed.isEmpty() && removed.isEmpty()) {
+			checksums = next;
+			return false;
+		}
+		ArrayList<String> skipped = manager.mergeProducts(changed, removed);
+		for(int i = 0; i < skipped.size(); i++) {
+			Long previous = checksums.get(skipped.get(i));
+			if(previous == null) {
+				next.remove(skipped.get(i));
+			} else {
+				next.put(skipped.get(i), previous);
+			}
+		}
+		checksums = next;
+		if(skipped.size() == changed.size() + removed.size()) {
+			return false;
+		}
+		if(reloadHandler != null) {
+			reloadHandler.run();
+		}
+		return true;
+	}
+
+	/**
+	 * Compares the sections of the file with the checksums it had when it was last read, and parses the
+	 * sections that changed.
+	 * @param sections of the file as it is now
+	 * @return the changes to merge
+	 */
+	private Changes findChanges(ProductSections sections) {
+		HashMap<String, Long> next = new HashMap<String, Long>();
+		ArrayList<Product> changed = new ArrayList<Product>();
+		ArrayList<String> removed = new ArrayList<String>();
+		for(int i = 0; i < sections.getSectionCount(); i++) {
+			String productName = sections.getProductName(i);
+			long checksum = sections.getChecksum(i);
+			next.put(productName, checksum);
+			Long previous = checksums.get(productName);
+			if(previous == null || previous.longValue() != checksum) {
+				Product product = sections.readProduct(i);
+				if(product == null) {
+					removed.add(productName);
+				} else {
+					changed.add(product);
+				}
+			}
+		}
+		for(String productName : checksums.keySet()) {
+			if(!next.containsKey(productName)) {
+				removed.add(productName);
+			}
+		}
+		return new Changes(next, changed, removed);
+	}
+
+	/**
+	 * Tells the error handler, if there is one, that a reload failed.
+	 */
+	private void report() {
+		if(errorHandler != null) {
+			errorHandler.accept("Unable to load file.");
+		}
+	}
+
+	/**
+	 * Changes found in the file that are ready to merge.
+	 */
+	private static class Changes {
+		/** Checksums of the product sections of the file, by product name */
+		private final HashMap<String, Long> next;
+		/** Products whose sections changed */
+		private final ArrayList<Product> changed;
+		/** Names of the products whose sections are gone or hold no tasks */
+		private final ArrayList<String> removed;
+
+		/**
+		 * Creates the changes found in the file.
+		 * @param next checksums of the product sections of the file, by product name
+		 * @param changed products whose sections changed
+		 * @param removed names of the products whose sections are gone or hold no tasks
+		 */
+		Changes(HashMap<String, Long> next, ArrayList<Product> changed, ArrayList<String> removed) {
+			this.next = next;
+			this.changed = changed;
+			this.removed = removed;
+		}
+	}
+
+}
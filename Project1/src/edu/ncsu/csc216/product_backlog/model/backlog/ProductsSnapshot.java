@@ -0,0 +1,98 @@
+package edu.ncsu.csc216.product_backlog.model.backlog;
+
+import java.util.ArrayList;
+import java.util.function.UnaryOperator;
+
+import edu.ncsu.csc216.product_backlog.model.product.Product;
+import edu.ncsu.csc216.product_backlog.model.product.Product.TasksSource;
+import edu.ncsu.csc216.product_backlog.model.task.Task;
+
+/**
+ * The ProductsSnapshot class takes the products to save while the lock they are changed under is held,
+ * so they can be written without it. A product whose tasks are not loaded yet is written through a shell
+ * that copies its lines from its source, so saving it neither loads nor copies its tasks. Every other
+ * product is copied the way the caller chooses. Compressed files cannot be loaded from, so for them every
+ * product is copied and its tasks loaded. Once the file is written, the products that were written
+ * through a shell load their tasks from the new file, and every product that has not changed since the
+ * snapshot was taken is marked clean.
+ * @author Riya Gunda
+ */
+class ProductsSnapshot {
+
+	/** Products the snapshot was taken of */
+	private final ArrayList<Product> products;
+	/** Change counts of the products when the snapshot was taken */
+	private final int[] counts;
+	/** Sources the products were written from, or null for the products that were copied */
+	private final TasksSource[] sources;
+	/** Shells and copies of the products to write, in the same order */
+	private final ArrayList<Product> written;
+
+	/**
+	 * Takes a snapshot of the products. Must be called while the lock the products are changed under
+	 * is held.
+	 * @param products to take the snapshot of
+	 * @param compress true if the file will be compressed
+	 * @param copier returns the product to write for a product whose tasks are loaded
+	 */
+	ProductsSnapshot(ArrayList<Product> products, boolean compress, UnaryOperator<Product> copier) {
+		this.products = new ArrayList<Product>(products);
+		this.counts = new int[products.size()];
+		this.sources = new TasksSource[products.size()];
+		this.written = new ArrayList<Product>(products.size());
+		for(int i = 0; i < products.size(); i++) {
+			Product product = products.get(i);
+			counts[i] = product.getChangeCount();
+			sources[i] = compress ? null : product.getTasksSource();
+			if(sources[i] != null) {
+				written.add(new Product(product.getProductName(), sources[i]));
+			} else {
+				written.add(copier.apply(product));
+			}
+		}
+	}
+
+	/**
+	 * Returns the shells and copies of the products to write.
+	 * @return the products to write, in the same order as the products the snapshot was taken of
+	 */
+	ArrayList<Product> getProducts() {
+		return written;
+	}
+
+	/**
+	 * Finishes a snapshot that was written. Every product written through a shell that still has not
+	 * loaded its tasks loads them from the file that was written, and every product that has not changed
+	 * since the snapshot was taken is marked clean, while the products that changed keep the changes that
+	 * are not in the file yet. Must be called while the lock the products are changed under is held.
+	 */
+	void markSaved() {
+		for(int i = 0; i < counts.length; i++) {
+			Product product = products.get(i);
+			if(sources[i] != null && product.getTasksSource() == sources[i]) {
+				product.setTasksSource(written.get(i).getTasksSource());
+			}
+			if(product.getChangeCount() == counts[i]) {
+				product.setDirty(false);
+			}
+		}
+	}
+
+	/**
+	 * Copies a product and its tasks.
+	 * @param product to copy
+	 * @return a copy that does not share any changeable state with the product
+	 */
+	static Product copy(Product product) {
+		ArrayList<Task> tasks = product.getTasks();
+		ArrayList<Task> taskCopies = new ArrayList<Task>(tasks.size());
+		for(int i = 0; i < tasks.size(); i++) {
+			Task task = tasks.get(i);
+			taskCopies.add(new Task(task.getTaskId(), task.getStateName(), task.getTitle(), task.getTypeLongName(),
+					task.getCreator(), task.getOwner(), task.isVerified() ? "true" : "false",
+					new ArrayList<String>(task.getNotes())));
+		}
+		return new Product(product.getProductName(), () -> taskCopies);
+	}
+
+}
@@ -0,0 +1,744 @@
+package edu.ncsu.csc216.product_backlog.model.io;
+
+import java.io.BufferedInputStream;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.zip.CRC32;
+
+import edu.ncsu.csc216.product_backlog.model.command.Command;
+import edu.ncsu.csc216.product_backlog.model.command.Command.CommandValue;
+import edu.ncsu.csc216.product_backlog.model.product.Product;
+import edu.ncsu.csc216.product_backlog.model.task.Task;
+import edu.ncsu.csc216.product_backlog.model.task.Task.Type;
+
+/**
+ * The CommandJournal class keeps a binary snapshot up to date by appending every change made to the
+ * products to a journal file next to it, so saving a change costs as much as the change instead of a
+ * rewrite of every product. Opening the journal loads the snapshot and replays the journal on top of
+ * it. Once the journal holds enough records it is compacted: the journal is set aside and a new one is
+ * started, and a background thread replays the set aside journal onto the snapshot and writes the
+ * result as the new snapshot. Records are numbered and every snapshot stores the number of the first
+ * record it does not include, so a record is never applied twice if a compaction stops halfway.
+ *
+ * Every record is framed by its varint length and followed by a CRC32 of its bytes, and a record that
+ * was only partly written when the program stopped is dropped when the journal is opened. Records name
+ * the product they change instead of its place in the list, and products merged from a reloaded file
+ * are journaled too, so the list can change between records without a record reaching the wrong product.
+ * A change is recorded before it is made, and a change that fails after it was recorded discards its
+ * record, so the journal never holds a change the products do not.
+ * @author Riya Gunda
+ */
+public class CommandJournal {
+
+	/** Magic number at the start of every journal, the bytes PBJN */
+	static final int MAGIC = 0x50424A4E;
+	/** Version of the journal format */
+	static final int VERSION = 2;
+	/** Number of records after which the journal is compacted */
+	private static final int COMPACT_THRESHOLD = 10000;
+	/** Record that adds a product */
+	private static final int ADD_PRODUCT = 1;
+	/** Record that renames the products with the name of a product */
+	private static final int EDIT_PRODUCT = 2;
+	/** Record that deletes the products with a name */
+	private static final int DELETE_PRODUCT = 3;
+	/** Record that adds a task to a product */
+	private static final int ADD_TASK = 4;
+	/** Record that executes a command on a task */
+	private static final int EXECUTE_COMMAND = 5;
+	/** Record that deletes a task from a product */
+	private static final int DELETE_TASK = 6;
+	/** Record that removes every product */
+	private static final int CLEAR_PRODUCTS = 7;
+	/** Record that adds loaded products with all their tasks */
+	private static final int ADD_PRODUCTS = 8;
+	/** Record that merges products read again from a changed file */
+	private static final int MERGE_PRODUCTS = 9;
+	/** Task types in the order of their codes */
+	private static final Type[] TYPES = {Type.FEATURE, Type.BUG, Type.TECHNICAL_WORK,
+			Type.KNOWLEDGE_ACQUISITION};
+	/** Command values in the order of their codes */
+	private static final CommandValue[] COMMANDS = {CommandValue.BACKLOG, CommandValue.CLAIM,
+			CommandValue.PROCESS, CommandValue.VERIFY, CommandValue.COMPLETE, CommandValue.REJECT};
+
+	/** Name of the snapshot file */
+	private final String fileName;
+	/** Journal file new records are appended to */
+	private final File journal;
+	/** Journal file set aside to be compacted into the snapshot */
+	private final File oldJournal;
+	/** Products as they were when the journal was opened */
+	private final ArrayList<Product> products;
+	/** Bytes of the record being written */
+	private final ByteArrayOutputStream record = new ByteArrayOutputStream();
+	/** Stream the record being written is built with */
+	private final DataOutputStream out = new DataOutputStream(record);
+	/** Thread the journal is compacted on */
+	private final ExecutorService compactor;
+	/** Channel records are appended through */
+	private FileChannel channel;
+	/** Sequence number of the next record */
+	private long nextSequence;
+	/** Number of records in the journal */
+	private int records;
+	/** Position the last record starts at, or -1 if it cannot be discarded */
+	private long recordStart = -1;
+	/** Last compaction started, or null if none was started */
+	private Future<Void> compaction;
+
+	/**
+	 * Creates a journal for the snapshot file with the given name.
+	 * @param fileName of the snapshot
+	 * @param products loaded from the snapshot and journal
+	 */
+	private CommandJournal(String fileName, ArrayList<Product> products) {
+		this.fileName = fileName;
+		this.journal = new File(fileName + ".journal");
+		this.oldJournal = new File(fileName + ".journal.old");
+		this.products = products;
+		this.compactor = Executors.newSingleThreadExecutor(r -> {
+			Thread thread = new Thread(r, "Journal compaction");
+			thread.setDaemon(true);
+			return thread;
+		});
+	}
+
+	/**
+	 * Starts a new journal for the given products. The products are written to the snapshot file with
+	 * the given name and an empty journal is started next to it, replacing any earlier journal.
+	 * @param fileName of the snapshot to write
+	 * @param products to write to the snapshot
+	 * @return the new journal
+	 * @throws IllegalArgumentException with the message "Unable to save file." if the snapshot or
+	 * journal cannot be written
+	 */
+	public static CommandJournal create(String fileName, ArrayList<Product> products) {
+		if(fileName == null || fileName.isEmpty()) {
+			throw new IllegalArgumentException("Unable to save file.");
+		}
+		CommandJournal commandJournal = new CommandJournal(fileName, products);
+		try {
+			// The old journals go first so none of their records are replayed onto the new snapshot
+			Files.deleteIfExists(commandJournal.oldJournal.toPath());
+			Files.deleteIfExists(commandJournal.journal.toPath());
+			SnapshotWriter.writeSnapshot(fileName, products, 0);
+			commandJournal.channel = createJournal(commandJournal.journal, 0);
+		} catch(IOException | IllegalArgumentException e) {
+			commandJournal.compactor.shutdown();
+			throw new IllegalArgumentException("Unable to save file.");
+		}
+		return commandJournal;
+	}
+
+	/**
+	 * Opens the journal of the snapshot file with the given name. The snapshot is loaded and the
+	 * journal replayed on top of it, and later records are appended to the journal. A compaction that
+	 * did not finish before the journal was last closed is started again.
+	 * @param fileName of the snapshot to load
+	 * @return the opened journal
+	 * @throws IllegalArgumentException with the message "Unable to load file." if the snapshot or
+	 * journal cannot be loaded
+	 */
+	public static CommandJournal open(String fileName) {
+		CommandJournal commandJournal = null;
+		try {
+			long sequence = SnapshotReader.readJournalSequence(fileName);
+			commandJournal = new CommandJournal(fileName, SnapshotReader.readSnapshot(fileName));
+			if(commandJournal.oldJournal.exists()) {
+				sequence = replay(commandJournal.oldJournal, commandJournal.products, sequence).sequence;
+			}
+			Replay replay = null;
+			if(commandJournal.journal.exists()) {
+				replay = replay(commandJournal.journal, commandJournal.products, sequence);
+			}
+			if(replay == null || replay.length == 0) {
+				commandJournal.channel = createJournal(commandJournal.journal, sequence);
+				commandJournal.nextSequence = sequence;
+			} else {
+				commandJournal.channel = FileChannel.open(commandJournal.journal.toPath(),
+						StandardOpenOption.WRITE);
+				// Drops a record that was only partly written
+				commandJournal.channel.truncate(replay.length);
+				commandJournal.channel.position(replay.length);
+				commandJournal.nextSequence = replay.sequence;
+				commandJournal.records = replay.records;
+			}
+			if(commandJournal.oldJournal.exists()) {
+				commandJournal.compact();
+			}
+			for(Product product : commandJournal.products) {
+				product.setDirty(false);
+			}
+			return commandJournal;
+		} catch(IOException | IllegalArgumentException e) {
+			if(commandJournal != null) {
+				commandJournal.close();
+			}
+			throw new IllegalArgumentException("Unable to load file.");
+		}
+	}
+
+	/**
+	 * Returns the products loaded when the journal was opened or created.
+	 * @return the loaded products
+	 */
+	public ArrayList<Product> getProducts() {
+		return products;
+	}
+
+	/**
+	 * Records that a product was added.
+	 * @param productName of the added product
+	 */
+	public synchronized void recordAddProduct(String productName) {
+		try {
+			startRecord(ADD_PRODUCT);
+			SnapshotWriter.writeString(out, productName);
+			finishRecord();
+		} catch(IOException e) {
+			throw new IllegalArgumentException("Unable to save file.");
+		}
+	}
+
+	/**
+	 * Records that the products with the name of a product were renamed.
+	 * @param productName of the products before they were renamed
+	 * @param updateName the products were renamed to
+	 */
+	public synchronized void recordEditProduct(String productName, String updateName) {
+		try {
+			startRecord(EDIT_PRODUCT);
+			SnapshotWriter.writeString(out, productName);
+			SnapshotWriter.writeString(out, updateName);
+			finishRecord();
+		} catch(IOException e) {
+			throw new IllegalArgumentException("Unable to save file.");
+		}
+	}
+
+	/**
+	 * Records that the products with a name were deleted.
+	 * @param productName of the deleted products
+	 */
+	public synchronized void recordDeleteProduct(String productName) {
+		try {
+			startRecord(DELETE_PRODUCT);
+			SnapshotWriter.writeString(out, productName);
+			finishRecord();
+		} catch(IOException e) {
+			throw new IllegalArgumentException("Unable to save file.");
+		}
+	}
+
+	/**
+	 * Records that a task was added to a product. The id of the task is recorded so the task keeps it
+	 * when the journal is replayed.
+	 * @param productName of the product
+	 * @param task that was added
+	 * @param note the task was created with
+	 */
+	public synchronized void recordAddTask(String productName, Task task, String note) {
+		try {
+			startRecord(ADD_TASK);
+			SnapshotWriter.writeString(out, productName);
+			SnapshotWriter.writeVarint(out, task.getTaskId());
+			out.writeByte(code(TYPES, task.getType()));
+			SnapshotWriter.writeString(out, task.getTitle());
+			SnapshotWriter.writeString(out, task.getCreator());
+			SnapshotWriter.writeString(out, note);
+			finishRecord();
+		} catch(IOException e) {
+			throw new IllegalArgumentException("Unable to save file.");
+		}
+	}
+
+	/**
+	 * Records that a command was executed on a task.
+	 * @param productName of the product
+	 * @param id of the task
+	 * @param c command that was executed
+	 */
+	public synchronized void recordExecuteCommand(String productName, int id, Command c) {
+		try {
+			startRecord(EXECUTE_COMMAND);
+			SnapshotWriter.writeString(out, productName);
+			SnapshotWriter.writeVarint(out, id);
+			out.writeByte(code(COMMANDS, c.getCommand()));
+			SnapshotWriter.writeString(out, c.getOwner() == null ? "" : c.getOwner());
+			SnapshotWriter.writeString(out, c.getNoteText());
+			finishRecord();
+		} catch(IOException e) {
+			throw new IllegalArgumentException("Unable to save file.");
+		}
+	}
+
+	/**
+	 * Records that a task was deleted from a product.
+	 * @param productName of the product
+	 * @param id of the deleted task
+	 */
+	public synchronized void recordDeleteTask(String productName, int id) {
+		try {
+			startRecord(DELETE_TASK);
+			SnapshotWriter.writeString(out, productName);
+			SnapshotWriter.writeVarint(out, id);
+			finishRecord();
+		} catch(IOException e) {
+			throw new IllegalArgumentException("Unable to save file.");
+		}
+	}
+
+	/**
+	 * Records that every product was removed.
+	 */
+	public synchronized void recordClearProducts() {
+		try {
+			startRecord(CLEAR_PRODUCTS);
+			finishRecord();
+		} catch(IOException e) {
+			throw new IllegalArgumentException("Unable to save file.");
+		}
+	}
+
+	/**
+	 * Records that loaded products were added to the end of the list of products.
+	 * @param loaded products that were added
+	 */
+	public synchronized void recordAddProducts(ArrayList<Product> loaded) {
+		try {
+			startRecord(ADD_PRODUCTS);
+			SnapshotWriter.writeVarint(out, loaded.size());
+			for(Product product : loaded) {
+				SnapshotWriter.writeProduct(out, product);
+			}
+			finishRecord();
+		} catch(IOException e) {
+			throw new IllegalArgumentException("Unable to save file.");
+		}
+	}
+
+	/**
+	 * Records that products read again from a changed file were merged into the list of products. Each
+	 * merged product replaced the product of the same name, or was added to the end if there was none.
+	 * @param merged products that were merged
+	 * @param removed names of the products that were removed
+	 */
+	public synchronized void recordMergeProducts(ArrayList<Product> merged, ArrayList<String> removed) {
+		try {
+			startRecord(MERGE_PRODUCTS);
+			SnapshotWriter.writeVarint(out, merged.size());
+			for(Product product : merged) {
+				SnapshotWriter.writeProduct(out, product);
+			}
+			SnapshotWriter.writeVarint(out, removed.size());
+			for(String productName : removed) {
+				SnapshotWriter.writeString(out, productName);
+			}
+			finishRecord();
+		} catch(IOException e) {
+			throw new IllegalArgumentException("Unable to save file.");
+		}
+	}
+
+	/**
+	 * Removes the last record from the journal, for a change that failed after it was recorded. Does
+	 * nothing if there is no record to remove.
+	 * @throws IllegalArgumentException with the message "Unable to save file." if the record cannot be
+	 * removed
+	 */
+	public synchronized void discardRecord() {
+		if(recordStart < 0) {
+			return;
+		}
+		try {
+			channel.truncate(recordStart);
+			channel.position(recordStart);
+		} catch(IOException e) {
+			throw new IllegalArgumentException("Unable to save file.");
+		}
+		recordStart = -1;
+		nextSequence--;
+		records--;
+	}
+
+	/**
+	 * Compacts the journal into the snapshot in the background. The journal is set aside and a new one
+	 * started before this method returns, so records can be appended while the compaction runs. Does
+	 * nothing if a compaction is already running.
+	 * @throws IllegalArgumentException with the message "Unable to save file." if the journal cannot
+	 * be set aside
+	 */
+	public synchronized void compact() {
+		if(compaction != null && !compaction.isDone()) {
+			return;
+		}
+		// A journal left over from a compaction that did not finish is compacted first
+		if(!oldJournal.exists()) {
+			try {
+				channel.close();
+				Files.move(journal.toPath(), oldJournal.toPath(), StandardCopyOption.ATOMIC_MOVE);
+				channel = createJournal(journal, nextSequence);
+				records = 0;
+				recordStart = -1;
+			} catch(IOException e) {
+				throw new IllegalArgumentException("Unable to save file.");
+			}
+		}
+		compaction = compactor.submit(() -> {
+			compactOldJournal();
+			return null;
+		});
+	}
+
+	/**
+	 * Waits for a running compaction and closes the journal. A compaction that failed is started again
+	 * the next time the journal is opened.
+	 */
+	public synchronized void close() {
+		if(compaction != null) {
+			try {
+				compaction.get();
+			} catch(InterruptedException e) {
+				Thread.currentThread().interrupt();
+			} catch(ExecutionException e) {
+				// The set aside journal is kept and replayed when the journal is opened
+			}
+		}
+		compactor.shutdown();
+		try {
+			if(channel != null) {
+				channel.close();
+			}
+		} catch(IOException e) {
+			throw new IllegalArgumentException("Unable to save file.");
+		}
+	}
+
+	/**
+	 * Replays the set aside journal onto the snapshot, writes the result as the new snapshot and
+	 * deletes the set aside journal. Runs on the compaction thread and only touches files, never the
+	 * products in use.
+	 * @throws IOException if the snapshot or journal cannot be read or written
+	 */
+	private void compactOldJournal() throws IOException {
+		long sequence = SnapshotReader.readJournalSequence(fileName);
+		ArrayList<Product> compacted = SnapshotReader.readSnapshot(fileName);
+		sequence = replay(oldJournal, compacted, sequence).sequence;
+		SnapshotWriter.writeSnapshot(fileName, compacted, sequence);
+		Files.delete(oldJournal.toPath());
+	}
+
+	/**
+	 * Starts a record of the given type. Starts a compaction first once the journal is long enough, so
+	 * the last record stays in the journal until the next one is started and can still be discarded.
+	 * @param type of the record
+	 * @throws IOException if the type cannot be written
+	 */
+	private void startRecord(int type) throws IOException {
+		if(records >= COMPACT_THRESHOLD) {
+			compact();
+		}
+		record.reset();
+		out.writeByte(type);
+	}
+
+	/**
+	 * Frames the record being written with its length and checksum and appends it to the journal. A
+	 * record that is only partly appended is cut off again, so later records are not lost behind it.
+	 * @throws IOException if the record cannot be appended
+	 */
+	private void finishRecord() throws IOException {
+		byte[] payload = record.toByteArray();
+		CRC32 crc = new CRC32();
+		crc.update(payload);
+		record.reset();
+		SnapshotWriter.writeVarint(out, payload.length);
+		out.write(payload);
+		out.writeInt((int) crc.getValue());
+
+		ByteBuffer buffer = ByteBuffer.wrap(record.toByteArray());
+		long start = channel.position();
+		try {
+			while(buffer.hasRemaining()) {
+				channel.write(buffer);
+			}
+		} catch(IOException e) {
+			channel.truncate(start);
+			channel.position(start);
+			throw e;
+		}
+		recordStart = start;
+		nextSequence++;
+		records++;
+	}
+
+	/**
+	 * Creates an empty journal file whose first record has the given sequence number.
+	 * @param file to create
+	 * @param sequence of the first record
+	 * @return channel to append records through
+	 * @throws IOException if the journal cannot be created
+	 */
+	private static FileChannel createJournal(File file, long sequence) throws IOException {
+		ByteArrayOutputStream header = new ByteArrayOutputStream();
+		DataOutputStream headerOut = new DataOutputStream(header);
+		headerOut.writeInt(MAGIC);
+		headerOut.writeByte(VERSION);
+		SnapshotWriter.writeVarint(headerOut, sequence);
+
+		FileChannel fileChannel = FileChannel.open(file.toPath(), StandardOpenOption.CREATE,
+				StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING);
+		ByteBuffer buffer = ByteBuffer.wrap(header.toByteArray());
+		while(buffer.hasRemaining()) {
+			fileChannel.write(buffer);
+		}
+		return fileChannel;
+	}
+
+	/**
+	 * Applies the complete records of a journal file to the products, skipping records before the
+	 * given sequence number, which are already part of the snapshot. Reading stops at the first record
+	 * that was only partly written.
+	 * @param file journal to replay
+	 * @param products to apply the records to
+	 * @param fromSequence sequence number of the first record to apply
+	 * @return where the replay stopped
+	 * @throws IOException if the journal cannot be read or a record cannot be applied
+	 */
+	private static Replay replay(File file, ArrayList<Product> products, long fromSequence) throws IOException {
+		Replay replay = new Replay();
+		replay.sequence = fromSequence;
+		long size = file.length();
+		try (DataInputStream in = new DataInputStream(new BufferedInputStream(new FileInputStream(file)))) {
+			long sequence;
+			try {
+				if(in.readInt() != MAGIC || in.readUnsignedByte() != VERSION) {
+					throw new IOException("Not a journal.");
+				}
+				sequence = SnapshotReader.readVarint(in);
+			} catch(EOFException e) {
+				// The journal was created but its header never made it to the disk
+				return replay;
+			}
+			long length = 5 + varintSize(sequence);
+			replay.length = length;
+			replay.sequence = Math.max(fromSequence, sequence);
+
+			CRC32 crc = new CRC32();
+			byte[] payload = new byte[256];
+			while(true) {
+				int payloadLength;
+				try {
+					payloadLength = SnapshotReader.readCount(in);
+					length += varintSize(payloadLength) + payloadLength + 4;
+					if(length > size) {
+						break;
+					}
+					if(payloadLength > payload.length) {
+						payload = new byte[payloadLength];
+					}
+					in.readFully(payload, 0, payloadLength);
+					crc.reset();
+					crc.update(payload, 0, payloadLength);
+					if(in.readInt() != (int) crc.getValue()) {
+						break;
+					}
+				} catch(EOFException e) {
+					break;
+				}
+				if(sequence >= fromSequence) {
+					apply(payload, payloadLength, products);
+				}
+				sequence++;
+				replay.records++;
+				replay.length = length;
+				replay.sequence = Math.max(fromSequence, sequence);
+			}
+		}
+		return replay;
+	}
+
+	/**
+	 * Applies one record to the products, the same way BacklogManager made the recorded change.
+	 * @param payload bytes of the record
+	 * @param payloadLength number of bytes in the record
+	 * @param products to apply the record to
+	 * @throws IOException if the record cannot be read or does not match the products
+	 */
+	private static void apply(byte[] payload, int payloadLength, ArrayList<Product> products) throws IOException {
+		DataInputStream in = new DataInputStream(new ByteArrayInputStream(payload, 0, payloadLength));
+		SnapshotReader reader = new SnapshotReader(in);
+		int type = in.readUnsignedByte();
+		if(type == ADD_PRODUCT) {
+			products.add(new Product(reader.readString()));
+		} else if(type == EDIT_PRODUCT) {
+			String productName = findProduct(products, reader.readString()).getProductName();
+			String updateName = reader.readString();
+			for(int i = 0; i < products.size(); i++) {
+				if(products.get(i).getProductName().equals(productName)) {
+					products.get(i).setProductName(updateName);
+				}
+			}
+		} else if(type == DELETE_PRODUCT) {
+			String productName = reader.readString();
+			for(int i = 0; i < products.size(); i++) {
+				if(products.get(i).getProductName().equals(productName)) {
+					products.remove(i);
+				}
+			}
+		} else if(type == ADD_TASK) {
+			Product product = findProduct(products, reader.readString());
+			int id = SnapshotReader.readCount(in);
+			Type taskType = SnapshotReader.decode(TYPES, in.readUnsignedByte());
+			if(product.getTaskById(id) != null) {
+				throw new IOException("Task already exists.");
+			}
+			String title = reader.readString();
+			String creator = reader.readString();
+			product.addTask(new Task(id, title, taskType, creator, reader.readString()));
+		} else if(type == EXECUTE_COMMAND) {
+			Task task = findTask(findProduct(products, reader.readString()), SnapshotReader.readCount(in));
+			CommandValue value = SnapshotReader.decode(COMMANDS, in.readUnsignedByte());
+			String owner = reader.readString();
+			String note = reader.readString();
+			try {
+				task.update(new Command(value, owner.isEmpty() ? null : owner, note));
+			} catch(UnsupportedOperationException e) {
+				// The task is not in a state the command was executed in, so the record does not belong here
+				throw new IOException("Invalid command.");
+			}
+		} else if(type == DELETE_TASK) {
+			Product product = findProduct(products, reader.readString());
+			product.deleteTaskById(findTask(product, SnapshotReader.readCount(in)).getTaskId());
+		} else if(type == CLEAR_PRODUCTS) {
+			products.clear();
+		} else if(type == ADD_PRODUCTS) {
+			int productCount = SnapshotReader.readCount(in);
+			for(int i = 0; i < productCount; i++) {
+				products.add(reader.readProduct());
+			}
+		} else if(type == MERGE_PRODUCTS) {
+			int productCount = SnapshotReader.readCount(in);
+			for(int i = 0; i < productCount; i++) {
+				Product merged = reader.readProduct();
+				int index = indexOf(products, merged.getProductName());
+				if(index < 0) {
+					products.add(merged);
+				} else {
+					products.set(index, merged);
+				}
+			}
+			int removedCount = SnapshotReader.readCount(in);
+			for(int i = 0; i < removedCount; i++) {
+				String productName = reader.readString();
+				products.removeIf(product -> product.getProductName().equals(productName));
+			}
+		} else {
+			throw new IOException("Unknown record.");
+		}
+	}
+
+	/**
+	 * Returns the first product with a name.
+	 * @param products to search
+	 * @param productName of the product
+	 * @return the product with the name
+	 * @throws IOException if no product has the name
+	 */
+	private static Product findProduct(ArrayList<Product> products, String productName) throws IOException {
+		int index = indexOf(products, productName);
+		if(index < 0) {
+			throw new IOException("Unknown product.");
+		}
+		return products.get(index);
+	}
+
+	/**
+	 * Returns the index of the first product with a name.
+	 * @param products to search
+	 * @param productName of the product
+	 * @return the index of the product, or -1 if no product has the name
+	 */
+	private static int indexOf(ArrayList<Product> products, String productName) {
+		for(int i = 0; i < products.size(); i++) {
+			if(products.get(i).getProductName().equals(productName)) {
+				return i;
+			}
+		}
+		return -1;
+	}
+
+	/**
+	 * Returns the task of a product with an id.
+	 * @param product to search
+	 * @param id of the task
+	 * @return the task with the id
+	 * @throws IOException if the product has no task with the id
+	 */
+	private static Task findTask(Product product, int id) throws IOException {
+		Task task = product.getTaskById(id);
+		if(task == null) {
+			throw new IOException("Unknown task.");
+		}
+		return task;
+	}
+
+	/**
+	 * Returns the code of a value, which is its index in the given table.
+	 * @param values table of values in the order of their codes
+	 * @param value to look up
+	 * @return the code of the value
+	 * @throws IOException if the value is not in the table
+	 */
+	private static int code(Object[] values, Object value) throws IOException {
+		for(int i = 0; i < values.length; i++) {
+			if(values[i] == value) {
+				return i;
+			}
+		}
+		throw new IOException("Unknown value " + value);
+	}
+
+	/**
+	 * Returns the number of bytes a value takes as a varint.
+	 * @param value to measure
+	 * @return the size of the varint
+	 */
+	private static int varintSize(long value) {
+		int size = 1;
+		while((value & ~0x7FL) != 0) {
+			value >>>= 7;
+			size++;
+		}
+		return size;
+	}
+
+	/**
+	 * Where the replay of a journal file stopped.
+	 */
+	private static class Replay {
+		/** Sequence number of the record after the last one replayed */
+		private long sequence;
+		/** Length of the header and the complete records */
+		private long length;
+		/** Number of complete records */
+		private int records;
+	}
+
+}
@@ -0,0 +1,184 @@
+package edu.ncsu.csc216.product_backlog.model.io;
+
+import java.io.BufferedInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.Charset;
+import java.nio.file.Files;
+import java.nio.file.InvalidPathException;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.zip.CRC32;
+import java.util.zip.GZIPInputStream;
+
+import edu.ncsu.csc216.product_backlog.model.product.Product;
+
+/**
+ * The ProductSections class splits a backlog file into the sections of lines that belong to each
+ * product and keeps a checksum of every section, without parsing any of them. A caller that kept the
+ * checksums of an earlier version of the file can then parse only the sections that changed. Finding
+ * the sections and their checksums reads every byte once, but no Strings are decoded except the
+ * product names. The file is copied into memory, so other programs can go on changing it while its
+ * sections are parsed, and the size and modification time it had are kept to tell whether it changed
+ * since it was read.
+ * @author Riya Gunda
+ */
+public class ProductSections {
+
+	/** Character set the backlog files are written in */
+	private static final Charset CHARSET = Charset.defaultCharset();
+
+	/** File the sections were read from */
+	private final Path path;
+	/** Size of the file before it was read */
+	private final long size;
+	/** Modification time of the file in milliseconds before it was read */
+	private final long modified;
+	/** Contents of the file */
+	private final ByteBuffer buffer;
+	/** Offsets of the product lines in the file, followed by the size of the file */
+	private final long[] offsets;
+	/** Checksums of the sections */
+	private final long[] checksums;
+
+	/**
+	 * Creates the sections of a file.
+	 * @param path of the file
+	 * @param size of the file before it was read
+	 * @param modified time of the file in milliseconds before it was read
+	 * @param buffer holding the contents of the file
+	 * @param offsets of the product lines, followed by the size of the file
+	 * @param checksums of the sections
+	 */
+	private ProductSections(Path path, long size, long modified, ByteBuffer buffer, long[] offsets,
+			long[] checksums) {
+		this.path = path;
+		this.size = size;
+		this.modified = modified;
+		this.buffer = buffer;
+		this.offsets = offsets;
+		this.checksums = checksums;
+	}
+
+	/**
+	 * Reads the file with the given name into memory and finds its product sections. A file compressed
+	 * with GZIP is decompressed into memory.
+	 * @param fileName of the file to read
+	 * @return the sections of the file
+	 * @throws IllegalArgumentException with the message "Unable to load file." if the file cannot be
+	 * read
+	 */
+	public static ProductSections readSections(String fileName) {
+		try {
+			Path path = Paths.get(fileName);
+			long size = Files.size(path);
+			long modified = Files.getLastModifiedTime(path).toMillis();
+			ByteBuffer buffer = readFile(path);
+			long[] offsets = ProductsReader.findProductOffsets(buffer);
+
+			long[] checksums = new long[offsets.length - 1];
+			CRC32 crc = new CRC32();
+			for(int i = 0; i < checksums.length; i++) {
+				crc.reset();
+				ByteBuffer section = buffer.duplicate();
+				section.position((int) offsets[i]).limit((int) offsets[i + 1]);
+				crc.update(section);
+				checksums[i] = (offsets[i + 1] - offsets[i]) << 32 | crc.getValue();
+			}
+			return new ProductSections(path, size, modified, buffer, offsets, checksums);
+		} catch(IOException | InvalidPathException e) {
+			throw new IllegalArgumentException("Unable to load file.");
+		}
+	}
+
+	/**
+	 * Copies the file into memory, decompressing it if it is compressed. The file is read instead of
+	 * mapped, so another program truncating it only ends the copy early.
+	 * @param path of the file
+	 * @return buffer holding the contents of the file
+	 * @throws IOException if the file cannot be read or is too large to hold in memory
+	 */
+	private static ByteBuffer readFile(Path path) throws IOException {
+		try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+			long size = channel.size();
+			if(size > Integer.MAX_VALUE) {
+				throw new IOException("File is too large.");
+			}
+			ByteBuffer buffer = ByteBuffer.allocate((int) size);
+			while(buffer.hasRemaining() && channel.read(buffer) >= 0) {
+				// Keep reading until the buffer is full or the file ends
+			}
+			buffer.flip();
+			if(buffer.limit() < 2 || (buffer.get(0) & 0xFF) != 0x1F || (buffer.get(1) & 0xFF) != 0x8B) {
+				return buffer;
+			}
+		}
+		try (InputStream in = new GZIPInputStream(new BufferedInputStream(Files.newInputStream(path)))) {
+			return ByteBuffer.wrap(in.readAllBytes());
+		}
+	}
+
+	/**
+	 * Returns true if the file still has the size and modification time it had before it was read, so
+	 * the sections were most likely read from a file no other program was writing.
+	 * @return true if the file has not changed since it was read
+	 */
+	public boolean isCurrent() {
+		try {
+			return Files.size(path) == size && Files.getLastModifiedTime(path).toMillis() == modified;
+		} catch(IOException e) {
+			return false;
+		}
+	}
+
+	/**
+	 * Returns the number of product sections in the file.
+	 * @return the number of sections
+	 */
+	public int getSectionCount() {
+		return checksums.length;
+	}
+
+	/**
+	 * Returns the name on the product line of a section.
+	 * @param section index of the section
+	 * @return the name of the product the section holds
+	 */
+	public String getProductName(int section) {
+		int start = (int) offsets[section] + 1;
+		int end = start;
+		while(end < offsets[section + 1] && buffer.get(end) != '\n') {
+			end++;
+		}
+		byte[] bytes = new byte[end - start];
+		buffer.get(start, bytes);
+		return new String(bytes, CHARSET).trim();
+	}
+
+	/**
+	 * Returns the checksum of a section. Two sections with the same checksum have the same length and
+	 * almost certainly the same bytes.
+	 * @param section index of the section
+	 * @return the checksum of the section
+	 */
+	public long getChecksum(int section) {
+		return checksums[section];
+	}
+
+	/**
+	 * Parses a section into a product.
+	 * @param section index of the section
+	 * @return the product the section holds, or null if it holds no tasks
+	 */
+	public Product readProduct(int section) {
+		int length = (int) (offsets[section + 1] - offsets[section]);
+		ArrayList<Product> products = ProductsReader.readProducts(buffer.slice((int) offsets[section], length),
+				length);
+		return products.isEmpty() ? null : products.get(0);
+	}
+
+}
@@ -0,0 +1,184 @@
+package edu.ncsu.csc216.product_backlog.model.io;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.Charset;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.IdentityHashMap;
+
+import edu.ncsu.csc216.product_backlog.model.product.Product;
+import edu.ncsu.csc216.product_backlog.model.task.Task;
+
+/**
+ * The ProductsDirectory class stores a backlog as a directory with one file for every product and a
+ * manifest listing the products in order. Each product file has the same format ProductsWriter writes.
+ * When the backlog is saved again, only the files of products that changed since they were loaded or
+ * last saved are rewritten, so a small change to a large backlog only costs writing one product.
+ * Products are loaded from their files the first time their tasks are needed.
+ * @author Riya Gunda
+ */
+public class ProductsDirectory {
+
+	/** Name of the manifest file in the directory */
+	static final String MANIFEST = "products.txt";
+	/** Start of the name of every product file */
+	private static final String PREFIX = "product-";
+	/** End of the name of every product file */
+	private static final String SUFFIX = ".txt";
+	/** Character set the manifest is written in */
+	private static final Charset CHARSET = Charset.defaultCharset();
+
+	/** Directory the backlog is stored in */
+	private final File directory;
+	/** Name of the file each product was last read from or written to */
+	private final IdentityHashMap<Product, String> files = new IdentityHashMap<Product, String>();
+	/** Change count each product had when it was last read from or written to its file */
+	private final IdentityHashMap<Product, Integer> counts = new IdentityHashMap<Product, Integer>();
+	/** Number of the next product file to try when a new product is written */
+	private int nextFile;
+
+	/**
+	 * Creates a store for the backlog in the given directory.
+	 * @param directoryName of the directory to store the backlog in
+	 */
+	public ProductsDirectory(String directoryName) {
+		this.directory = new File(directoryName);
+	}
+
+	/**
+	 * Returns true if this store keeps its backlog in the directory with the given name.
+	 * @param directoryName of the directory
+	 * @return true if the backlog is stored in that directory
+	 */
+	public boolean isDirectory(String directoryName) {
+		return directory.getAbsoluteFile().equals(new File(directoryName).getAbsoluteFile());
+	}
+
+	/**
+	 * Reads the manifest of the directory and returns its products. The tasks of each product are read
+	 * from its file the first time they are needed, and the products start out clean.
+	 * @return a list of the products in the directory
+	 * @throws IllegalArgumentException with the message "Unable to load file." if the manifest cannot be
+	 * loaded
+	 */
+	public ArrayList<Product> readProducts() {
+		ArrayList<Product> products = new ArrayList<Product>();
+		files.clear();
+		counts.clear();
+		try (BufferedReader reader = Files.newBufferedReader(new File(directory, MANIFEST).toPath(), CHARSET)) {
+			String line;
+			while ((line = reader.readLine()) != null) {
+				int space = line.indexOf(' ');
+				if(space <= 0) {
+					throw new IllegalArgumentException("Unable to load file.");
+				}
+				String file = line.substring(0, space);
+				File productFile = new File(directory, file);
+				Product product = new Product(line.substring(space + 1), () -> readTasks(productFile));
+				files.put(product, file);
+				counts.put(product, product.getChangeCount());
+				products.add(product);
+			}
+		} catch(IOException | IllegalArgumentException e) {
+			files.clear();
+			counts.clear();
+			throw new IllegalArgumentException("Unable to load file.");
+		}
+		return products;
+	}
+
+	/**
+	 * Reads the tasks of one product file.
+	 * @param productFile to read
+	 * @return the tasks of the product in the file, or an empty list if it has no tasks
+	 * @throws IllegalArgumentException with the message "Unable to load file." if the file cannot be
+	 * loaded
+	 */
+	private static ArrayList<Task> readTasks(File productFile) {
+		ArrayList<Product> products = ProductsReader.readProductsFile(productFile.getPath());
+		return products.isEmpty() ? new ArrayList<Task>() : products.get(0).getTasks();
+	}
+
+	/**
+	 * Writes the products to the directory. Products that changed since they were last read from or
+	 * written to this directory, or never were, get their file rewritten, and every other file is left
+	 * alone. Whether a product changed is told by its change count rather than its dirty flag, since
+	 * saving it to another file marks it clean too. The manifest is
+	 * then replaced, files of products that are no longer in the list are deleted, and the written
+	 * products are marked clean.
+	 * @param products to write
+	 * @param compress true if rewritten product files should be compressed
+	 * @throws IllegalArgumentException with the message "Unable to save file" if the directory cannot
+	 * be written
+	 */
+	public void writeProducts(ArrayList<Product> products, boolean compress) {
+		if(!directory.isDirectory()) {
+			throw new IllegalArgumentException("Unable to save file");
+		}
+		ArrayList<Product> written = new ArrayList<Product>();
+		StringBuilder manifest = new StringBuilder();
+		HashSet<String> used = new HashSet<String>();
+		for(int i = 0; i < products.size(); i++) {
+			Product product = products.get(i);
+			String file = files.get(product);
+			Integer count = counts.get(product);
+			if(file == null || count == null || count.intValue() != product.getChangeCount()) {
+				if(file == null) {
+					file = newFileName();
+				}
+				ArrayList<Product> single = new ArrayList<Product>(1);
+				single.add(product);
+				ProductsWriter.writeProductsToFile(new File(directory, file).getPath(), single, compress, false,
+						null);
+				files.put(product, file);
+				counts.put(product, product.getChangeCount());
+				written.add(product);
+			}
+			used.add(file);
+			manifest.append(file).append(' ').append(product.getProductName()).append(System.lineSeparator());
+		}
+
+		File manifestFile = new File(directory, MANIFEST);
+		File temp = new File(directory, MANIFEST + ".tmp");
+		try {
+			try (BufferedWriter writer = Files.newBufferedWriter(temp.toPath(), CHARSET)) {
+				writer.write(manifest.toString());
+			}
+			Files.move(temp.toPath(), manifestFile.toPath(), StandardCopyOption.REPLACE_EXISTING);
+		} catch(IOException e) {
+			temp.delete();
+			throw new IllegalArgumentException("Unable to save file");
+		}
+
+		files.values().removeIf(file -> !used.contains(file));
+		counts.keySet().retainAll(files.keySet());
+		File[] existing = directory.listFiles();
+		for(int i = 0; existing != null && i < existing.length; i++) {
+			String name = existing[i].getName();
+			if(name.startsWith(PREFIX) && name.endsWith(SUFFIX) && !used.contains(name)) {
+				existing[i].delete();
+			}
+		}
+		for(int i = 0; i < written.size(); i++) {
+			written.get(i).setDirty(false);
+		}
+	}
+
+	/**
+	 * Returns the name of a product file that is not in the directory yet.
+	 * @return name of an unused product file
+	 */
+	private String newFileName() {
+		String name;
+		do {
+			name = PREFIX + nextFile++ + SUFFIX;
+		} while(new File(directory, name).exists());
+		return name;
+	}
+
+}
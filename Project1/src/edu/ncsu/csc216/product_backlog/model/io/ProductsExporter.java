@@ -0,0 +1,249 @@
+package edu.ncsu.csc216.product_backlog.model.io;
+
+import java.io.BufferedWriter;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+
+import edu.ncsu.csc216.product_backlog.model.product.Product;
+import edu.ncsu.csc216.product_backlog.model.product.Product.TasksSource;
+import edu.ncsu.csc216.product_backlog.model.task.Task;
+
+/**
+ * The ProductsExporter class writes every task of a list of products to a CSV or JSON Lines file for
+ * other tools to read. Each task is written as one row that also names its product, in the same columns
+ * ProductsImporter reads, so an exported file can be imported again. Every field is escaped straight
+ * into a buffered writer, so no row is built in memory first and the memory used does not grow with the
+ * number of tasks. The tasks of a product that are not loaded yet are read from its source one product
+ * at a time and dropped once written, so exporting does not load them into the product. Both formats
+ * are written as UTF-8, first to a temporary file that then replaces the file.
+ * @author Riya Gunda
+ */
+public class ProductsExporter {
+
+	/** Size of the output buffer in characters */
+	private static final int BUFFER_SIZE = 1 << 16;
+	/** First row of a CSV file, naming the columns */
+	private static final String CSV_HEADER = "product,id,state,title,type,creator,owner,verified,notes";
+	/** Digits used to escape characters in JSON Strings */
+	private static final char[] HEX = "0123456789abcdef".toCharArray();
+
+	/**
+	 * Exports to a file whose name ends in .csv as CSV, and to any other file as JSON Lines.
+	 * @param fileName of the file to write
+	 * @param products to export
+	 * @throws IllegalArgumentException with the message "Unable to save file." if the file cannot be
+	 * written
+	 */
+	public static void exportFile(String fileName, ArrayList<Product> products) {
+		if(fileName != null && fileName.toLowerCase().endsWith(".csv")) {
+			exportCsv(fileName, products);
+		} else {
+			exportJsonLines(fileName, products);
+		}
+	}
+
+	/**
+	 * Exports the tasks to a CSV file. The first row names the columns product, id, state, title, type,
+	 * creator, owner, verified and notes, and every note of a task gets its own column from the notes
+	 * column on. Fields are quoted when they hold commas, quotes, line breaks or leading or trailing
+	 * spaces.
+	 * @param fileName of the file to write
+	 * @param products to export
+	 * @throws IllegalArgumentException with the message "Unable to save file." if the file cannot be
+	 * written
+	 */
+	public static void exportCsv(String fileName, ArrayList<Product> products) {
+		export(fileName, products, true);
+	}
+
+	/**
+	 * Exports the tasks to a JSON Lines file, one JSON object per task. The object has the fields
+	 * product, id, state, title, type, creator, owner, verified and notes, where id is a number, verified
+	 * is a boolean and notes is an array of Strings.
+	 * @param fileName of the file to write
+	 * @param products to export
+	 * @throws IllegalArgumentException with the message "Unable to save file." if the file cannot be
+	 * written
+	 */
+	public static void exportJsonLines(String fileName, ArrayList<Product> products) {
+		export(fileName, products, false);
+	}
+
+	/**
+	 * Writes the tasks to a temporary file and moves it over the file.
+	 * @param fileName of the file to write
+	 * @param products to export
+	 * @param csv true to write CSV, false to write JSON Lines
+	 * @throws IllegalArgumentException with the message "Unable to save file." if the file cannot be
+	 * written
+	 */
+	private static void export(String fileName, ArrayList<Product> products, boolean csv) {
+		if(fileName == null || fileName.isEmpty() || new File(fileName).isDirectory()) {
+			throw new IllegalArgumentException("Unable to save file.");
+		}
+		File file = new File(fileName);
+		File temp = new File(fileName + ".tmp");
+		try {
+			try (Writer out = new BufferedWriter(new OutputStreamWriter(new FileOutputStream(temp),
+					StandardCharsets.UTF_8), BUFFER_SIZE)) {
+				if(csv) {
+					out.write(CSV_HEADER);
+					out.write('\n');
+				}
+				for(int i = 0; i < products.size(); i++) {
+					Product product = products.get(i);
+					TasksSource source = product.getTasksSource();
+					ArrayList<Task> tasks = source != null ? source.get() : product.getTasks();
+					for(int j = 0; j < tasks.size(); j++) {
+						if(csv) {
+							writeCsvRow(out, product.getProductName(), tasks.get(j));
+						} else {
+							writeJsonRow(out, product.getProductName(), tasks.get(j));
+						}
+					}
+				}
+			}
+			Files.move(temp.toPath(), file.toPath(), StandardCopyOption.REPLACE_EXISTING);
+		} catch(IOException | IllegalArgumentException e) {
+			temp.delete();
+			throw new IllegalArgumentException("Unable to save file.");
+		}
+	}
+
+	/**
+	 * Writes one task as a CSV row.
+	 * @param out writer to write to
+	 * @param productName of the product the task is in
+	 * @param task to write
+	 * @throws IOException if the row cannot be written
+	 */
+	private static void writeCsvRow(Writer out, String productName, Task task) throws IOException {
+		writeCsvField(out, productName);
+		out.write(',');
+		out.write(Integer.toString(task.getTaskId()));
+		out.write(',');
+		out.write(task.getStateName());
+		out.write(',');
+		writeCsvField(out, task.getTitle());
+		out.write(',');
+		out.write(task.getTypeLongName());
+		out.write(',');
+		writeCsvField(out, task.getCreator());
+		out.write(',');
+		writeCsvField(out, task.getOwner());
+		out.write(',');
+		out.write(task.isVerified() ? "true" : "false");
+		ArrayList<String> notes = task.getNotes();
+		for(int i = 0; i < notes.size(); i++) {
+			out.write(',');
+			writeCsvField(out, notes.get(i));
+		}
+		out.write('\n');
+	}
+
+	/**
+	 * Writes a CSV field, quoting it if needed.
+	 * @param out writer to write to
+	 * @param value of the field
+	 * @throws IOException if the field cannot be written
+	 */
+	private static void writeCsvField(Writer out, String value) throws IOException {
+		boolean quote = !value.isEmpty() && (value.charAt(0) <= ' ' || value.charAt(value.length() - 1) <= ' ');
+		for(int i = 0; !quote && i < value.length(); i++) {
+			char c = value.charAt(i);
+			quote = c == ',' || c == '"' || c == '\n' || c == '\r';
+		}
+		if(!quote) {
+			out.write(value);
+			return;
+		}
+		out.write('"');
+		int start = 0;
+		for(int i = 0; i < value.length(); i++) {
+			if(value.charAt(i) == '"') {
+				out.write(value, start, i + 1 - start);
+				out.write('"');
+				start = i + 1;
+			}
+		}
+		out.write(value, start, value.length() - start);
+		out.write('"');
+	}
+
+	/**
+	 * Writes one task as a JSON object on its own line.
+	 * @param out writer to write to
+	 * @param productName of the product the task is in
+	 * @param task to write
+	 * @throws IOException if the row cannot be written
+	 */
+	private static void writeJsonRow(Writer out, String productName, Task task) throws IOException {
+		out.write("{\"product\":");
+		writeJsonString(out, productName);
+		out.write(",\"id\":");
+		out.write(Integer.toString(task.getTaskId()));
+		out.write(",\"state\":");
+		writeJsonString(out, task.getStateName());
+		out.write(",\"title\":");
+		writeJsonString(out, task.getTitle());
+		out.write(",\"type\":");
+		writeJsonString(out, task.getTypeLongName());
+		out.write(",\"creator\":");
+		writeJsonString(out, task.getCreator());
+		out.write(",\"owner\":");
+		writeJsonString(out, task.getOwner());
+		out.write(",\"verified\":");
+		out.write(task.isVerified() ? "true" : "false");
+		out.write(",\"notes\":[");
+		ArrayList<String> notes = task.getNotes();
+		for(int i = 0; i < notes.size(); i++) {
+			if(i > 0) {
+				out.write(',');
+			}
+			writeJsonString(out, notes.get(i));
+		}
+		out.write("]}\n");
+	}
+
+	/**
+	 * Writes a JSON String, escaping quotes, backslashes and control characters.
+	 * @param out writer to write to
+	 * @param value to write
+	 * @throws IOException if the String cannot be written
+	 */
+	private static void writeJsonString(Writer out, String value) throws IOException {
+		out.write('"');
+		int start = 0;
+		for(int i = 0; i < value.length(); i++) {
+			char c = value.charAt(i);
+			if(c == '"' || c == '\\' || c < ' ') {
+				out.write(value, start, i - start);
+				start = i + 1;
+				if(c == '"' || c == '\\') {
+					out.write('\\');
+					out.write(c);
+				} else if(c == '\n') {
+					out.write("\\n");
+				} else if(c == '\t') {
+					out.write("\\t");
+				} else if(c == '\r') {
+					out.write("\\r");
+				} else {
+					out.write("\\u00");
+					out.write(HEX[c >> 4]);
+					out.write(HEX[c & 0xF]);
+				}
+			}
+		}
+		out.write(value, start, value.length() - start);
+		out.write('"');
+	}
+
+}
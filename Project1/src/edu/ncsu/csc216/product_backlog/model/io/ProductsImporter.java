@@ -0,0 +1,538 @@
+package edu.ncsu.csc216.product_backlog.model.io;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.InvalidPathException;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import edu.ncsu.csc216.product_backlog.model.product.Product;
+import edu.ncsu.csc216.product_backlog.model.task.Task;
+import edu.ncsu.csc216.product_backlog.model.util.StringPool;
+
+/**
+ * The ProductsImporter class reads tasks exported by other trackers from CSV and JSON Lines files. Every
+ * row holds one task and names the product it belongs to, so the rows of a product do not have to be
+ * next to each other. The file is streamed one row at a time, and the tasks of each product are added to
+ * it all at once after the whole file is read, so importing millions of tasks never searches a product
+ * for a task. As with backlog files, invalid rows and rows whose id is already used in their product
+ * are skipped, and products without any valid tasks are dropped. Rows the backlog file format cannot
+ * store are invalid too, so an imported task is never lost when it is saved and loaded again: a title,
+ * creator or owner cannot hold a comma or line break, a product name cannot hold a line break, and no
+ * line of a note can start like a product, task or note line. Both formats are read as UTF-8.
+ * @author Riya Gunda
+ */
+public class ProductsImporter {
+
+	/** Size of the input buffer in characters */
+	private static final int BUFFER_SIZE = 1 << 16;
+	/** Names of the columns of a CSV file, and of the fields of a JSON Lines object, in order */
+	private static final String[] COLUMNS = {"product", "id", "state", "title", "type", "creator", "owner",
+			"verified", "notes"};
+	/** Index of the column the notes start at */
+	private static final int NOTES = 8;
+	/** Names of the valid states */
+	private static final String[] STATE_NAMES = {Task.BACKLOG_NAME, Task.OWNED_NAME, Task.PROCESSING_NAME,
+			Task.VERIFYING_NAME, Task.DONE_NAME, Task.REJECTED_NAME};
+	/** Short and long names of the valid types, in the same order as TYPE_NAMES */
+	private static final String[] TYPE_KEYS = {Task.T_FEATURE, Task.T_BUG, Task.T_KNOWLEDGE_ACQUISITION,
+			Task.T_TECHNICAL_WORK, Task.FEATURE_NAME, Task.BUG_NAME, Task.KNOWLEDGE_ACQUISITION_NAME,
+			Task.TECHNICAL_WORK_NAME};
+	/** Long names of the valid types, in the same order as TYPE_KEYS */
+	private static final String[] TYPE_NAMES = {Task.FEATURE_NAME, Task.BUG_NAME, Task.KNOWLEDGE_ACQUISITION_NAME,
+			Task.TECHNICAL_WORK_NAME, Task.FEATURE_NAME, Task.BUG_NAME, Task.KNOWLEDGE_ACQUISITION_NAME,
+			Task.TECHNICAL_WORK_NAME};
+
+	/**
+	 * Imports a file whose name ends in .csv as CSV, and any other file as JSON Lines.
+	 * @param fileName of the file to import
+	 * @return the products imported, in the order they first appear in the file
+	 * @throws IllegalArgumentException with the message "Unable to load file." if the file cannot be
+	 * read
+	 */
+	public static ArrayList<Product> importFile(String fileName) {
+		if(fileName != null && fileName.toLowerCase().endsWith(".csv")) {
+			return importCsv(fileName);
+		}
+		return importJsonLines(fileName);
+	}
+
+	/**
+	 * Imports a CSV file. The columns are product, id, state, title, type, creator, owner and verified,
+	 * and every column after them holds one note. Fields may be quoted, and quoted fields may hold
+	 * commas, doubled quotes and line breaks. A first row naming the columns is skipped. An empty owner
+	 * means the task is unowned, and the type may be given by its short or long name.
+	 * @param fileName of the file to import
+	 * @return the products imported, in the order they first appear in the file
+	 * @throws IllegalArgumentException with the message "Unable to load file." if the file cannot be
+	 * read
+	 */
+	public static ArrayList<Product> importCsv(String fileName) {
+		LinkedHashMap<String, ArrayList<Task>> tasks = new LinkedHashMap<String, ArrayList<Task>>();
+		try (BufferedReader in = openFile(fileName)) {
+			ArrayList<String> fields = new ArrayList<String>();
+			StringBuilder field = new StringBuilder();
+			boolean first = true;
+			while(readCsvRow(in, fields, field)) {
+				if(first && fields.size() > 1 && COLUMNS[1].equalsIgnoreCase(fields.get(1).trim())) {
+					first = false;
+					continue;
+				}
+				first = false;
+				if(fields.size() > NOTES) {
+					ArrayList<String> notes = new ArrayList<String>(fields.size() - NOTES);
+					for(int i = NOTES; i < fields.size(); i++) {
+						addNote(notes, fields.get(i));
+					}
+					addTask(tasks, fields.get(0), fields.get(1), fields.get(2), fields.get(3), fields.get(4),
+							fields.get(5), fields.get(6), fields.get(7), notes);
+				}
+			}
+		} catch(IOException | InvalidPathException e) {
+			throw new IllegalArgumentException("Unable to load file.");
+		}
+		return buildProducts(tasks);
+	}
+
+	/**
+	 * Imports a JSON Lines file, which holds one JSON object per line. The fields of each object are
+	 * product, id, state, title, type, creator, owner, verified and notes, where notes is an array of
+	 * Strings. The id may be a number or a String and verified a boolean or a String. A missing or null
+	 * owner means the task is unowned, and other fields are ignored. Blank lines and lines that are not
+	 * valid JSON objects are skipped.
+	 * @param fileName of the file to import
+	 * @return the products imported, in the order they first appear in the file
+	 * @throws IllegalArgumentException with the message "Unable to load file." if the file cannot be
+	 * read
+	 */
+	public static ArrayList<Product> importJsonLines(String fileName) {
+		LinkedHashMap<String, ArrayList<Task>> tasks = new LinkedHashMap<String, ArrayList<Task>>();
+		try (BufferedReader in = openFile(fileName)) {
+			JsonRow row = new JsonRow();
+			String line = in.readLine();
+			while(line != null) {
+				if(row.parse(line)) {
+					addTask(tasks, row.values[0], row.values[1], row.values[2], row.values[3], row.values[4],
+							row.values[5], row.values[6], row.values[7], row.notes);
+				}
+				line = in.readLine();
+			}
+		} catch(IOException | InvalidPathException e) {
+			throw new IllegalArgumentException("Unable to load file.");
+		}
+		return buildProducts(tasks);
+	}
+
+	/**
+	 * Opens a file for reading as UTF-8.
+	 * @param fileName of the file to open
+	 * @return reader for the file
+	 * @throws IOException if the file cannot be opened
+	 */
+	private static BufferedReader openFile(String fileName) throws IOException {
+		if(fileName == null) {
+			throw new IOException("No file name.");
+		}
+		return new BufferedReader(new InputStreamReader(Files.newInputStream(Paths.get(fileName)),
+				StandardCharsets.UTF_8), BUFFER_SIZE);
+	}
+
+	/**
+	 * Reads the fields of the next CSV row.
+	 * @param in reader to read from
+	 * @param fields list the fields are put in
+	 * @param field builder reused for the text of each field
+	 * @return false if there are no more rows
+	 * @throws IOException if the file cannot be read
+	 */
+	private static boolean readCsvRow(BufferedReader in, ArrayList<String> fields, StringBuilder field)
+			throws IOException {
+		String line = in.readLine();
+		if(line == null) {
+			return false;
+		}
+		fields.clear();
+		field.setLength(0);
+		boolean quoted = false;
+		int i = 0;
+		while(true) {
+			if(i == line.length()) {
+				String next = quoted ? in.readLine() : null;
+				if(next == null) {
+					fields.add(field.toString());
+					return true;
+				}
+				// A line break inside quotes belongs to the field
+				field.append('\n');
+				line = next;
+				i = 0;
+				continue;
+			}
+			char c = line.charAt(i++);
+			if(quoted) {
+				if(c != '"') {
+					field.append(c);
+				} else if(i < line.length() && line.charAt(i) == '"') {
+					field.append('"');
+					i++;
+				} else {
+					quoted = false;
+				}
+			} else if(c == '"') {
+				quoted = true;
+			} else if(c == ',') {
+				fields.add(field.toString());
+				field.setLength(0);
+			} else {
+				field.append(c);
+			}
+		}
+	}
+
+	/**
+	 * Adds a note to a list of notes unless it is blank.
+	 * @param notes to add to
+	 * @param note to add
+	 */
+	private static void addNote(ArrayList<String> notes, String note) {
+		String trimmed = note.trim();
+		if(!trimmed.isEmpty()) {
+			notes.add(trimmed);
+		}
+	}
+
+	/**
+	 * Creates a task from the fields of a row and adds it to the tasks of its product, or skips the row
+	 * if it is invalid or cannot be stored in a backlog file.
+	 * @param tasks of each product read so far, by product name
+	 * @param product name of the product
+	 * @param id of the task
+	 * @param state of the task
+	 * @param title of the task
+	 * @param type of the task, by its short or long name
+	 * @param creator of the task
+	 * @param owner of the task, or null or empty if it is unowned
+	 * @param verified of the task
+	 * @param notes of the task
+	 */
+	private static void addTask(LinkedHashMap<String, ArrayList<Task>> tasks, String product, String id,
+			String state, String title, String type, String creator, String owner, String verified,
+			ArrayList<String> notes) {
+		if(product == null || id == null || title == null || creator == null || verified == null) {
+			return;
+		}
+		String productName = product.trim();
+		String stateName = lookup(state, STATE_NAMES, STATE_NAMES);
+		String typeName = lookup(type, TYPE_KEYS, TYPE_NAMES);
+		if(productName.isEmpty() || stateName == null || typeName == null || notes.isEmpty()) {
+			return;
+		}
+		if(owner == null || owner.trim().isEmpty()) {
+			owner = Task.UNOWNED;
+		}
+		if(productName.indexOf('\n') >= 0 || productName.indexOf('\r') >= 0 || !isStorable(title)
+				|| !isStorable(creator) || !isStorable(owner)) {
+			return;
+		}
+		for(int i = 0; i < notes.size(); i++) {
+			if(!isStorableNote(notes.get(i))) {
+				return;
+			}
+		}
+		try {
+			Task task = new Task(Integer.parseInt(id.trim()), stateName, title.trim(), typeName,
+					StringPool.intern(creator.trim()), StringPool.intern(owner.trim()), verified.trim(), notes);
+			ArrayList<Task> productTasks = tasks.get(productName);
+			if(productTasks == null) {
+				productTasks = new ArrayList<Task>();
+				tasks.put(productName, productTasks);
+			}
+			productTasks.add(task);
+		} catch(IllegalArgumentException e) {
+			// Invalid rows are skipped, which includes ids that are not numbers
+		}
+	}
+
+	/**
+	 * Returns true if a title, creator or owner can be stored in a backlog file, whose task lines
+	 * separate their fields with commas.
+	 * @param field to check
+	 * @return true if the field holds no comma or line break
+	 */
+	private static boolean isStorable(String field) {
+		return field.indexOf(',') < 0 && field.indexOf('\n') < 0 && field.indexOf('\r') < 0;
+	}
+
+	/**
+	 * Returns true if a note can be stored in a backlog file. A note may go on over several lines, but a
+	 * line that starts with #, * or - would be read back as a product, task or note line.
+	 * @param note to check
+	 * @return true if no line of the note after the first starts like another record
+	 */
+	private static boolean isStorableNote(String note) {
+		for(int i = note.indexOf('\n'); i >= 0 && i + 1 < note.length(); i = note.indexOf('\n', i + 1)) {
+			char next = note.charAt(i + 1);
+			if(next == '#' || next == '*' || next == '-') {
+				return false;
+			}
+		}
+		return true;
+	}
+
+	/**
+	 * Returns the value at the index of the given key in the keys array.
+	 * @param key to look up, or null
+	 * @param keys to search
+	 * @param values to return from
+	 * @return the matching value, or null if the key is not one of the keys
+	 */
+	private static String lookup(String key, String[] keys, String[] values) {
+		if(key == null) {
+			return null;
+		}
+		String trimmed = key.trim();
+		for(int i = 0; i < keys.length; i++) {
+			if(keys[i].equals(trimmed)) {
+				return values[i];
+			}
+		}
+		return null;
+	}
+
+	/**
+	 * Creates the products and adds the tasks of each one in a single bulk insert.
+	 * @param tasks of each product, by product name
+	 * @return the products that have at least one task
+	 */
+	private static ArrayList<Product> buildProducts(LinkedHashMap<String, ArrayList<Task>> tasks) {
+		ArrayList<Product> products = new ArrayList<Product>(tasks.size());
+		for(Map.Entry<String, ArrayList<Task>> entry : tasks.entrySet()) {
+			Product product = new Product(entry.getKey());
+			if(product.addTasks(entry.getValue()) > 0) {
+				products.add(product);
+			}
+		}
+		return products;
+	}
+
+	/**
+	 * Parses the fields of one JSON Lines object, reusing its storage for every line.
+	 */
+	private static class JsonRow {
+		/** Values of the fields, in the order of COLUMNS, or null for a field that is missing */
+		private final String[] values = new String[NOTES];
+		/** Notes of the row */
+		private ArrayList<String> notes = new ArrayList<String>();
+		/** Builder reused for the text of each String */
+		private final StringBuilder text = new StringBuilder();
+		/** Line being parsed */
+		private String line;
+		/** Index of the next character to parse */
+		private int pos;
+
+		/**
+		 * Parses a line into the fields of the row.
+		 * @param row line to parse
+		 * @return true if the line is a valid JSON object
+		 */
+		boolean parse(String row) {
+			line = row;
+			pos = 0;
+			for(int i = 0; i < values.length; i++) {
+				values[i] = null;
+			}
+			notes = new ArrayList<String>();
+			try {
+				expect('{');
+				if(peek() == '}') {
+					pos++;
+				} else {
+					do {
+						String key = readString();
+						expect(':');
+						readField(key);
+					} while(next() == ',');
+					pos--;
+					expect('}');
+				}
+				return peek() == 0;
+			} catch(IllegalStateException e) {
+				return false;
+			}
+		}
+
+		/**
+		 * Reads the value of a field and stores it if the field is one of the columns.
+		 * @param key name of the field
+		 */
+		private void readField(String key) {
+			if(COLUMNS[NOTES].equals(key)) {
+				if(peek() == 'n') {
+					readLiteral();
+					return;
+				}
+				expect('[');
+				if(peek() == ']') {
+					pos++;
+					return;
+				}
+				do {
+					addNote(notes, readString());
+				} while(next() == ',');
+				pos--;
+				expect(']');
+				return;
+			}
+			String value = readScalar();
+			for(int i = 0; i < NOTES; i++) {
+				if(COLUMNS[i].equals(key)) {
+					values[i] = value;
+				}
+			}
+		}
+
+		/**
+		 * Reads a String, number, boolean or null, and skips an object or array.
+		 * @return the value as a String, or null for null, objects and arrays
+		 */
+		private String readScalar() {
+			char c = peek();
+			if(c == '"') {
+				return readString();
+			} else if(c == '{' || c == '[') {
+				skipValue();
+				return null;
+			}
+			return readLiteral();
+		}
+
+		/**
+		 * Reads a number, true, false or null.
+		 * @return the text of the value, or null for null
+		 */
+		private String readLiteral() {
+			peek();
+			int start = pos;
+			while(pos < line.length() && ",}] \t".indexOf(line.charAt(pos)) < 0) {
+				pos++;
+			}
+			if(start == pos) {
+				throw new IllegalStateException();
+			}
+			String literal = line.substring(start, pos);
+			return "null".equals(literal) ? null : literal;
+		}
+
+		/**
+		 * Skips an object or array and everything in it.
+		 */
+		private void skipValue() {
+			int depth = 0;
+			do {
+				char c = peek();
+				if(c == '"') {
+					readString();
+					continue;
+				} else if(c == 0) {
+					throw new IllegalStateException();
+				} else if(c == '{' || c == '[') {
+					depth++;
+				} else if(c == '}' || c == ']') {
+					depth--;
+				}
+				pos++;
+			} while(depth > 0);
+		}
+
+		/**
+		 * Reads a String and decodes its escapes.
+		 * @return the String read
+		 */
+		private String readString() {
+			expect('"');
+			text.setLength(0);
+			while(true) {
+				if(pos >= line.length()) {
+					throw new IllegalStateException();
+				}
+				char c = line.charAt(pos++);
+				if(c == '"') {
+					return text.toString();
+				} else if(c != '\\') {
+					text.append(c);
+				} else if(pos >= line.length()) {
+					throw new IllegalStateException();
+				} else {
+					char escape = line.charAt(pos++);
+					switch(escape) {
+					case 'n':
+						text.append('\n');
+						break;
+					case 't':
+						text.append('\t');
+						break;
+					case 'r':
+						text.append('\r');
+						break;
+					case 'b':
+						text.append('\b');
+						break;
+					case 'f':
+						text.append('\f');
+						break;
+					case 'u':
+						if(pos + 4 > line.length()) {
+							throw new IllegalStateException();
+						}
+						try {
+							text.append((char) Integer.parseInt(line.substring(pos, pos + 4), 16));
+						} catch(NumberFormatException e) {
+							throw new IllegalStateException();
+						}
+						pos += 4;
+						break;
+					default:
+						text.append(escape);
+					}
+				}
+			}
+		}
+
+		/**
+		 * Skips whitespace and checks that the next character is the expected one.
+		 * @param c the expected character
+		 */
+		private void expect(char c) {
+			if(next() != c) {
+				throw new IllegalStateException();
+			}
+		}
+
+		/**
+		 * Skips whitespace and returns the next character.
+		 * @return the next character, or 0 at the end of the line
+		 */
+		private char next() {
+			char c = peek();
+			pos++;
+			return c;
+		}
+
+		/**
+		 * Skips whitespace and returns the next character without consuming it.
+		 * @return the next character, or 0 at the end of the line
+		 */
+		private char peek() {
+			while(pos < line.length() && Character.isWhitespace(line.charAt(pos))) {
+				pos++;
+			}
+			return pos < line.length() ? line.charAt(pos) : 0;
+		}
+	}
+
+}
@@ -0,0 +1,184 @@
+package edu.ncsu.csc216.product_backlog.model.io;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.InvalidPathException;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.zip.CRC32C;
+
+/**
+ * The ProductsIndex class reads and writes the index file ProductsWriter keeps next to every backlog
+ * file it writes. The index holds the name, byte offset and length of every product in the backlog
+ * file, so ProductsReader can parse a single product without reading the rest of the file. It also
+ * holds the size and a CRC32C checksum of the backlog file as ProductsWriter wrote it, and an index
+ * that does not match its backlog file any more is never used. The checksum catches changes that keep
+ * the size and land within the resolution of the modification time, and checking it only streams the
+ * file through CRC32C, which costs far less than parsing it.
+ * @author Riya Gunda
+ */
+class ProductsIndex {
+
+	/** Magic number at the start of every index, the bytes PBIX */
+	private static final int MAGIC = 0x50424958;
+	/** Version of the index format */
+	private static final int VERSION = 2;
+	/** Largest list capacity taken from a count in the file, so a damaged count cannot exhaust memory */
+	private static final int MAX_CAPACITY = 1 << 16;
+
+	/** Path of the backlog file */
+	final Path path;
+	/** Size of the backlog file when the index was written */
+	final long size;
+	/** Modification time of the backlog file in milliseconds when the index was read */
+	final long modified;
+	/** Names of the products in file order */
+	final ArrayList<String> names;
+	/** Offsets of the products in the backlog file */
+	final long[] offsets;
+	/** Lengths of the products in bytes */
+	final long[] lengths;
+
+	/**
+	 * Creates an index of a backlog file.
+	 * @param path of the backlog file
+	 * @param size of the backlog file
+	 * @param modified time of the backlog file in milliseconds when the index was read
+	 * @param names of the products in file order
+	 * @param offsets of the products in the backlog file
+	 * @param lengths of the products in bytes
+	 */
+	private ProductsIndex(Path path, long size, long modified, ArrayList<String> names, long[] offsets,
+			long[] lengths) {
+		this.path = path;
+		this.size = size;
+		this.modified = modified;
+		this.names = names;
+		this.offsets = offsets;
+		this.lengths = lengths;
+	}
+
+	/**
+	 * Returns the name of the index file of a backlog file.
+	 * @param fileName of the backlog file
+	 * @return the name of its index file
+	 */
+	static String indexFileName(String fileName) {
+		return fileName + ".idx";
+	}
+
+	/**
+	 * Writes the index of a backlog file that was just written. If the index cannot be written, no index
+	 * is left next to the backlog file, which is then read without one.
+	 * @param fileName of the backlog file
+	 * @param checksum CRC32C of the backlog file, taken while it was written
+	 * @param names of the products in file order
+	 * @param offsets of the products in the backlog file
+	 * @param lengths of the products in bytes
+	 */
+	static void writeIndex(String fileName, long checksum, ArrayList<String> names, long[] offsets,
+			long[] lengths) {
+		File index = new File(indexFileName(fileName));
+		try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(new FileOutputStream(index)))) {
+			Path path = Paths.get(fileName);
+			out.writeInt(MAGIC);
+			out.writeByte(VERSION);
+			out.writeLong(Files.size(path));
+			out.writeInt((int) checksum);
+			SnapshotWriter.writeVarint(out, names.size());
+			for(int i = 0; i < names.size(); i++) {
+				SnapshotWriter.writeString(out, names.get(i));
+				SnapshotWriter.writeVarint(out, offsets[i]);
+				SnapshotWriter.writeVarint(out, lengths[i]);
+			}
+		} catch(IOException | InvalidPathException e) {
+			index.delete();
+		}
+	}
+
+	/**
+	 * Deletes the index of a backlog file, if there is one.
+	 * @param fileName of the backlog file
+	 */
+	static void deleteIndex(String fileName) {
+		new File(indexFileName(fileName)).delete();
+	}
+
+	/**
+	 * Reads the index of a backlog file.
+	 * @param fileName of the backlog file
+	 * @return the index, or null if there is no index, it cannot be read or the backlog file has changed
+	 * since the index was written
+	 */
+	static ProductsIndex readIndex(String fileName) {
+		File index = new File(indexFileName(fileName));
+		if(!index.isFile()) {
+			return null;
+		}
+		try (DataInputStream in = new DataInputStream(new BufferedInputStream(new FileInputStream(index)))) {
+			Path path = Paths.get(fileName);
+			if(in.readInt() != MAGIC || in.readUnsignedByte() != VERSION) {
+				return null;
+			}
+			long size = in.readLong();
+			int checksum = in.readInt();
+			// Taken before the checksum, so a change made while the file is checked is caught on loading
+			long modified = Files.getLastModifiedTime(path).toMillis();
+			if(size != Files.size(path) || checksum != checksum(path)) {
+				return null;
+			}
+			int count = SnapshotReader.readCount(in);
+			SnapshotReader reader = new SnapshotReader(in);
+			ArrayList<String> names = new ArrayList<String>(Math.min(count, MAX_CAPACITY));
+			long[] offsets = new long[Math.min(count, MAX_CAPACITY)];
+			long[] lengths = new long[offsets.length];
+			for(int i = 0; i < count; i++) {
+				if(i == offsets.length) {
+					offsets = Arrays.copyOf(offsets, offsets.length * 2);
+					lengths = Arrays.copyOf(lengths, offsets.length);
+				}
+				names.add(reader.readString());
+				offsets[i] = SnapshotReader.readVarint(in);
+				lengths[i] = SnapshotReader.readVarint(in);
+				if(offsets[i] + lengths[i] > size) {
+					return null;
+				}
+			}
+			return new ProductsIndex(path, size, modified, names, offsets, lengths);
+		} catch(IOException | InvalidPathException e) {
+			return null;
+		}
+	}
+
+	/**
+	 * Returns the CRC32C of a backlog file.
+	 * @param path of the backlog file
+	 * @return the checksum of the file
+	 * @throws IOException if the file cannot be read
+	 */
+	private static int checksum(Path path) throws IOException {
+		CRC32C crc = new CRC32C();
+		ByteBuffer buffer = ByteBuffer.allocateDirect(1 << 16);
+		try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+			while(channel.read(buffer) >= 0) {
+				buffer.flip();
+				crc.update(buffer);
+				buffer.clear();
+			}
+		}
+		return (int) crc.getValue();
+	}
+
+}
@@ -1,152 +1,1552 @@
 package edu.ncsu.csc216.product_backlog.model.io;
 
+import java.io.BufferedInputStream;
 import java.io.File;
 import java.io.FileInputStream;
-import java.io.FileNotFoundException;
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileChannel.MapMode;
+import java.nio.charset.Charset;
+import java.nio.file.Files;
+import java.nio.file.InvalidPathException;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
 import java.util.ArrayList;
-import java.util.Scanner;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.Future;
+import java.util.concurrent.RecursiveTask;
+import java.util.function.DoubleConsumer;
+import java.util.function.Supplier;
+import java.util.zip.CRC32C;
+import java.util.zip.GZIPInputStream;
 
 import edu.ncsu.csc216.product_backlog.model.product.Product;
+import edu.ncsu.csc216.product_backlog.model.product.Product.TasksSource;
 import edu.ncsu.csc216.product_backlog.model.task.Task;
+import edu.ncsu.csc216.product_backlog.model.util.StringPool;
 
 /**
  * This class reads a given file and processes its contents to generate a list of products and tasks.
- * 
- * @author Riya Gunda  
+ * The file is read one block of bytes at a time and products and tasks are built as their lines are
+ * read, so the whole file is never held in memory at once. Lines are tokenized straight from the bytes,
+ * so only titles, creators, owners and notes are ever decoded into Strings. Very large files can also
+ * be read through a memory mapping, and the products of a file can be parsed in parallel. Notes can
+ * also be left in the file until they are first needed, and a file written with an index can have each
+ * of its products parsed the first time it is needed. Files compressed with GZIP are recognized by
+ * their magic number and decompressed as they are read; since they cannot be mapped, every way of
+ * reading them reads them one block at a time.
+ *
+ * @author Riya Gunda
  */
 public class ProductsReader {
 
-    
+    /** Size of the byte buffer used when reading a file */
+    private static final int BUFFER_SIZE = 1 << 16;
+    /** Largest part of a file that is mapped into memory at once */
+    private static final int MAP_WINDOW = 1 << 30;
+    /** Number of comma separated fields in a task line */
+    private static final int TASK_FIELDS = 7;
+    /** Character set the backlog files are written in */
+    private static final Charset CHARSET = Charset.defaultCharset();
+    /** Names of the valid states, in the order they are matched */
+    private static final String[] STATE_NAMES = {Task.BACKLOG_NAME, Task.OWNED_NAME, Task.PROCESSING_NAME,
+            Task.VERIFYING_NAME, Task.DONE_NAME, Task.REJECTED_NAME};
+    /** Short names of the valid types, in the same order as TYPE_NAMES */
+    private static final String[] TYPE_SHORT_NAMES = {Task.T_FEATURE, Task.T_BUG, Task.T_KNOWLEDGE_ACQUISITION,
+            Task.T_TECHNICAL_WORK};
+    /** Long names of the valid types, in the same order as TYPE_SHORT_NAMES */
+    private static final String[] TYPE_NAMES = {Task.FEATURE_NAME, Task.BUG_NAME, Task.KNOWLEDGE_ACQUISITION_NAME,
+            Task.TECHNICAL_WORK_NAME};
+    /** First byte of the GZIP magic number */
+    private static final int GZIP_MAGIC_1 = 0x1F;
+    /** Second byte of the GZIP magic number */
+    private static final int GZIP_MAGIC_2 = 0x8B;
+    /** Owner name that is matched instead of decoded */
+    private static final String[] UNOWNED_NAMES = {Task.UNOWNED};
+
 	/**
      * Reads the specified file and processes its contents to generate a list of products and tasks.
+     * The file is read in blocks of bytes and its records are tokenized straight from the bytes, so a
+     * String is only decoded for the fields that are kept.
 	 * @param fileName of the file to read from
 	 * @return a list of products generated from the file
 	 * @throws IllegalArgumentException with the message "Unable to load file." if the file cannot be
 	 * loaded
 	 */
     public static ArrayList<Product> readProductsFile(String fileName) {
-        ArrayList<Product> products = new ArrayList<Product>();
+        return readProductsFile(fileName, null);
+    }
+
+    /**
+     * Reads the specified file and processes its contents to generate a list of products and tasks,
+     * reporting the part of the file read so far as it is read.
+     * @param fileName of the file to read from
+     * @param progress told the part of the file read so far, from 0 to 1, or null if no one is told
+     * @return a list of products generated from the file
+     * @throws IllegalArgumentException with the message "Unable to load file." if the file cannot be
+     * loaded
+     */
+    public static ArrayList<Product> readProductsFile(String fileName, DoubleConsumer progress) {
+        try (InputStream in = openFile(fileName, progress)) {
+            ProductBuilder builder = new ProductBuilder();
+            LineDecoder decoder = new LineDecoder();
+            byte[] bytes = new byte[BUFFER_SIZE];
+            ByteBuffer buffer = ByteBuffer.wrap(bytes);
+            int filled = 0;
+            int read;
+            while ((read = in.read(bytes, filled, bytes.length - filled)) >= 0) {
+                filled += read;
+                int processed = processLines(builder, decoder, buffer, filled, false);
+                if (processed == 0 && filled == bytes.length) {
+                    // The line is longer than the buffer, so the buffer grows until it holds the line
+                    bytes = Arrays.copyOf(bytes, bytes.length * 2);
+                    buffer = ByteBuffer.wrap(bytes);
+                } else {
+                    System.arraycopy(bytes, processed, bytes, 0, filled - processed);
+                    filled -= processed;
+                }
+            }
+            processLines(builder, decoder, buffer, filled, true);
+            ArrayList<Product> products = builder.finish();
+            if (progress != null) {
+                progress.accept(1.0);
+            }
+            return products;
+        } catch (IOException e) {
+            throw new IllegalArgumentException("Unable to load file.");
+        }
+    }
 
+    /**
+     * Opens the specified file for reading, decompressing it as it is read if it starts with the GZIP
+     * magic number.
+     * @param fileName of the file to open
+     * @param progress told the part of the file read so far, or null if no one is told
+     * @return stream of the uncompressed contents of the file
+     * @throws IOException if the file cannot be opened
+     */
+    private static InputStream openFile(String fileName, DoubleConsumer progress) throws IOException {
+        InputStream file = new FileInputStream(fileName);
+        if (progress != null) {
+            file = new ProgressInputStream(file, new File(fileName).length(), progress);
+        }
+        BufferedInputStream in = new BufferedInputStream(file, BUFFER_SIZE);
         try {
-            File file = new File(fileName);
-            StringBuilder fileContent = new StringBuilder();
+            in.mark(2);
+            boolean compressed = in.read() == GZIP_MAGIC_1 && in.read() == GZIP_MAGIC_2;
+            in.reset();
+            return compressed ? new GZIPInputStream(in, BUFFER_SIZE) : in;
+        } catch (IOException e) {
+            in.close();
+            throw e;
+        }
+    }
+
+    /**
+     * Returns true if the file read through the given channel starts with the GZIP magic number.
+     * @param channel of the file to check
+     * @return true if the file is compressed
+     * @throws IOException if the file cannot be read
+     */
+    private static boolean isCompressed(FileChannel channel) throws IOException {
+        ByteBuffer magic = ByteBuffer.allocate(2);
+        channel.read(magic, 0);
+        return magic.position() == 2 && (magic.get(0) & 0xFF) == GZIP_MAGIC_1
+                && (magic.get(1) & 0xFF) == GZIP_MAGIC_2;
+    }
+
+    /**
+     * Reads the specified file through a memory mapping and processes its contents to generate a list
+     * of products and tasks. The records are tokenized straight from the mapped bytes, so the file
+     * contents are never copied into the heap as a whole. The result is the same as
+     * readProductsFile(String).
+     * @param fileName of the file to read from
+     * @return a list of products generated from the file
+     * @throws IllegalArgumentException with the message "Unable to load file." if the file cannot be
+     * loaded
+     */
+    public static ArrayList<Product> readProductsFileMapped(String fileName) {
+        return readMapped(fileName, false);
+    }
+
+    /**
+     * Reads the specified file through a memory mapping like readProductsFileMapped(String), but does
+     * not read any notes. Each task instead records where its note lines are in the file and reads
+     * them the first time its notes are needed. The file must not be changed while its notes are still
+     * being loaded; saving over it with ProductsWriter is safe because every note is read before the
+     * file is replaced.
+     * @param fileName of the file to read from
+     * @return a list of products generated from the file
+     * @throws IllegalArgumentException with the message "Unable to load file." if the file cannot be
+     * loaded
+     */
+    public static ArrayList<Product> readProductsFileLazy(String fileName) {
+        return readMapped(fileName, true);
+    }
+
+    /**
+     * Reads the specified file using the index ProductsWriter wrote next to it. Only the product names
+     * are read right away; each product parses its own part of the file the first time its tasks are
+     * needed. If the file has no index, or has changed since its index was written, the whole file is
+     * read by readProductsFile(String) instead. The file must not be changed while products are still
+     * being loaded; saving over it with ProductsWriter is safe because ProductsWriter moves every product
+     * it copies without loading to the new file, and loads the others before the file is replaced.
+     * @param fileName of the file to read from
+     * @return a list of products generated from the file
+     * @throws IllegalArgumentException with the message "Unable to load file." if the file cannot be
+     * loaded
+     */
+    public static ArrayList<Product> readProductsFileIndexed(String fileName) {
+        return readProductsFileIndexed(fileName, null);
+    }
+
+    /**
+     * Reads the specified file through its index if it has a valid one, reporting the part of the file
+     * read so far. A file read through its index is done as soon as the index is read.
+     * @param fileName of the file to read from
+     * @param progress told the part of the file read so far, from 0 to 1, or null if no one is told
+     * @return a list of products generated from the file
+     * @throws IllegalArgumentException with the message "Unable to load file." if the file cannot be
+     * loaded
+     */
+    public static ArrayList<Product> readProductsFileIndexed(String fileName, DoubleConsumer progress) {
+        ProductsIndex index = ProductsIndex.readIndex(fileName);
+        if (index == null) {
+            return readProductsFile(fileName, progress);
+        }
+        SourceFile source = new SourceFile(index.path, index.size, index.modified);
+        ArrayList<Product> products = new ArrayList<Product>(index.names.size());
+        for (int i = 0; i < index.names.size(); i++) {
+            products.add(new Product(index.names.get(i), new LazyTasks(source, index.offsets[i], index.lengths[i])));
+        }
+        if (progress != null) {
+            progress.accept(1.0);
+        }
+        return products;
+    }
+
+    /**
+     * Returns sources for the lines of the products of a file ProductsWriter just wrote, so products
+     * that were saved without loading their tasks can go on loading them from the new file.
+     * @param fileName of the file that was written
+     * @param offsets of the products in the file, followed by the size of the file
+     * @return a source for the lines of every product, in order
+     * @throws IOException if the size or modification time of the file cannot be read
+     */
+    static TasksSource[] tasksSources(String fileName, long[] offsets) throws IOException {
+        Path path = Paths.get(fileName);
+        SourceFile source = new SourceFile(path, Files.size(path), Files.getLastModifiedTime(path).toMillis());
+        TasksSource[] sources = new TasksSource[offsets.length - 1];
+        for (int i = 0; i < sources.length; i++) {
+            sources[i] = new LazyTasks(source, offsets[i], offsets[i + 1] - offsets[i]);
+        }
+        return sources;
+    }
+
+    /**
+     * Reads the specified file through a memory mapping, one window at a time. A compressed file is
+     * read by readProductsFile(String) instead, with its notes read right away.
+     * @param fileName of the file to read from
+     * @param lazyNotes true if the notes should be read the first time they are needed
+     * @return a list of products generated from the file
+     * @throws IllegalArgumentException with the message "Unable to load file." if the file cannot be
+     * loaded
+     */
+    private static ArrayList<Product> readMapped(String fileName, boolean lazyNotes) {
+        try (FileChannel channel = FileChannel.open(Paths.get(fileName), StandardOpenOption.READ)) {
+            if (isCompressed(channel)) {
+                return readProductsFile(fileName);
+            }
+            ProductBuilder builder = new ProductBuilder();
+            LineDecoder decoder = new LineDecoder();
+            long size = channel.size();
+            if (lazyNotes) {
+                Path path = Paths.get(fileName);
+                builder.source = new SourceFile(path, size, Files.getLastModifiedTime(path).toMillis());
+            }
+            long position = 0;
+            while (position < size) {
+                int windowSize = (int) Math.min(MAP_WINDOW, size - position);
+                boolean lastWindow = position + windowSize == size;
+                ByteBuffer window = channel.map(MapMode.READ_ONLY, position, windowSize);
 
-            try (Scanner fileScanner = new Scanner(new FileInputStream(file))) {
-                while (fileScanner.hasNextLine()) {
-                    fileContent.append(fileScanner.nextLine()).append("\n");
+                builder.base = position;
+                int processed = processLines(builder, decoder, window, windowSize, lastWindow);
+                if (processed == 0) {
+                    throw new IOException("Line is longer than the mapped window.");
                 }
+                position += processed;
+            }
+            return builder.finish();
+        } catch (IOException | InvalidPathException e) {
+            throw new IllegalArgumentException("Unable to load file.");
+        }
+    }
+
+    /**
+     * Reads the specified file and processes its products in parallel. The file is first scanned for
+     * the lines that start a product, then the byte ranges of the products are mapped and parsed on
+     * the common ForkJoinPool and the products are merged back in the order they appear in the file.
+     * The result is the same as readProductsFile(String).
+     * @param fileName of the file to read from
+     * @return a list of products generated from the file
+     * @throws IllegalArgumentException with the message "Unable to load file." if the file cannot be
+     * loaded
+     */
+    public static ArrayList<Product> readProductsFileParallel(String fileName) {
+        try (FileChannel channel = FileChannel.open(Paths.get(fileName), StandardOpenOption.READ)) {
+            if (isCompressed(channel)) {
+                return readProductsFile(fileName);
             }
+            long[] offsets = findProductOffsets(channel);
+            return ForkJoinPool.commonPool().invoke(new ProductRangeTask(channel, offsets, 0, offsets.length - 1));
+        } catch (IOException | UncheckedIOException | InvalidPathException e) {
+            throw new IllegalArgumentException("Unable to load file.");
+        }
+    }
+
+    /**
+     * Reads the products of a file written by ProductsWriter.writeProductsToFileChecksummed(), keeping
+     * only the products whose lines match the checksum and length in their trailer. The products are
+     * checked and parsed in parallel, and a damaged product is skipped without affecting any other, so
+     * every intact product of a damaged file is recovered. Products of a file written without
+     * checksums have no trailers and are all skipped.
+     * @param fileName of the file to read from
+     * @return the intact products of the file, in the order they appear in it
+     * @throws IllegalArgumentException with the message "Unable to load file." if the file cannot be
+     * read
+     */
+    public static ArrayList<Product> readProductsFileVerified(String fileName) {
+        VerifiedBlock[] blocks = verifyBlocks(fileName, true);
+        ArrayList<Product> products = new ArrayList<Product>(blocks.length);
+        for (int i = 0; i < blocks.length; i++) {
+            if (blocks[i].product != null) {
+                products.add(blocks[i].product);
+            }
+        }
+        return products;
+    }
+
+    /**
+     * Checks the products of a file written by ProductsWriter.writeProductsToFileChecksummed() against
+     * their trailers without parsing them. The products are checked in parallel, so a large file is
+     * checked about as fast as it can be read.
+     * @param fileName of the file to check
+     * @return the number of products that do not match their trailer, or have none, so 0 if the file
+     * is intact
+     * @throws IllegalArgumentException with the message "Unable to load file." if the file cannot be
+     * read
+     */
+    public static int verifyProductsFile(String fileName) {
+        VerifiedBlock[] blocks = verifyBlocks(fileName, false);
+        int damaged = 0;
+        for (int i = 0; i < blocks.length; i++) {
+            if (!blocks[i].intact) {
+                damaged++;
+            }
+        }
+        return damaged;
+    }
 
-            try (Scanner productScanner = new Scanner(fileContent.toString())) {
-                productScanner.useDelimiter("\\r?\\n?[#]");
+    /**
+     * Splits a file into the blocks of lines of its products and checks every block against its
+     * checksum trailer on the common ForkJoinPool, with each block mapped separately. A compressed file
+     * cannot be mapped, so it is checked by verifyCompressedBlocks(String, boolean) instead.
+     * @param fileName of the file to check
+     * @param parse true if the intact blocks should also be parsed
+     * @return the blocks of the file, in order
+     * @throws IllegalArgumentException with the message "Unable to load file." if the file cannot be
+     * read
+     */
+    private static VerifiedBlock[] verifyBlocks(String fileName, boolean parse) {
+        try (FileChannel channel = FileChannel.open(Paths.get(fileName), StandardOpenOption.READ)) {
+            if (isCompressed(channel)) {
+                return verifyCompressedBlocks(fileName, parse);
+            }
+            long[] offsets = findProductOffsets(channel);
+            ArrayList<Callable<VerifiedBlock>> checks = new ArrayList<Callable<VerifiedBlock>>(offsets.length);
+            for (int i = 0; i < offsets.length - 1; i++) {
+                long position = offsets[i];
+                long length = offsets[i + 1] - position;
+                checks.add(() -> {
+                    if (length > Integer.MAX_VALUE) {
+                        return new VerifiedBlock(false, null);
+                    }
+                    ByteBuffer block = channel.map(MapMode.READ_ONLY, position, length);
+                    return verifyBlock(block, (int) length, parse);
+                });
+            }
+            List<Future<VerifiedBlock>> checked = ForkJoinPool.commonPool().invokeAll(checks);
+            VerifiedBlock[] blocks = new VerifiedBlock[checked.size()];
+            for (int i = 0; i < blocks.length; i++) {
+                blocks[i] = checked.get(i).get();
+            }
+            return blocks;
+        } catch (IOException | InvalidPathException | ExecutionException e) {
+            throw new IllegalArgumentException("Unable to load file.");
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalArgumentException("Unable to load file.");
+        }
+    }
 
-                while (productScanner.hasNext()) {
-                    String productToken = productScanner.next();
-                    Product product = processProduct(productToken);
-                    if (product != null) {
-                        products.add(product);
+    /**
+     * Splits a compressed file into the blocks of lines of its products as it is decompressed and
+     * checks every block against its checksum trailer. Each line is run through the checksum of its
+     * block as it is read, so a block is only held in memory if it is to be parsed, and then only
+     * until the next block starts.
+     * @param fileName of the file to check
+     * @param parse true if the intact blocks should also be parsed
+     * @return the blocks of the file, in order
+     * @throws IOException if the file cannot be read
+     */
+    private static VerifiedBlock[] verifyCompressedBlocks(String fileName, boolean parse) throws IOException {
+        ArrayList<VerifiedBlock> blocks = new ArrayList<VerifiedBlock>();
+        try (InputStream in = openFile(fileName, null)) {
+            byte[] bytes = new byte[BUFFER_SIZE];
+            byte[] line = new byte[256];
+            int lineLength = 0;
+            StreamedBlock block = null;
+            int read;
+            while ((read = in.read(bytes)) >= 0) {
+                int lineStart = 0;
+                for (int i = 0; i <= read; i++) {
+                    if (i == read || bytes[i] == '\n') {
+                        int count = i == read ? i - lineStart : i + 1 - lineStart;
+                        if (lineLength + count > line.length) {
+                            line = Arrays.copyOf(line, Math.max(line.length * 2, lineLength + count));
+                        }
+                        System.arraycopy(bytes, lineStart, line, lineLength, count);
+                        lineLength += count;
+                        lineStart = i + 1;
+                        if (i < read) {
+                            block = streamLine(blocks, block, line, lineLength, parse);
+                            lineLength = 0;
+                        }
                     }
                 }
             }
-        } catch (FileNotFoundException e) {
-            throw new IllegalArgumentException("Unable to load file."); 
+            if (lineLength > 0) {
+                block = streamLine(blocks, block, line, lineLength, parse);
+            }
+            if (block != null) {
+                blocks.add(block.finish());
+            }
         }
+        return blocks.toArray(new VerifiedBlock[blocks.size()]);
+    }
 
-        return products;
+    /**
+     * Adds a line of a compressed file to the block it belongs to. A line starting with # finishes the
+     * block being read and starts a new one, and the lines before the first product line are ignored.
+     * @param blocks checked so far
+     * @param block being read, or null if no product line has been read yet
+     * @param line bytes of the line, including its line terminator
+     * @param length number of bytes in the line
+     * @param parse true if the intact blocks should also be parsed
+     * @return the block being read after the line
+     */
+    private static StreamedBlock streamLine(ArrayList<VerifiedBlock> blocks, StreamedBlock block, byte[] line,
+            int length, boolean parse) {
+        if (line[0] == '#') {
+            if (block != null) {
+                blocks.add(block.finish());
+            }
+            block = new StreamedBlock(parse);
+        }
+        if (block != null) {
+            block.add(line, length);
+        }
+        return block;
     }
-    
+
     /**
-	 * Processes a product token from the file content.
-	 * @param productString token string
-	 * @return the product created from the token
-	 */
-    private static Product processProduct(String productString) {
-        try (Scanner productScanner = new Scanner(productString)) {
-            productScanner.useDelimiter("\\r?\\n?[#]");
-            String productName = productScanner.nextLine().substring(1).trim();
-            Product product = new Product(productName);
-
-            productScanner.useDelimiter("\\r?\\n?[*]");
-
-            while (productScanner.hasNext()) {
-                String taskToken = productScanner.next().substring(1).trim();
-                if (!taskToken.isEmpty()) {
-                    Task task = processTask(taskToken);
-                    if (task != null) {
-                        if (product.getTasks() == null || product.getTasks().isEmpty()) {
-                            product.addTask(task);
-                        } else {
-                            Task existingTask = product.getTaskById(task.getTaskId());
-                            if (existingTask == null) {
-                                product.addTask(task);
-                            }
-                        }
+     * Checks one block of product lines against the checksum trailer on its last line, and parses it
+     * if it is intact and parse is true.
+     * @param block holding the lines of the product and its trailer
+     * @param length number of bytes in the block
+     * @param parse true if an intact block should be parsed
+     * @return the result of the check
+     */
+    private static VerifiedBlock verifyBlock(ByteBuffer block, int length, boolean parse) {
+        int end = length;
+        if (end > 0 && block.get(end - 1) == '\n') {
+            end--;
+        }
+        int trailerStart = end;
+        while (trailerStart > 0 && block.get(trailerStart - 1) != '\n') {
+            trailerStart--;
+        }
+        long trailer = parseChecksum(block, trailerStart, end);
+        if (!isTrailer(trailer, trailerStart)) {
+            return new VerifiedBlock(false, null);
+        }
+        CRC32C crc = new CRC32C();
+        crc.update(block.slice(0, trailerStart));
+        if (crc.getValue() != (trailer & 0xFFFFFFFFL)) {
+            return new VerifiedBlock(false, null);
+        }
+        if (!parse) {
+            return new VerifiedBlock(true, null);
+        }
+        ArrayList<Product> products = readProducts(block, trailerStart);
+        return new VerifiedBlock(true, products.isEmpty() ? null : products.get(0));
+    }
+
+    /**
+     * Parses a checksum trailer line, which is "= " followed by the checksum as eight hex digits, a
+     * space and the length of the product's lines in decimal, and nothing else.
+     * @param buffer holding the line
+     * @param start index of the first byte of the line
+     * @param end index after the last byte of the line, not counting the line terminator
+     * @return the length shifted left 32 bits together with the checksum, or -1 if the line is not a
+     * checksum trailer
+     */
+    private static long parseChecksum(ByteBuffer buffer, int start, int end) {
+        if (end > start && buffer.get(end - 1) == '\r') {
+            end--;
+        }
+        int prefix = ProductsWriter.CHECKSUM_PREFIX.length();
+        if (end - start < prefix + 10 || buffer.get(start) != '=' || buffer.get(start + 1) != ' '
+                || buffer.get(start + prefix + 8) != ' ' || buffer.get(start + prefix + 9) == '+') {
+            return -1;
+        }
+        long checksum = 0;
+        for (int i = start + prefix; i < start + prefix + 8; i++) {
+            int digit = Character.digit(buffer.get(i), 16);
+            if (digit < 0) {
+                return -1;
+            }
+            checksum = checksum << 4 | digit;
+        }
+        int length = parseId(buffer, start + prefix + 9, end);
+        if (length == 0) {
+            return -1;
+        }
+        return (long) length << 32 | checksum;
+    }
+
+    /**
+     * Returns true if a parsed line is the checksum trailer of a product, which holds the number of
+     * bytes of the lines of the product before it. A note line that only looks like a trailer does not
+     * hold the right length.
+     * @param trailer parsed by parseChecksum(ByteBuffer, int, int)
+     * @param length number of bytes of the lines of the product before the line
+     * @return true if the line is the trailer of the product
+     */
+    private static boolean isTrailer(long trailer, long length) {
+        return trailer >= 0 && trailer >>> 32 == length;
+    }
+
+    /**
+     * Finds the offsets of all lines in a buffer that start with #. ProductSections splits files with
+     * it too, so both find the same products.
+     * @param buffer holding the whole file
+     * @return the offsets of the product lines in order, followed by the size of the file
+     */
+    static long[] findProductOffsets(ByteBuffer buffer) {
+        int size = buffer.limit();
+        long[] offsets = new long[16];
+        int count = 0;
+        byte previous = '\n';
+        for (int i = 0; i < size; i++) {
+            byte b = buffer.get(i);
+            if (b == '#' && previous == '\n') {
+                if (count == offsets.length - 1) {
+                    offsets = Arrays.copyOf(offsets, offsets.length * 2);
+                }
+                offsets[count++] = i;
+            }
+            previous = b;
+        }
+        offsets[count++] = size;
+        return Arrays.copyOf(offsets, count);
+    }
+
+    /**
+     * Finds the offsets of all lines in the file that start with #.
+     * @param channel of the file to scan
+     * @return the offsets of the product lines in order, followed by the size of the file
+     * @throws IOException if the file cannot be read
+     */
+    private static long[] findProductOffsets(FileChannel channel) throws IOException {
+        long size = channel.size();
+        long[] offsets = new long[16];
+        int count = 0;
+        byte previous = '\n';
+        for (long position = 0; position < size; position += MAP_WINDOW) {
+            int windowSize = (int) Math.min(MAP_WINDOW, size - position);
+            ByteBuffer window = channel.map(MapMode.READ_ONLY, position, windowSize);
+            for (int i = 0; i < windowSize; i++) {
+                byte b = window.get(i);
+                if (b == '#' && previous == '\n') {
+                    if (count == offsets.length - 1) {
+                        offsets = Arrays.copyOf(offsets, offsets.length * 2);
                     }
+                    offsets[count++] = position + i;
                 }
+                previous = b;
             }
-            if(!product.getTasks().isEmpty()) {
-            	return product;
-            } 
-            return null;
-        } catch (Exception e) {
-            return null;
         }
+        offsets[count++] = size;
+        return Arrays.copyOf(offsets, count);
     }
-    
+
     /**
-	 * Processes a task token from the file content.
-	 * @param taskToken string
-	 * @return the task created from the token
-	 */
-    private static Task processTask(String taskToken) {
-        try (Scanner taskScanner = new Scanner(taskToken)) {
-            taskScanner.useDelimiter("\\r?\\n?[*]");
-            String taskLine = taskScanner.nextLine();
-
-            try (Scanner line = new Scanner(taskLine)) { 
-                line.useDelimiter(",");
-
-                int id = line.nextInt();
-                String state = line.next();
-                String title = line.next();
-                String type = line.next();
-                String creator = line.next(); 
-                String owner = line.next();
-                String verified = line.next();
-                
-                if(!"Backlog".equals(state) && !"Done".equals(state) && !"Processing".equals(state) 
-                		&& !"Verifying".equals(state) && !"Rejected".equals(state) && !"Owned".equals(state)) {
-                	return null;
-                }
-
-                ArrayList<String> notes = new ArrayList<>();
-                taskScanner.useDelimiter("\\r?\\n?[-]");
-                while (taskScanner.hasNext()) {
-                    String note = taskScanner.next().substring(1).trim();
-                    notes.add(note);
-                }
-
-                if (notes.isEmpty()) {
-                	return null; 
-                }
-                
-                String tt = "";
-                if("F".equals(type)) {
-                	tt = "Feature";
-                } else if("B".equals(type)) {
-                	tt = "Bug";
-                } else if("KA".equals(type)) {
-                	tt = "Knowledge Acquisition";
-                } else if("TW".equals(type)){
-                	tt = "Technical Work";
-                }
-                
-                Task t = new Task(id, state, title, tt, creator, owner, verified, notes);
-                return t;
-            }
-        } catch (Exception e) {
-            return null; 
-        }
-    }
-
-}
\ No newline at end of file
+     * Parses the products in the given buffer, which must hold whole lines.
+     * @param buffer holding the lines
+     * @param length number of bytes to parse
+     * @return the products in the buffer, in order
+     */
+    static ArrayList<Product> readProducts(ByteBuffer buffer, int length) {
+        ProductBuilder builder = new ProductBuilder();
+        processLines(builder, new LineDecoder(), buffer, length, true);
+        return builder.finish();
+    }
+
+    /**
+     * Processes the lines in the given buffer.
+     * @param builder collecting the products read so far
+     * @param decoder used to turn bytes into Strings
+     * @param buffer holding the lines
+     * @param end index after the last byte to process
+     * @param last true if the buffer ends at the end of the file, so its last line may have no
+     * line terminator
+     * @return the index after the last line processed
+     */
+    private static int processLines(ProductBuilder builder, LineDecoder decoder, ByteBuffer buffer, int end,
+            boolean last) {
+        int lineStart = 0;
+        while (lineStart < end) {
+            int lineEnd = indexOf(buffer, (byte) '\n', lineStart, end);
+            if (lineEnd < 0) {
+                if (!last) {
+                    return lineStart;
+                }
+                lineEnd = end;
+            }
+            processLine(builder, decoder, buffer, lineStart, lineEnd);
+            builder.productLength += lineEnd + 1 - lineStart;
+            lineStart = lineEnd + 1;
+        }
+        return end;
+    }
+
+    /**
+     * Processes one line of the file. A line starting with # begins a new product, a line starting
+     * with * begins a new task, a line starting with - begins a new note and any other line continues
+     * the current note. A checksum trailer is only skipped if it is the last line of its product, so a
+     * note line that looks like one is kept until the next line shows it continues the note. The line
+     * is only decoded where a String is needed.
+     * @param builder collecting the products read so far
+     * @param decoder used to turn bytes into Strings
+     * @param buffer holding the line
+     * @param start index of the first byte of the line
+     * @param end index after the last byte of the line, not counting the line terminator
+     */
+    private static void processLine(ProductBuilder builder, LineDecoder decoder, ByteBuffer buffer, int start,
+            int end) {
+        if (end > start && buffer.get(end - 1) == '\r') {
+            end--;
+        }
+        byte marker = start < end ? buffer.get(start) : 0;
+        if (builder.trailerText != null) {
+            builder.resolveTrailer(marker == '#');
+        }
+        if (marker == '#') {
+            builder.startProduct(decoder.decode(buffer, trimStart(buffer, start + 1, end),
+                    trimEnd(buffer, start + 1, end)));
+        } else if (marker == '*') {
+            processTask(builder, decoder, buffer, trimStart(buffer, start + 1, end), trimEnd(buffer, start + 1, end));
+        } else if (marker == '=' && builder.product != null
+                && isTrailer(parseChecksum(buffer, start, end), builder.productLength)) {
+            // Checksum trailers are only checked by readProductsFileVerified and verifyProductsFile
+            builder.holdTrailer(decoder.decode(buffer, start, end), start, end);
+        } else if (builder.source != null) {
+            builder.noteLine(start, end, marker == '-');
+        } else if (marker == '-') {
+            builder.startNote(decoder.decode(buffer, start + 1, end));
+        } else {
+            builder.continueNote(decoder.decode(buffer, start, end));
+        }
+    }
+
+    /**
+     * Processes a task line of the file and starts a task in the builder. The seven fields are found
+     * by scanning for the offsets of their commas, and only the title, creator and owner are decoded;
+     * the id is parsed from the bytes and the state, type and verified fields are matched against
+     * their constants.
+     * @param builder collecting the products read so far
+     * @param decoder used to turn bytes into Strings
+     * @param buffer holding the line
+     * @param start index of the first byte after the leading *
+     * @param end index after the last byte of the line
+     */
+    private static void processTask(ProductBuilder builder, LineDecoder decoder, ByteBuffer buffer, int start,
+            int end) {
+        int[] fieldEnds = decoder.fieldEnds;
+        int fieldStart = start;
+        for (int i = 0; i < TASK_FIELDS; i++) {
+            int fieldEnd = indexOf(buffer, (byte) ',', fieldStart, end);
+            if (fieldEnd < 0) {
+                if (i < TASK_FIELDS - 1) {
+                    builder.skipTask();
+                    return;
+                }
+                fieldEnd = end;
+            }
+            fieldEnds[i] = fieldEnd;
+            fieldStart = fieldEnd + 1;
+        }
+
+        int id = parseId(buffer, start, fieldEnds[0]);
+        String state = lookup(buffer, fieldEnds[0] + 1, fieldEnds[1], STATE_NAMES, STATE_NAMES);
+        String type = lookup(buffer, fieldEnds[2] + 1, fieldEnds[3], TYPE_SHORT_NAMES, TYPE_NAMES);
+        int verifiedStart = fieldEnds[5] + 1;
+        if (id == 0 || state == null || type == null || verifiedStart == fieldEnds[6]) {
+            builder.skipTask();
+            return;
+        }
+        String verified = isTrue(buffer, verifiedStart, fieldEnds[6]) ? "true" : "false";
+        String owner = lookup(buffer, fieldEnds[4] + 1, fieldEnds[5], UNOWNED_NAMES, UNOWNED_NAMES);
+        if (owner == null) {
+            owner = decoder.decodePooled(buffer, fieldEnds[4] + 1, fieldEnds[5]);
+        }
+        builder.startTask(id, state, decoder.decode(buffer, fieldEnds[1] + 1, fieldEnds[2]), type,
+                decoder.decodePooled(buffer, fieldEnds[3] + 1, fieldEnds[4]), owner, verified);
+    }
+
+    /**
+     * Parses a task id from the given bytes.
+     * @param buffer holding the id
+     * @param start index of the first byte of the id
+     * @param end index after the last byte of the id
+     * @return the id, or 0 if the bytes are not a positive int
+     */
+    private static int parseId(ByteBuffer buffer, int start, int end) {
+        if (start < end && buffer.get(start) == '+') {
+            start++;
+        }
+        if (start == end) {
+            return 0;
+        }
+        long id = 0;
+        for (int i = start; i < end; i++) {
+            byte b = buffer.get(i);
+            if (b < '0' || b > '9') {
+                return 0;
+            }
+            id = id * 10 + (b - '0');
+            if (id > Integer.MAX_VALUE) {
+                return 0;
+            }
+        }
+        return (int) id;
+    }
+
+    /**
+     * Returns true if the given bytes spell true, ignoring case, the same as Boolean.parseBoolean().
+     * @param buffer holding the value
+     * @param start index of the first byte of the value
+     * @param end index after the last byte of the value
+     * @return true if the bytes spell true
+     */
+    private static boolean isTrue(ByteBuffer buffer, int start, int end) {
+        String value = "true";
+        if (end - start != value.length()) {
+            return false;
+        }
+        for (int i = 0; i < value.length(); i++) {
+            if ((buffer.get(start + i) | 0x20) != value.charAt(i)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Returns the value at the index of the key that matches the given bytes.
+     * @param buffer holding the key
+     * @param start index of the first byte of the key
+     * @param end index after the last byte of the key
+     * @param keys to compare against, all ASCII
+     * @param values to return from
+     * @return the matching value, or null if the bytes match none of the keys
+     */
+    private static String lookup(ByteBuffer buffer, int start, int end, String[] keys, String[] values) {
+        for (int i = 0; i < keys.length; i++) {
+            String key = keys[i];
+            if (key.length() == end - start) {
+                int j = 0;
+                while (j < key.length() && buffer.get(start + j) == key.charAt(j)) {
+                    j++;
+                }
+                if (j == key.length()) {
+                    return values[i];
+                }
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Returns the index of the first occurrence of the given byte.
+     * @param buffer to search
+     * @param b byte to search for
+     * @param start index to search from
+     * @param end index to search to
+     * @return the index of the byte, or -1 if it does not occur
+     */
+    private static int indexOf(ByteBuffer buffer, byte b, int start, int end) {
+        for (int i = start; i < end; i++) {
+            if (buffer.get(i) == b) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * Returns the index of the first byte that is not whitespace.
+     * @param buffer to search
+     * @param start index to search from
+     * @param end index to search to
+     * @return the index of the first byte that is not whitespace, or end
+     */
+    private static int trimStart(ByteBuffer buffer, int start, int end) {
+        while (start < end && buffer.get(start) <= ' ' && buffer.get(start) >= 0) {
+            start++;
+        }
+        return start;
+    }
+
+    /**
+     * Returns the index after the last byte that is not whitespace.
+     * @param buffer to search
+     * @param start index to search from
+     * @param end index to search to
+     * @return the index after the last byte that is not whitespace, or start
+     */
+    private static int trimEnd(ByteBuffer buffer, int start, int end) {
+        while (end > start && buffer.get(end - 1) <= ' ' && buffer.get(end - 1) >= 0) {
+            end--;
+        }
+        return end;
+    }
+
+    /**
+     * Result of checking one block of product lines against its checksum trailer.
+     */
+    private static class VerifiedBlock {
+        /** True if the block matches its trailer */
+        private final boolean intact;
+        /** Product parsed from the block, or null if it was not parsed or holds no tasks */
+        private final Product product;
+
+        /**
+         * Creates the result of a check.
+         * @param intact true if the block matches its trailer
+         * @param product parsed from the block, or null
+         */
+        VerifiedBlock(boolean intact, Product product) {
+            this.intact = intact;
+            this.product = product;
+        }
+    }
+
+    /**
+     * Block of product lines of a compressed file that is checked as it is decompressed. Every line but
+     * the last is run through the checksum as soon as the next one is read, since only the last line
+     * of a block can be its trailer.
+     */
+    private static class StreamedBlock {
+        /** Checksum of the lines before the last one */
+        private final CRC32C crc = new CRC32C();
+        /** True if the block should be parsed if it is intact */
+        private final boolean parse;
+        /** Lines before the last one, kept to be parsed, or null if the block is not parsed or too long */
+        private byte[] lines;
+        /** Number of bytes of the lines before the last one */
+        private long length;
+        /** Last line read */
+        private byte[] last = new byte[256];
+        /** Number of bytes of the last line read, or -1 if no line has been read */
+        private int lastLength = -1;
+
+        /**
+         * Creates an empty block.
+         * @param parse true if the block should be parsed if it is intact
+         */
+        StreamedBlock(boolean parse) {
+            this.parse = parse;
+            lines = parse ? new byte[BUFFER_SIZE] : null;
+        }
+
+        /**
+         * Adds the next line of the block.
+         * @param line bytes of the line, including its line terminator
+         * @param lineLength number of bytes in the line
+         */
+        void add(byte[] line, int lineLength) {
+            if (lastLength >= 0) {
+                crc.update(last, 0, lastLength);
+                if (lines != null && length + lastLength > Integer.MAX_VALUE) {
+                    lines = null;
+                } else if (lines != null) {
+                    if (length + lastLength > lines.length) {
+                        lines = Arrays.copyOf(lines, (int) Math.min(Integer.MAX_VALUE,
+                                Math.max(lines.length * 2L, length + lastLength)));
+                    }
+                    System.arraycopy(last, 0, lines, (int) length, lastLength);
+                }
+                length += lastLength;
+            }
+            if (lineLength > last.length) {
+                last = new byte[lineLength];
+            }
+            System.arraycopy(line, 0, last, 0, lineLength);
+            lastLength = lineLength;
+        }
+
+        /**
+         * Checks the block against the trailer on its last line, and parses it if it is intact and
+         * should be parsed.
+         * @return the result of the check
+         */
+        VerifiedBlock finish() {
+            int end = lastLength;
+            if (end > 0 && last[end - 1] == '\n') {
+                end--;
+            }
+            long trailer = end < 0 ? -1 : parseChecksum(ByteBuffer.wrap(last), 0, end);
+            if (!isTrailer(trailer, length) || crc.getValue() != (trailer & 0xFFFFFFFFL)
+                    || (parse && lines == null)) {
+                return new VerifiedBlock(false, null);
+            }
+            if (!parse) {
+                return new VerifiedBlock(true, null);
+            }
+            ArrayList<Product> products = readProducts(ByteBuffer.wrap(lines), (int) length);
+            return new VerifiedBlock(true, products.isEmpty() ? null : products.get(0));
+        }
+    }
+
+    /**
+     * Parses the products in a range of product offsets, splitting the range in half until it is small
+     * enough to parse on one thread.
+     */
+    private static class ProductRangeTask extends RecursiveTask<ArrayList<Product>> {
+        /** ID number used for object serialization. */
+        private static final long serialVersionUID = 1L;
+        /** Number of bytes below which a range is not split any further */
+        private static final long SPLIT_SIZE = 1 << 20;
+        /** Channel of the file being read */
+        private final transient FileChannel channel;
+        /** Offsets of the products in the file, followed by the size of the file */
+        private final long[] offsets;
+        /** Index of the first product in the range */
+        private final int first;
+        /** Index after the last product in the range */
+        private final int last;
+
+        /**
+         * Creates a task for the given range of products.
+         * @param channel of the file being read
+         * @param offsets of the products in the file, followed by the size of the file
+         * @param first index of the first product in the range
+         * @param last index after the last product in the range
+         */
+        ProductRangeTask(FileChannel channel, long[] offsets, int first, int last) {
+            this.channel = channel;
+            this.offsets = offsets;
+            this.first = first;
+            this.last = last;
+        }
+
+        /**
+         * Parses the products in the range, or splits the range and merges the results of both halves.
+         * @return the products in the range, in file order
+         */
+        @Override
+        protected ArrayList<Product> compute() {
+            if (last - first > 1 && offsets[last] - offsets[first] > SPLIT_SIZE) {
+                int middle = (first + last) >>> 1;
+                ProductRangeTask left = new ProductRangeTask(channel, offsets, first, middle);
+                ProductRangeTask right = new ProductRangeTask(channel, offsets, middle, last);
+                right.fork();
+                ArrayList<Product> products = left.compute();
+                products.addAll(right.join());
+                return products;
+            }
+            ProductBuilder builder = new ProductBuilder();
+            if (last > first) {
+                long length = offsets[last] - offsets[first];
+                if (length > MAP_WINDOW) {
+                    throw new UncheckedIOException(new IOException("Product is longer than the mapped window."));
+                }
+                try {
+                    ByteBuffer buffer = channel.map(MapMode.READ_ONLY, offsets[first], length);
+                    processLines(builder, new LineDecoder(), buffer, (int) length, true);
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            }
+            return builder.finish();
+        }
+    }
+
+    /**
+     * Counts the bytes read from a file and reports the part of the file read so far.
+     */
+    private static class ProgressInputStream extends FilterInputStream {
+        /** Size of the file in bytes */
+        private final long size;
+        /** Told the part of the file read so far */
+        private final DoubleConsumer progress;
+        /** Number of bytes read so far */
+        private long count;
+
+        /**
+         * Creates a stream reporting the progress of reading the given file stream.
+         * @param in stream of the file
+         * @param size of the file in bytes
+         * @param progress told the part of the file read so far
+         */
+        ProgressInputStream(InputStream in, long size, DoubleConsumer progress) {
+            super(in);
+            this.size = size;
+            this.progress = progress;
+        }
+
+        @Override
+        public int read() throws IOException {
+            int b = in.read();
+            if (b >= 0) {
+                advance(1);
+            }
+            return b;
+        }
+
+        @Override
+        public int read(byte[] b, int off, int len) throws IOException {
+            int read = in.read(b, off, len);
+            if (read > 0) {
+                advance(read);
+            }
+            return read;
+        }
+
+        /**
+         * Counts bytes that were read and reports the new progress.
+         * @param read number of bytes read
+         */
+        private void advance(int read) {
+            count += read;
+            progress.accept(size == 0 ? 1.0 : Math.min(1.0, (double) count / size));
+        }
+    }
+
+    /**
+     * Decodes byte ranges into Strings, reusing one array for the bytes. Values that repeat, like
+     * creators and owners, can be decoded through a small cache of the Strings decoded last, so a
+     * repeated value is matched against its bytes and never decoded again.
+     */
+    private static class LineDecoder {
+        /** Number of entries in the cache of pooled Strings, a power of two */
+        private static final int CACHE_SIZE = 256;
+        /** Bytes of the range being decoded */
+        private byte[] bytes = new byte[256];
+        /** Offsets of the commas ending the fields of the task line being processed */
+        private final int[] fieldEnds = new int[TASK_FIELDS];
+        /** Pooled Strings decoded last, by the hash of their bytes */
+        private final String[] cached = new String[CACHE_SIZE];
+        /** Bytes of the cached Strings */
+        private final byte[][] cachedBytes = new byte[CACHE_SIZE][];
+
+        /**
+         * Decodes the given range of bytes into its pooled String, or finds it in the cache.
+         * @param buffer holding the bytes
+         * @param start index of the first byte
+         * @param end index after the last byte
+         * @return the pooled String
+         */
+        String decodePooled(ByteBuffer buffer, int start, int end) {
+            int length = end - start;
+            int hash = length;
+            for (int i = start; i < end; i++) {
+                hash = 31 * hash + buffer.get(i);
+            }
+            int slot = (hash ^ (hash >>> 16)) & (CACHE_SIZE - 1);
+            byte[] previous = cachedBytes[slot];
+            if (previous != null && previous.length == length) {
+                int i = 0;
+                while (i < length && previous[i] == buffer.get(start + i)) {
+                    i++;
+                }
+                if (i == length) {
+                    return cached[slot];
+                }
+            }
+            String value = StringPool.intern(decode(buffer, start, end));
+            byte[] key = new byte[length];
+            buffer.get(start, key);
+            cachedBytes[slot] = key;
+            cached[slot] = value;
+            return value;
+        }
+
+        /**
+         * Decodes the given range of bytes.
+         * @param buffer holding the bytes
+         * @param start index of the first byte
+         * @param end index after the last byte
+         * @return the decoded String
+         */
+        String decode(ByteBuffer buffer, int start, int end) {
+            int length = end - start;
+            if (length > bytes.length) {
+                bytes = new byte[Math.max(length, bytes.length * 2)];
+            }
+            buffer.get(start, bytes, 0, length);
+            return new String(bytes, 0, length, CHARSET);
+        }
+    }
+
+    /**
+     * A file that notes or tasks are loaded from lazily, with the size and modification time it had when it was
+     * read so that changes to it can be detected.
+     */
+    private static class SourceFile {
+        /** Path of the file */
+        private final Path path;
+        /** Size of the file when it was read */
+        private final long size;
+        /** Modification time of the file in milliseconds when it was read */
+        private final long modified;
+
+        /**
+         * Creates a source file.
+         * @param path of the file
+         * @param size of the file when it was read
+         * @param modified time of the file in milliseconds when it was read
+         */
+        SourceFile(Path path, long size, long modified) {
+            this.path = path;
+            this.size = size;
+            this.modified = modified;
+        }
+
+        /**
+         * Opens the file for reading.
+         * @return channel of the file
+         * @throws IOException if the file cannot be opened or has changed since it was read
+         */
+        FileChannel open() throws IOException {
+            FileChannel channel = FileChannel.open(path, StandardOpenOption.READ);
+            if (channel.size() != size || Files.getLastModifiedTime(path).toMillis() != modified) {
+                channel.close();
+                throw new IOException("File has changed.");
+            }
+            return channel;
+        }
+    }
+
+    /**
+     * Loads the tasks of one product from the range of its lines in a source file, and copies the lines
+     * when the product is saved before it was loaded.
+     */
+    private static class LazyTasks implements TasksSource {
+        /** File the product is in */
+        private final SourceFile source;
+        /** Offset of the product line in the file */
+        private final long position;
+        /** Number of bytes of the product's lines */
+        private final long length;
+
+        /**
+         * Creates a loader for the product lines in the given range of the file.
+         * @param source file the product is in
+         * @param position of the product line in the file
+         * @param length of the product's lines in bytes
+         */
+        LazyTasks(SourceFile source, long position, long length) {
+            this.source = source;
+            this.position = position;
+            this.length = length;
+        }
+
+        /**
+         * Reads and returns the tasks.
+         * @return the tasks read, sorted by id
+         * @throws IllegalArgumentException with the message "Unable to load file." if the file has
+         * changed since it was read or cannot be read
+         */
+        @Override
+        public ArrayList<Task> get() {
+            try (FileChannel channel = source.open()) {
+                if (length > MAP_WINDOW) {
+                    throw new IOException("Product is longer than the mapped window.");
+                }
+                ArrayList<Product> products = readProducts(channel.map(MapMode.READ_ONLY, position, length),
+                        (int) length);
+                return products.isEmpty() ? new ArrayList<Task>() : products.get(0).getTasks();
+            } catch (IOException e) {
+                throw new IllegalArgumentException("Unable to load file.");
+            }
+        }
+
+        /**
+         * Copies the lines after the product line, leaving out a checksum trailer at the end, which
+         * does not hold once the lines are written after another product line.
+         * @param out stream to copy to
+         * @throws IOException if the file has changed since it was read or cannot be read
+         */
+        @Override
+        public void copyTo(OutputStream out) throws IOException {
+            try (FileChannel channel = source.open()) {
+                if (length > MAP_WINDOW) {
+                    throw new IOException("Product is longer than the mapped window.");
+                }
+                int end = (int) length;
+                ByteBuffer lines = channel.map(MapMode.READ_ONLY, position, end);
+                int start = indexOf(lines, (byte) '\n', 0, end) + 1;
+                if (start == 0) {
+                    return;
+                }
+                int lastEnd = end > start && lines.get(end - 1) == '\n' ? end - 1 : end;
+                int lastStart = start;
+                for (int i = lastEnd - 1; i >= start; i--) {
+                    if (lines.get(i) == '\n') {
+                        lastStart = i + 1;
+                        break;
+                    }
+                }
+                if (lastStart < lastEnd && isTrailer(parseChecksum(lines, lastStart, lastEnd), lastStart)) {
+                    end = lastStart;
+                }
+                byte[] bytes = new byte[Math.min(end - start, 1 << 16)];
+                lines.position(start);
+                while (lines.position() < end) {
+                    int count = Math.min(bytes.length, end - lines.position());
+                    lines.get(bytes, 0, count);
+                    out.write(bytes, 0, count);
+                }
+            }
+        }
+    }
+
+    /**
+     * Loads the notes of one task from the range of its note lines in a source file.
+     */
+    private static class LazyNotes implements Supplier<ArrayList<String>> {
+        /** File the notes are in */
+        private final SourceFile source;
+        /** Offset of the first note line in the file */
+        private final long position;
+        /** Number of bytes of the note lines */
+        private final int length;
+
+        /**
+         * Creates a loader for the note lines in the given range of the file.
+         * @param source file the notes are in
+         * @param position of the first note line in the file
+         * @param length of the note lines in bytes
+         */
+        LazyNotes(SourceFile source, long position, int length) {
+            this.source = source;
+            this.position = position;
+            this.length = length;
+        }
+
+        /**
+         * Reads and returns the notes.
+         * @return the notes read
+         * @throws IllegalArgumentException with the message "Unable to load file." if the file has
+         * changed since it was read or cannot be read
+         */
+        @Override
+        public ArrayList<String> get() {
+            try (FileChannel channel = source.open()) {
+                ByteBuffer buffer = ByteBuffer.allocate(length);
+                while (buffer.hasRemaining()) {
+                    if (channel.read(buffer, position + buffer.position()) < 0) {
+                        throw new IOException("File has changed.");
+                    }
+                }
+                ProductBuilder builder = new ProductBuilder();
+                builder.startNotes();
+                processLines(builder, new LineDecoder(), buffer, length, true);
+                return builder.finishNotes();
+            } catch (IOException e) {
+                throw new IllegalArgumentException("Unable to load file.");
+            }
+        }
+    }
+
+    /**
+     * Collects the products, tasks and notes of a file as its records are read. A product is only kept
+     * if its name is valid and it has at least one task, and a task is only kept if it is valid, has at
+     * least one note and its id is not already used in its product.
+     */
+    private static class ProductBuilder {
+        /** Products finished so far */
+        private ArrayList<Product> products = new ArrayList<Product>();
+        /** Product being read, or null if its records are skipped */
+        private Product product;
+        /** Tasks of the product being read, added to it all at once when it is finished */
+        private ArrayList<Task> tasks = new ArrayList<Task>();
+        /** Notes of the task being read, or null if there is no task being read */
+        private ArrayList<String> notes;
+        /** Note being read, or null if there is no note being read */
+        private StringBuilder note;
+        /** Id of the task being read */
+        private int id;
+        /** State of the task being read */
+        private String state;
+        /** Title of the task being read */
+        private String title;
+        /** Type of the task being read */
+        private String type;
+        /** Creator of the task being read */
+        private String creator;
+        /** Owner of the task being read */
+        private String owner;
+        /** Verified value of the task being read */
+        private String verified;
+        /** True if a task is being read */
+        private boolean inTask;
+        /** File the notes are loaded from lazily, or null if notes are read with their tasks */
+        private SourceFile source;
+        /** Offset in the file of the buffer being read */
+        private long base;
+        /** Number of notes of the task being read when notes are loaded lazily */
+        private int noteCount;
+        /** Offset of the first note line of the task being read when notes are loaded lazily */
+        private long notesStart;
+        /** Offset after the last note line of the task being read when notes are loaded lazily */
+        private long notesEnd;
+        /** Number of bytes of the lines of the product being read that have been processed */
+        private long productLength;
+        /** Line that may be the checksum trailer of the product being read, or null if there is none */
+        private String trailerText;
+        /** Offset in the file of the possible trailer */
+        private long trailerStart;
+        /** Offset in the file after the possible trailer */
+        private long trailerEnd;
+
+        /**
+         * Finishes the product being read and starts a new one.
+         * @param productName of the new product
+         */
+        void startProduct(String productName) {
+            finishProduct();
+            productLength = 0;
+            try {
+                product = new Product(productName);
+            } catch (IllegalArgumentException e) {
+                product = null;
+            }
+        }
+
+        /**
+         * Finishes the task being read and starts a new one in the current product.
+         * @param taskId of the task
+         * @param taskState of the task
+         * @param taskTitle of the task
+         * @param taskType of the task
+         * @param taskCreator of the task
+         * @param taskOwner of the task
+         * @param taskVerified of the task
+         */
+        void startTask(int taskId, String taskState, String taskTitle, String taskType, String taskCreator,
+                String taskOwner, String taskVerified) {
+            finishTask();
+            if (product != null) {
+                inTask = true;
+                notes = source == null ? new ArrayList<String>() : null;
+                id = taskId;
+                state = taskState;
+                title = taskTitle;
+                type = taskType;
+                creator = taskCreator;
+                owner = taskOwner;
+                verified = taskVerified;
+            }
+        }
+
+        /**
+         * Finishes the task being read and skips the notes that follow an invalid task line.
+         */
+        void skipTask() {
+            finishTask();
+        }
+
+        /**
+         * Holds a line that may be the checksum trailer of the product being read until the next line
+         * shows whether it ends the product.
+         * @param text of the line
+         * @param start index of the line in the buffer being read
+         * @param end index after the line in the buffer being read
+         */
+        void holdTrailer(String text, int start, int end) {
+            trailerText = text;
+            trailerStart = base + start;
+            trailerEnd = base + end;
+        }
+
+        /**
+         * Drops the line held by holdTrailer() if it ended its product, or adds it to the note being read
+         * if it did not.
+         * @param productEnded true if the line was followed by a product line or the end of the file
+         */
+        void resolveTrailer(boolean productEnded) {
+            String text = trailerText;
+            trailerText = null;
+            if (productEnded) {
+                return;
+            }
+            if (source != null) {
+                noteLineAt(trailerStart, trailerEnd, false);
+            } else {
+                continueNote(text);
+            }
+        }
+
+        /**
+         * Finishes the note being read and starts a new one.
+         * @param text of the first line of the note
+         */
+        void startNote(String text) {
+            finishNote();
+            if (inTask) {
+                note = new StringBuilder(text);
+            }
+        }
+
+        /**
+         * Adds another line to the note being read.
+         * @param text of the line
+         */
+        void continueNote(String text) {
+            if (note != null) {
+                note.append('\n').append(text);
+            }
+        }
+
+        /**
+         * Records a note line of the task being read when notes are loaded lazily.
+         * @param start index of the line in the buffer being read
+         * @param end index after the line in the buffer being read
+         * @param newNote true if the line starts a new note
+         */
+        void noteLine(int start, int end, boolean newNote) {
+            noteLineAt(base + start, base + end, newNote);
+        }
+
+        /**
+         * Records a note line of the task being read at the given offsets in the file.
+         * @param start offset of the line in the file
+         * @param end offset after the line in the file
+         * @param newNote true if the line starts a new note
+         */
+        private void noteLineAt(long start, long end, boolean newNote) {
+            if (!inTask || (!newNote && noteCount == 0)) {
+                return;
+            }
+            if (noteCount == 0) {
+                notesStart = start;
+            }
+            if (newNote) {
+                noteCount++;
+            }
+            notesEnd = end;
+        }
+
+        /**
+         * Starts reading the note lines of a single task.
+         */
+        void startNotes() {
+            inTask = true;
+            notes = new ArrayList<String>();
+        }
+
+        /**
+         * Finishes reading the note lines of a single task.
+         * @return the notes read
+         */
+        ArrayList<String> finishNotes() {
+            finishNote();
+            return notes;
+        }
+
+        /**
+         * Finishes the last product and returns all products read.
+         * @return the products read
+         */
+        ArrayList<Product> finish() {
+            trailerText = null;
+            finishProduct();
+            return products;
+        }
+
+        /**
+         * Adds the note being read to the notes of the task being read.
+         */
+        private void finishNote() {
+            if (note != null) {
+                notes.add(note.toString().trim());
+                note = null;
+            }
+        }
+
+        /**
+         * Creates the task being read and adds it to the current product.
+         */
+        private void finishTask() {
+            finishNote();
+            if (inTask) {
+                try {
+                    if (source == null && !notes.isEmpty()) {
+                        tasks.add(new Task(id, state, title, type, creator, owner, verified, notes));
+                    } else if (source != null && noteCount > 0) {
+                        LazyNotes loader = new LazyNotes(source, notesStart, Math.toIntExact(notesEnd - notesStart));
+                        tasks.add(new Task(id, state, title, type, creator, owner, verified, loader));
+                    }
+                } catch (IllegalArgumentException | ArithmeticException e) {
+                    // Invalid tasks are skipped
+                }
+            }
+            inTask = false;
+            notes = null;
+            noteCount = 0;
+        }
+
+        /**
+         * Adds the tasks read to the product being read, dropping tasks whose id was already used, and
+         * adds the product to the list of products if it has any tasks.
+         */
+        private void finishProduct() {
+            finishTask();
+            if (product != null) {
+                product.addTasks(tasks);
+            }
+            tasks.clear();
+            if (product != null && !product.getTasks().isEmpty()) {
+                product.setDirty(false);
+                products.add(product);
+            }
+            product = null;
+        }
+    }
+
+}
@@ -1,50 +1,485 @@
 package edu.ncsu.csc216.product_backlog.model.io;
 
+import java.io.BufferedOutputStream;
+import java.io.BufferedWriter;
+import java.io.ByteArrayOutputStream;
 import java.io.File;
-
-import java.io.FileNotFoundException;
-import java.io.PrintStream;
+import java.io.FileOutputStream;
+import java.io.FilterOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.Charset;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
 import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.Future;
+import java.util.function.DoubleConsumer;
+import java.util.zip.CRC32C;
+import java.util.zip.GZIPOutputStream;
+
 import edu.ncsu.csc216.product_backlog.model.product.Product;
+import edu.ncsu.csc216.product_backlog.model.product.Product.TasksSource;
+import edu.ncsu.csc216.product_backlog.model.task.Task;
 
 /**
  * The ProductsWriter class is responsible for writing product data to a file. It provides a single 
  * static method that takes a file name and a list of Product objects as parameters, and writes the
- * product data to the specified file.
+ * product data to the specified file. Files can be compressed with GZIP as they are written, which
+ * ProductsReader recognizes when they are loaded. Next to every file that is not compressed, an index
+ * of where each product starts in the file is written, so ProductsReader can load single products. A
+ * product whose tasks were never loaded is written by copying its lines from the file it came from, and
+ * then loads its tasks from the new file instead.
  * @author Riya Gunda
  */
 public class ProductsWriter {	
 
+	/** Size of the output buffer in characters */
+	private static final int BUFFER_SIZE = 1 << 16;
+	/** Separator written at the end of every line */
+	private static final String LINE_SEPARATOR = System.lineSeparator();
+	/** Start of the trailer line written after every product of a checksummed file */
+	static final String CHECKSUM_PREFIX = "= ";
 
 	/**
-	 * Writes the provided list of Product objects to a file with the given file name.
+	 * Writes the provided list of Product objects to a file with the given file name. The products are
+	 * first written to a temporary file next to it, which then replaces the file, so the old contents
+	 * stay readable until the new file is complete.
 	 * @param fileName The name of the file to write to.
 	 * @param products The list of Product objects to be written to the file.
 	 * @throws IllegalArgumentException with the message "Unable to save file." if there are any errors
 	 * or exceptions
 	 */
 	public static void writeProductsToFile(String fileName, ArrayList<Product> products) {
+		writeProductsToFile(fileName, products, false);
+	}
+
+	/**
+	 * Writes the provided list of Product objects to a file with the given file name, compressing the
+	 * file with GZIP as it is written if compress is true.
+	 * @param fileName The name of the file to write to.
+	 * @param products The list of Product objects to be written to the file.
+	 * @param compress true if the file should be compressed
+	 * @throws IllegalArgumentException with the message "Unable to save file" if there are any errors
+	 * or exceptions
+	 */
+	public static void writeProductsToFile(String fileName, ArrayList<Product> products, boolean compress) {
+		writeProductsToFile(fileName, products, compress, !compress, null);
+	}
+
+	/**
+	 * Writes the provided list of Product objects to a file with the given file name, reporting the part
+	 * of the products written so far after each product.
+	 * @param fileName The name of the file to write to.
+	 * @param products The list of Product objects to be written to the file.
+	 * @param compress true if the file should be compressed
+	 * @param progress told the part of the products written so far, from 0 to 1, or null if no one is
+	 * told
+	 * @throws IllegalArgumentException with the message "Unable to save file" if there are any errors
+	 * or exceptions
+	 */
+	public static void writeProductsToFile(String fileName, ArrayList<Product> products, boolean compress,
+			DoubleConsumer progress) {
+		writeProductsToFile(fileName, products, compress, !compress, progress);
+	}
+
+	/**
+	 * Writes the provided list of Product objects to a file with the given file name, following every
+	 * product with a trailer line holding the CRC-32C checksum and length in bytes of the product's
+	 * lines. ProductsReader skips the trailers when it reads the file, and can check them to find
+	 * damaged products and recover every intact one.
+	 * @param fileName The name of the file to write to.
+	 * @param products The list of Product objects to be written to the file.
+	 * @param compress true if the file should be compressed
+	 * @throws IllegalArgumentException with the message "Unable to save file" if there are any errors
+	 * or exceptions
+	 */
+	public static void writeProductsToFileChecksummed(String fileName, ArrayList<Product> products,
+			boolean compress) {
+		writeProductsToFile(fileName, products, compress, !compress, true, null);
+	}
+
+	/**
+	 * Writes the provided list of Product objects to a file with the given file name, writing an index
+	 * next to it only if index is true. Compressed files are never indexed.
+	 * @param fileName The name of the file to write to.
+	 * @param products The list of Product objects to be written to the file.
+	 * @param compress true if the file should be compressed
+	 * @param index true if an index should be written next to the file
+	 * @param progress told the part of the products written so far, or null if no one is told
+	 * @throws IllegalArgumentException with the message "Unable to save file" if there are any errors
+	 * or exceptions
+	 */
+	static void writeProductsToFile(String fileName, ArrayList<Product> products, boolean compress,
+			boolean index, DoubleConsumer progress) {
+		writeProductsToFile(fileName, products, compress, index, false, progress);
+	}
+
+	/**
+	 * Writes the provided list of Product objects to a file with the given file name, following every
+	 * product with a checksum trailer if checksum is true.
+	 * @param fileName The name of the file to write to.
+	 * @param products The list of Product objects to be written to the file.
+	 * @param compress true if the file should be compressed
+	 * @param index true if an index should be written next to the file
+	 * @param checksum true if every product should be followed by a checksum trailer
+	 * @param progress told the part of the products written so far, or null if no one is told
+	 * @throws IllegalArgumentException with the message "Unable to save file" if there are any errors
+	 * or exceptions
+	 */
+	private static void writeProductsToFile(String fileName, ArrayList<Product> products, boolean compress,
+			boolean index, boolean checksum, DoubleConsumer progress) {
+		if(fileName == null || fileName.isEmpty() || new File(fileName).isDirectory()) {
+			throw new IllegalArgumentException("Unable to save file");
+		}
+		File file = new File(fileName);
+		File temp = new File(fileName + ".tmp");
+		try {
+			long[] offsets = new long[products.size() + 1];
+			long fileChecksum = 0;
+			// Each stream is its own resource, so the ones already opened are closed if the next one fails
+			try (OutputStream fileOut = new FileOutputStream(temp);
+					OutputStream buffered = compress ? new GZIPOutputStream(fileOut, BUFFER_SIZE)
+							: new BufferedOutputStream(fileOut, BUFFER_SIZE);
+					// Checksums are taken of the uncompressed bytes, so they hold for every way of reading
+					CountingOutputStream counter = !compress || checksum
+							? new CountingOutputStream(buffered, checksum) : null;
+					Writer fileWriter = new BufferedWriter(new OutputStreamWriter(
+							counter != null ? counter : buffered, Charset.defaultCharset()), BUFFER_SIZE)) {
+				char[] digits = new char[11];
+				for (int i = 0; i < products.size(); i++) {
+					if(counter != null) {
+						fileWriter.flush();
+						offsets[i] = counter.count;
+						if(checksum) {
+							counter.startChecksum();
+						}
+					}
+					writeProduct(fileWriter, products.get(i), digits, compress ? null : counter);
+					if(checksum) {
+						fileWriter.flush();
+						long length = counter.count - offsets[i];
+						fileWriter.write(CHECKSUM_PREFIX);
+						fileWriter.write(String.format("%08x %d", counter.getChecksum(), length));
+						fileWriter.write(LINE_SEPARATOR);
+					}
+					if(progress != null) {
+						progress.accept((double) (i + 1) / products.size());
+					}
+				}
+				if(counter != null) {
+					fileWriter.flush();
+					offsets[products.size()] = counter.count;
+					fileChecksum = counter.getFileChecksum();
+				}
+			}
+			Files.move(temp.toPath(), file.toPath(), StandardCopyOption.REPLACE_EXISTING);
+			if(!compress) {
+				moveSources(fileName, products, offsets);
+			}
+			if(compress || !index) {
+				ProductsIndex.deleteIndex(fileName);
+			} else {
+				writeIndex(fileName, products, offsets, fileChecksum);
+			}
+		} catch(IOException | IllegalArgumentException e) {
+			temp.delete();
+			throw new IllegalArgumentException("Unable to save file");
+		}
+	}
+
+	/**
+	 * Writes the provided list of Product objects to a file with the given file name, formatting the
+	 * products in parallel. Every product is formatted into its own buffer on the common fork/join
+	 * pool, and the buffers are then written in product order with gathering writes. The file is the
+	 * same as the one writeProductsToFile writes, but the whole file is held in memory while it is
+	 * written. Products whose tasks are not loaded are copied and moved to the new file the same way.
+	 * @param fileName The name of the file to write to.
+	 * @param products The list of Product objects to be written to the file.
+	 * @throws IllegalArgumentException with the message "Unable to save file" if there are any errors
+	 * or exceptions
+	 */
+	public static void writeProductsToFileParallel(String fileName, ArrayList<Product> products) {
+		writeProductsToFileParallel(fileName, products, false);
+	}
+
+	/**
+	 * Writes the provided list of Product objects to a file with the given file name, formatting the
+	 * products in parallel. If compress is true, every product is also compressed in parallel into its
+	 * own GZIP member, and the members together make up one GZIP file.
+	 * @param fileName The name of the file to write to.
+	 * @param products The list of Product objects to be written to the file.
+	 * @param compress true if the file should be compressed
+	 * @throws IllegalArgumentException with the message "Unable to save file" if there are any errors
+	 * or exceptions
+	 */
+	public static void writeProductsToFileParallel(String fileName, ArrayList<Product> products,
+			boolean compress) {
+		if(fileName == null || fileName.isEmpty() || new File(fileName).isDirectory()) {
+			throw new IllegalArgumentException("Unable to save file");
+		}
+		File file = new File(fileName);
+		File temp = new File(fileName + ".tmp");
 		try {
-			PrintStream fileWriter = new PrintStream(new File(fileName));
-			
+			ArrayList<Callable<ByteBuffer>> formatters = new ArrayList<Callable<ByteBuffer>>(products.size());
 			for (int i = 0; i < products.size(); i++) {
-			    fileWriter.println("# " + products.get(i).getProductName());
-			    for(int j = 0; j < products.get(i).getTasks().size(); j++) {
-			    	fileWriter.println("* " + products.get(i).getTasks().get(j).getTaskId() + "," +
-			    			products.get(i).getTasks().get(j).getStateName() + "," + products.get(i).getTasks().get(j).getTitle()
-			    			+ "," + products.get(i).getTasks().get(j).getTypeShortName() + "," + products.get(i).getTasks().get(j).getCreator()
-			    			+ "," + products.get(i).getTasks().get(j).getOwner() + "," +
-			    			products.get(i).getTasks().get(j).isVerified());
-			    	for(int r = 0; r < products.get(i).getTasks().get(j).getNotesArray().length; r++) {
-				    	fileWriter.println("- " + products.get(i).getTasks().get(j).getNotesArray()[r]);
-			    	}
-			    }
-			}
-		
-			fileWriter.close();
-		} catch(FileNotFoundException e) {
+				Product product = products.get(i);
+				formatters.add(() -> formatProduct(product, compress));
+			}
+			List<Future<ByteBuffer>> formatted = ForkJoinPool.commonPool().invokeAll(formatters);
+			ByteBuffer[] buffers = new ByteBuffer[formatted.size()];
+			long[] offsets = new long[buffers.length + 1];
+			CRC32C fileChecksum = new CRC32C();
+			for (int i = 0; i < buffers.length; i++) {
+				buffers[i] = formatted.get(i).get();
+				offsets[i + 1] = offsets[i] + buffers[i].remaining();
+				fileChecksum.update(buffers[i].duplicate());
+			}
+
+			try (FileChannel channel = FileChannel.open(temp.toPath(), StandardOpenOption.CREATE,
+					StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)) {
+				int first = 0;
+				while (first < buffers.length) {
+					channel.write(buffers, first, buffers.length - first);
+					while (first < buffers.length && !buffers[first].hasRemaining()) {
+						first++;
+					}
+				}
+			}
+			Files.move(temp.toPath(), file.toPath(), StandardCopyOption.REPLACE_EXISTING);
+			if(compress) {
+				ProductsIndex.deleteIndex(fileName);
+			} else {
+				moveSources(fileName, products, offsets);
+				writeIndex(fileName, products, offsets, fileChecksum.getValue());
+			}
+		} catch(IOException | ExecutionException e) {
+			temp.delete();
 			throw new IllegalArgumentException("Unable to save file");
+		} catch(InterruptedException e) {
+			Thread.currentThread().interrupt();
+			temp.delete();
+			throw new IllegalArgumentException("Unable to save file");
+		}
+	}
+
+	/**
+	 * Moves the products that were copied from the file they came from to their lines in the file that
+	 * was just written, since that file may have replaced the one they came from.
+	 * @param fileName of the file that was written
+	 * @param products that were written
+	 * @param offsets of the products in the file, followed by the size of the file
+	 * @throws IOException if the file that was written cannot be read
+	 */
+	private static void moveSources(String fileName, ArrayList<Product> products, long[] offsets)
+			throws IOException {
+		TasksSource[] sources = ProductsReader.tasksSources(fileName, offsets);
+		for (int i = 0; i < products.size(); i++) {
+			if(products.get(i).getTasksSource() != null) {
+				products.get(i).setTasksSource(sources[i]);
+			}
+		}
+	}
+
+	/**
+	 * Writes the index of a file that was just written. Products without tasks are left out, since
+	 * ProductsReader skips them when it reads the whole file.
+	 * @param fileName of the file that was written
+	 * @param products that were written
+	 * @param offsets of the products in the file, followed by the size of the file
+	 * @param fileChecksum CRC32C of the whole file
+	 */
+	private static void writeIndex(String fileName, ArrayList<Product> products, long[] offsets,
+			long fileChecksum) {
+		ArrayList<String> names = new ArrayList<String>(products.size());
+		long[] starts = new long[products.size()];
+		long[] lengths = new long[products.size()];
+		for (int i = 0; i < products.size(); i++) {
+			String name = products.get(i).getProductName().trim();
+			Product product = products.get(i);
+			if(!name.isEmpty() && (product.getTasksSource() != null || product.getTasks().size() > 0)) {
+				starts[names.size()] = offsets[i];
+				lengths[names.size()] = offsets[i + 1] - offsets[i];
+				names.add(name);
+			}
+		}
+		ProductsIndex.writeIndex(fileName, fileChecksum, names, starts, lengths);
+	}
+
+	/**
+	 * Formats one product and its tasks into a buffer of encoded bytes. The lines of a product whose
+	 * tasks are not loaded are copied from its source, unless the bytes are compressed.
+	 * @param product to format
+	 * @param compress true if the bytes should be compressed into a GZIP member
+	 * @return buffer holding the lines of the product
+	 * @throws IOException if the product cannot be formatted
+	 */
+	private static ByteBuffer formatProduct(Product product, boolean compress) throws IOException {
+		ByteArrayOutputStream bytes = new ByteArrayOutputStream(BUFFER_SIZE);
+		OutputStream out = compress ? new GZIPOutputStream(bytes, BUFFER_SIZE) : bytes;
+		try (Writer productWriter = new OutputStreamWriter(out, Charset.defaultCharset())) {
+			writeProduct(productWriter, product, new char[11], compress ? null : bytes);
+		}
+		return ByteBuffer.wrap(bytes.toByteArray());
+	}
+
+	/**
+	 * Writes the product line of a product followed by its tasks. The lines of a product whose tasks
+	 * are not loaded are copied from its source instead, if there is a stream to copy them to.
+	 * @param fileWriter writer to write to
+	 * @param product to write
+	 * @param digits scratch space for task ids
+	 * @param lines stream under the writer the lines of a product can be copied to, or null if every
+	 * product is written from its tasks
+	 * @throws IOException if the product cannot be written
+	 */
+	private static void writeProduct(Writer fileWriter, Product product, char[] digits, OutputStream lines)
+			throws IOException {
+		fileWriter.write("# ");
+		fileWriter.write(product.getProductName());
+		fileWriter.write(LINE_SEPARATOR);
+		TasksSource source = product.getTasksSource();
+		if(lines != null && source != null) {
+			fileWriter.flush();
+			source.copyTo(lines);
+			return;
+		}
+		ArrayList<Task> tasks = product.getTasks();
+		for(int j = 0; j < tasks.size(); j++) {
+			writeTask(fileWriter, tasks.get(j), digits);
+		}
+	}
+
+	/**
+	 * Writes the task line of a task followed by its note lines. The notes are read from the task's
+	 * list directly instead of from a copy.
+	 * @param fileWriter writer to write to
+	 * @param task to write
+	 * @param digits scratch space for the task id
+	 * @throws IOException if the task cannot be written
+	 */
+	private static void writeTask(Writer fileWriter, Task task, char[] digits) throws IOException {
+		fileWriter.write("* ");
+		writeInt(fileWriter, task.getTaskId(), digits);
+		fileWriter.write(',');
+		fileWriter.write(task.getStateName());
+		fileWriter.write(',');
+		fileWriter.write(task.getTitle());
+		fileWriter.write(',');
+		fileWriter.write(task.getTypeShortName());
+		fileWriter.write(',');
+		fileWriter.write(task.getCreator());
+		fileWriter.write(',');
+		fileWriter.write(task.getOwner());
+		fileWriter.write(',');
+		fileWriter.write(task.isVerified() ? "true" : "false");
+		fileWriter.write(LINE_SEPARATOR);
+		ArrayList<String> notes = task.getNotes();
+		for(int r = 0; r < notes.size(); r++) {
+			fileWriter.write("- ");
+			fileWriter.write(notes.get(r));
+			fileWriter.write(LINE_SEPARATOR);
+		}
+	}
+
+	/**
+	 * Writes the decimal digits of a number without creating a String for it.
+	 * @param fileWriter writer to write to
+	 * @param value to write
+	 * @param digits scratch space for the digits
+	 * @throws IOException if the number cannot be written
+	 */
+	private static void writeInt(Writer fileWriter, int value, char[] digits) throws IOException {
+		if(value < 0) {
+			fileWriter.write(Integer.toString(value));
+			return;
+		}
+		int start = digits.length;
+		do {
+			digits[--start] = (char) ('0' + value % 10);
+			value /= 10;
+		} while(value != 0);
+		fileWriter.write(digits, start, digits.length - start);
+	}
+
+	/**
+	 * Counts the bytes written through it and keeps a checksum of all of them for the index, and can
+	 * keep a checksum of the bytes of each product too. Flushing it does not flush the stream it writes
+	 * to, so the writers above it can be flushed to take a count without forcing a write to the file.
+	 */
+	private static class CountingOutputStream extends FilterOutputStream {
+		/** Number of bytes written */
+		private long count;
+		/** Checksum of the bytes written since it was last started, or null if none is kept */
+		private final CRC32C crc;
+		/** Checksum of every byte written */
+		private final CRC32C fileCrc = new CRC32C();
+
+		/**
+		 * Creates a stream that counts the bytes written to the given stream.
+		 * @param out stream to write to
+		 * @param checksum true if a checksum of the bytes should be kept
+		 */
+		CountingOutputStream(OutputStream out, boolean checksum) {
+			super(out);
+			this.crc = checksum ? new CRC32C() : null;
+		}
+
+		/**
+		 * Starts a new checksum of the bytes written from now on.
+		 */
+		void startChecksum() {
+			crc.reset();
+		}
+
+		/**
+		 * Returns the checksum of the bytes written since the checksum was last started.
+		 * @return the checksum
+		 */
+		long getChecksum() {
+			return crc.getValue();
+		}
+
+		/**
+		 * Returns the checksum of every byte written.
+		 * @return the checksum
+		 */
+		long getFileChecksum() {
+			return fileCrc.getValue();
+		}
+
+		@Override
+		public void write(int b) throws IOException {
+			out.write(b);
+			count++;
+			fileCrc.update(b);
+			if(crc != null) {
+				crc.update(b);
+			}
+		}
+
+		@Override
+		public void write(byte[] b, int off, int len) throws IOException {
+			out.write(b, off, len);
+			count += len;
+			fileCrc.update(b, off, len);
+			if(crc != null) {
+				crc.update(b, off, len);
+			}
+		}
+
+		@Override
+		public void flush() {
+			// The bytes are flushed to the file when the stream is closed
 		}
 	}
 
-}
\ No newline at end of file
+}
@@ -0,0 +1,246 @@
+package edu.ncsu.csc216.product_backlog.model.io;
+
+import java.io.BufferedInputStream;
+import java.io.DataInputStream;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+
+import edu.ncsu.csc216.product_backlog.model.product.Product;
+import edu.ncsu.csc216.product_backlog.model.task.Task;
+import edu.ncsu.csc216.product_backlog.model.util.StringPool;
+
+/**
+ * The SnapshotReader class loads products from a binary snapshot written by SnapshotWriter. The
+ * snapshot holds every value already split into fields, so loading it only copies Strings out of the
+ * file and never has to tokenize text.
+ * @author Riya Gunda
+ */
+public class SnapshotReader {
+
+	/** Size of the input buffer */
+	private static final int BUFFER_SIZE = 1 << 16;
+	/**
+	 * Largest list capacity taken from a count in a stream without header totals, so a damaged count
+	 * cannot exhaust memory
+	 */
+	private static final int MAX_CAPACITY = 1 << 16;
+
+	/**
+	 * Reads the snapshot file with the given name and returns the products in it. The task and note
+	 * totals in the header size the lists of tasks and notes, and a snapshot whose records do not add
+	 * up to them is rejected.
+	 * @param fileName of the snapshot to read from
+	 * @return a list of products read from the snapshot
+	 * @throws IllegalArgumentException with the message "Unable to load file." if the file cannot be
+	 * loaded or is not a valid snapshot
+	 */
+	public static ArrayList<Product> readSnapshot(String fileName) {
+		try (FileInputStream file = new FileInputStream(fileName);
+				DataInputStream in = new DataInputStream(new BufferedInputStream(file, BUFFER_SIZE))) {
+			int version = readVersion(in);
+			int productCount = readCount(in);
+			long taskTotal = readVarint(in);
+			long noteTotal = readVarint(in);
+			readJournalSequence(in, version);
+			// Every record takes at least a byte, so larger counts can only come from a damaged header
+			long size = file.getChannel().size();
+			if(productCount > size || taskTotal > size || noteTotal > size) {
+				throw new IOException("Counts do not fit in the file.");
+			}
+
+			SnapshotReader reader = new SnapshotReader(in);
+			reader.tasksLeft = taskTotal;
+			reader.notesLeft = noteTotal;
+			ArrayList<Product> products = new ArrayList<Product>(productCount);
+			for(int i = 0; i < productCount; i++) {
+				products.add(reader.readProduct());
+			}
+			if(reader.tasksLeft != 0 || reader.notesLeft != 0) {
+				throw new IOException("Fewer records than the header counts.");
+			}
+			return products;
+		} catch(IOException | IllegalArgumentException e) {
+			throw new IllegalArgumentException("Unable to load file.");
+		}
+	}
+
+	/**
+	 * Reads the header of the snapshot file with the given name and returns the sequence number of the
+	 * first journal record that is not part of the snapshot.
+	 * @param fileName of the snapshot to read from
+	 * @return the journal sequence number of the snapshot
+	 * @throws IllegalArgumentException with the message "Unable to load file." if the file cannot be
+	 * loaded or is not a valid snapshot
+	 */
+	static long readJournalSequence(String fileName) {
+		try (DataInputStream in = new DataInputStream(new BufferedInputStream(new FileInputStream(fileName)))) {
+			int version = readVersion(in);
+			readCount(in);
+			readVarint(in);
+			readVarint(in);
+			return readJournalSequence(in, version);
+		} catch(IOException e) {
+			throw new IllegalArgumentException("Unable to load file.");
+		}
+	}
+
+	/**
+	 * Reads the magic number and format version at the start of a snapshot.
+	 * @param in stream to read from
+	 * @return the format version of the snapshot
+	 * @throws IOException if the stream is not a snapshot of a known version
+	 */
+	private static int readVersion(DataInputStream in) throws IOException {
+		if(in.readInt() != SnapshotWriter.MAGIC) {
+			throw new IOException("Not a snapshot.");
+		}
+		int version = in.readUnsignedByte();
+		if(version < 1 || version > SnapshotWriter.VERSION) {
+			throw new IOException("Unknown snapshot version.");
+		}
+		return version;
+	}
+
+	/**
+	 * Reads the journal sequence number at the end of the header. Version 1 snapshots do not have one
+	 * and always start at 0.
+	 * @param in stream positioned after the counts of the header
+	 * @param version of the snapshot
+	 * @return the journal sequence number of the snapshot
+	 * @throws IOException if the sequence number cannot be read
+	 */
+	private static long readJournalSequence(DataInputStream in, int version) throws IOException {
+		return version == 1 ? 0 : readVarint(in);
+	}
+
+	/** Stream the snapshot is read from */
+	private DataInputStream in;
+	/** Bytes of the String being read */
+	private byte[] bytes = new byte[256];
+	/** Tasks the header says are left to read, or -1 if the stream has no header totals */
+	private long tasksLeft = -1;
+	/** Notes the header says are left to read, or -1 if the stream has no header totals */
+	private long notesLeft = -1;
+
+	/**
+	 * Creates a reader for the records of the given stream.
+	 * @param in stream to read from
+	 */
+	SnapshotReader(DataInputStream in) {
+		this.in = in;
+	}
+
+	/**
+	 * Reads one product record and its tasks.
+	 * @return the product read
+	 * @throws IOException if the product cannot be read or has more tasks than the header counts
+	 */
+	Product readProduct() throws IOException {
+		Product product = new Product(readString());
+		int taskCount = readCount(in);
+		if(tasksLeft >= 0) {
+			if(taskCount > tasksLeft) {
+				throw new IOException("More tasks than the header counts.");
+			}
+			tasksLeft -= taskCount;
+		}
+		ArrayList<Task> tasks = new ArrayList<Task>(tasksLeft >= 0 ? taskCount : Math.min(taskCount, MAX_CAPACITY));
+		for(int i = 0; i < taskCount; i++) {
+			tasks.add(readTask());
+		}
+		product.addTasks(tasks);
+		product.setDirty(false);
+		return product;
+	}
+
+	/**
+	 * Reads one task record.
+	 * @return the task read
+	 * @throws IOException if the task cannot be read or has more notes than the header counts
+	 */
+	private Task readTask() throws IOException {
+		int id = readCount(in);
+		String state = decode(SnapshotWriter.STATE_NAMES, in.readUnsignedByte());
+		String type = decode(SnapshotWriter.TYPE_NAMES, in.readUnsignedByte());
+		String verified = in.readBoolean() ? "true" : "false";
+		String title = readString();
+		String creator = StringPool.intern(readString());
+		String owner = StringPool.intern(readString());
+		int noteCount = readCount(in);
+		if(notesLeft >= 0) {
+			if(noteCount > notesLeft) {
+				throw new IOException("More notes than the header counts.");
+			}
+			notesLeft -= noteCount;
+		}
+		ArrayList<String> notes = new ArrayList<String>(notesLeft >= 0 ? noteCount : Math.min(noteCount, MAX_CAPACITY));
+		for(int i = 0; i < noteCount; i++) {
+			notes.add(readString());
+		}
+		return new Task(id, state, title, type, creator, owner, verified, notes);
+	}
+
+	/**
+	 * Reads a String written as its UTF-8 byte length followed by the bytes.
+	 * @return the String read
+	 * @throws IOException if the String cannot be read
+	 */
+	String readString() throws IOException {
+		int length = readCount(in);
+		if(length > bytes.length) {
+			bytes = new byte[Math.max(length, bytes.length * 2)];
+		}
+		in.readFully(bytes, 0, length);
+		return new String(bytes, 0, length, StandardCharsets.UTF_8);
+	}
+
+	/**
+	 * Returns the value with a code, which is its index in the given table.
+	 * @param <T> type of the values
+	 * @param values table of values in the order of their codes
+	 * @param code of the value
+	 * @return the value with the code
+	 * @throws IOException if no value has the code
+	 */
+	static <T> T decode(T[] values, int code) throws IOException {
+		if(code >= values.length) {
+			throw new IOException("Unknown code " + code);
+		}
+		return values[code];
+	}
+
+	/**
+	 * Reads a varint that must fit in an int.
+	 * @param in stream to read from
+	 * @return the value read
+	 * @throws IOException if the value cannot be read or does not fit in an int
+	 */
+	static int readCount(DataInputStream in) throws IOException {
+		long value = readVarint(in);
+		if(value > Integer.MAX_VALUE) {
+			throw new IOException("Count too large.");
+		}
+		return (int) value;
+	}
+
+	/**
+	 * Reads a varint written by SnapshotWriter.
+	 * @param in stream to read from
+	 * @return the value read
+	 * @throws IOException if the value cannot be read
+	 */
+	static long readVarint(DataInputStream in) throws IOException {
+		long value = 0;
+		for(int shift = 0; shift < 64; shift += 7) {
+			int b = in.readUnsignedByte();
+			value |= (long) (b & 0x7F) << shift;
+			if((b & 0x80) == 0) {
+				return value;
+			}
+		}
+		throw new IOException("Malformed varint.");
+	}
+
+}
@@ -0,0 +1,175 @@
+package edu.ncsu.csc216.product_backlog.model.io;
+
+import java.io.BufferedOutputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+
+import edu.ncsu.csc216.product_backlog.model.product.Product;
+import edu.ncsu.csc216.product_backlog.model.task.Task;
+
+/**
+ * The SnapshotWriter class writes products to a compact binary snapshot that SnapshotReader can load
+ * without parsing text. A snapshot starts with a header holding the magic number, the format version,
+ * the number of products, tasks and notes, so the reader can size its lists up front, and the sequence
+ * number of the first CommandJournal record that is not part of the snapshot. Every
+ * product then has its name and task count, and every task its id, state code, type code, verified
+ * flag, title, creator, owner, note count and notes. Counts and ids are written as varints and Strings
+ * as a varint byte length followed by their UTF-8 bytes.
+ * @author Riya Gunda
+ */
+public class SnapshotWriter {
+
+	/** Magic number at the start of every snapshot, the bytes PBSN */
+	static final int MAGIC = 0x5042534E;
+	/** Version of the snapshot format */
+	static final int VERSION = 2;
+	/** State names in the order of their codes */
+	static final String[] STATE_NAMES = {Task.BACKLOG_NAME, Task.OWNED_NAME, Task.PROCESSING_NAME,
+			Task.VERIFYING_NAME, Task.DONE_NAME, Task.REJECTED_NAME};
+	/** Type long names in the order of their codes */
+	static final String[] TYPE_NAMES = {Task.FEATURE_NAME, Task.BUG_NAME, Task.TECHNICAL_WORK_NAME,
+			Task.KNOWLEDGE_ACQUISITION_NAME};
+	/** Size of the output buffer */
+	private static final int BUFFER_SIZE = 1 << 16;
+
+	/**
+	 * Writes the provided list of Product objects to a snapshot file with the given file name. Like
+	 * ProductsWriter, the snapshot is written to a temporary file that then replaces the file.
+	 * @param fileName The name of the file to write to.
+	 * @param products The list of Product objects to be written to the file.
+	 * @throws IllegalArgumentException with the message "Unable to save file." if there are any errors
+	 * or exceptions
+	 */
+	public static void writeSnapshot(String fileName, ArrayList<Product> products) {
+		writeSnapshot(fileName, products, 0);
+	}
+
+	/**
+	 * Writes the provided list of Product objects to a snapshot file that includes every journal record
+	 * before the given sequence number.
+	 * @param fileName The name of the file to write to.
+	 * @param products The list of Product objects to be written to the file.
+	 * @param journalSequence sequence number of the first journal record not in the snapshot
+	 * @throws IllegalArgumentException with the message "Unable to save file." if there are any errors
+	 * or exceptions
+	 */
+	static void writeSnapshot(String fileName, ArrayList<Product> products, long journalSequence) {
+		if(fileName == null || fileName.isEmpty() || new File(fileName).isDirectory()) {
+			throw new IllegalArgumentException("Unable to save file.");
+		}
+		File file = new File(fileName);
+		File temp = new File(fileName + ".tmp");
+		try {
+			try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(new FileOutputStream(temp),
+					BUFFER_SIZE))) {
+				long taskCount = 0;
+				long noteCount = 0;
+				for(Product product : products) {
+					taskCount += product.getTasks().size();
+					for(Task task : product.getTasks()) {
+						noteCount += task.getNotes().size();
+					}
+				}
+				out.writeInt(MAGIC);
+				out.writeByte(VERSION);
+				writeVarint(out, products.size());
+				writeVarint(out, taskCount);
+				writeVarint(out, noteCount);
+				writeVarint(out, journalSequence);
+
+				for(Product product : products) {
+					writeProduct(out, product);
+				}
+			}
+			Files.move(temp.toPath(), file.toPath(), StandardCopyOption.REPLACE_EXISTING);
+		} catch(IOException e) {
+			temp.delete();
+			throw new IllegalArgumentException("Unable to save file.");
+		}
+	}
+
+	/**
+	 * Writes one product record and its tasks.
+	 * @param out stream to write to
+	 * @param product to write
+	 * @throws IOException if the product cannot be written
+	 */
+	static void writeProduct(DataOutputStream out, Product product) throws IOException {
+		writeString(out, product.getProductName());
+		writeVarint(out, product.getTasks().size());
+		for(Task task : product.getTasks()) {
+			writeTask(out, task);
+		}
+	}
+
+	/**
+	 * Writes one task record.
+	 * @param out stream to write to
+	 * @param task to write
+	 * @throws IOException if the task cannot be written
+	 */
+	private static void writeTask(DataOutputStream out, Task task) throws IOException {
+		writeVarint(out, task.getTaskId());
+		out.writeByte(indexOf(STATE_NAMES, task.getStateName()));
+		out.writeByte(indexOf(TYPE_NAMES, task.getTypeLongName()));
+		out.writeBoolean(task.isVerified());
+		writeString(out, task.getTitle());
+		writeString(out, task.getCreator());
+		writeString(out, task.getOwner());
+		ArrayList<String> notes = task.getNotes();
+		writeVarint(out, notes.size());
+		for(int i = 0; i < notes.size(); i++) {
+			writeString(out, notes.get(i));
+		}
+	}
+
+	/**
+	 * Returns the index of the given name in the array.
+	 * @param names to search
+	 * @param name to search for
+	 * @return the index of the name
+	 * @throws IOException if the name is not in the array
+	 */
+	private static int indexOf(String[] names, String name) throws IOException {
+		for(int i = 0; i < names.length; i++) {
+			if(names[i].equals(name)) {
+				return i;
+			}
+		}
+		throw new IOException("Unknown name " + name);
+	}
+
+	/**
+	 * Writes a non-negative number as a varint, seven bits per byte with the high bit set on every byte
+	 * but the last.
+	 * @param out stream to write to
+	 * @param value to write
+	 * @throws IOException if the value cannot be written
+	 */
+	static void writeVarint(DataOutputStream out, long value) throws IOException {
+		while((value & ~0x7FL) != 0) {
+			out.writeByte((int) (value & 0x7F) | 0x80);
+			value >>>= 7;
+		}
+		out.writeByte((int) value);
+	}
+
+	/**
+	 * Writes a String as its UTF-8 byte length followed by the bytes.
+	 * @param out stream to write to
+	 * @param value to write
+	 * @throws IOException if the value cannot be written
+	 */
+	static void writeString(DataOutputStream out, String value) throws IOException {
+		byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+		writeVarint(out, bytes.length);
+		out.write(bytes);
+	}
+
+}
@@ -1,11 +1,16 @@
 package edu.ncsu.csc216.product_backlog.model.product;
 
+import java.io.IOException;
+import java.io.OutputStream;
 import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.function.Supplier;
 
 
 import edu.ncsu.csc216.product_backlog.model.command.Command;
 import edu.ncsu.csc216.product_backlog.model.task.Task;
 import edu.ncsu.csc216.product_backlog.model.task.Task.Type;
+import edu.ncsu.csc216.product_backlog.model.util.IntHashMap;
 
 /**
  * This class holds the product and maintains the tasks in it.
@@ -18,6 +23,20 @@ public class Product {
 	private int counter;
 	/** Private array list of the tasks for each product */
 	private ArrayList<Task> tasks;
+	/** Tasks of the product by id, kept in step with the tasks list once the tasks are loaded */
+	private IntHashMap<Task> tasksById;
+	/** Loads the tasks the first time they are needed, or null if the tasks are already loaded */
+	private Supplier<ArrayList<Task>> tasksLoader;
+	/** True if the product or one of its tasks has changed since the product was last saved */
+	private boolean dirty;
+	/** Number of changes made to the product or its tasks */
+	private int changeCount;
+	/** Keys the index and statistics of the tasks work from, recorded when first needed, or null */
+	private TaskKeys taskKeys;
+	/** Index of the words in the titles and notes of the tasks, built the first time they are searched, or null */
+	private TextIndex textIndex;
+	/** Marks the product dirty and reindexes a task when it changes */
+	private final Task.TaskListener taskListener = this::taskChanged;
 	
 	/** constructor for the class that sets the name for the product
 	 * @param productName for the product to be created*/
@@ -25,6 +44,24 @@ public class Product {
 		setProductName(productName);
 		emptyList();
 	}
+
+	/**
+	 * Constructor for a product whose tasks are loaded the first time they are needed. The loader must
+	 * return the tasks sorted by id. The product starts out clean, since it matches what it is loaded
+	 * from.
+	 * @param productName for the product to be created
+	 * @param tasksLoader that loads the tasks of the product
+	 * @throws IllegalArgumentException with the message "Invalid product name." if the name is null or
+	 * empty, or "Invalid tasks loader." if the loader is null
+	 */
+	public Product(String productName, Supplier<ArrayList<Task>> tasksLoader) {
+		setProductName(productName);
+		if(tasksLoader == null) {
+			throw new IllegalArgumentException("Invalid tasks loader.");
+		}
+		this.tasksLoader = tasksLoader;
+		this.dirty = false;
+	}
 	
 	/**
 	 * Sets the products name
@@ -35,6 +72,7 @@ public class Product {
  			throw new IllegalArgumentException("Invalid product name.");
  		}
  		this.productName = productName;
+		changed();
 	}
 
  	/**
@@ -52,32 +90,78 @@ public class Product {
 
 	private void emptyList() {
 		tasks = new ArrayList<Task>();
+		tasksById = new IntHashMap<Task>();
 		setTaskCounter();
 	}
 
 	/**
 	 * This method adds the given task object to the product if it is not a duplicate and then proceeds
-	 * to inrease the counter value 
+	 * to inrease the counter value. The tasks stay sorted by id, and the place of the task is found by
+	 * binary search, or right away for a task that goes at the end.
 	 * @param task to be added to the product
 	 */
 	public void addTask(Task task) {		
-		for(int i = 0; i < tasks.size(); i++) {
-			Task temp = tasks.get(i);
-			if(temp.getTaskId() == task.getTaskId()) {
-				throw new IllegalArgumentException("Task cannot be added.");
-			}
+		ArrayList<Task> tasks = getTasks();
+		if(tasksById.get(task.getTaskId()) != null) {
+			throw new IllegalArgumentException("Task cannot be added.");
 		}
 		
-		int marker = -1;
-		for(int i = 0; i < tasks.size(); i++) {
-			if(tasks.get(i).getTaskId() < task.getTaskId()) {
-				marker = i;
-			}
+		int size = tasks.size();
+		if(size == 0 || tasks.get(size - 1).getTaskId() < task.getTaskId()) {
+			// New tasks get the next id, so they almost always go at the end
+			tasks.add(task);
+		} else {
+			tasks.add(-indexOf(task.getTaskId()) - 1, task);
+		}
+		tasksById.put(task.getTaskId(), task);
+		if(taskKeys != null) {
+			taskKeys.add(task);
 		}
-		tasks.add(marker + 1, task);
+		if(textIndex != null) {
+			textIndex.add(task);
+		}
+		task.setTaskListener(taskListener);
+		changed();
 		counter++;
 	} 
 
+	/**
+	 * Adds many tasks to the product at once, which is how readers load a product. A task whose id is
+	 * already used in the product, or by an earlier task in the list, is skipped instead of failing the
+	 * whole load. The ids are checked against the index of tasks by id and the tasks are sorted by id
+	 * once at the end, so adding n tasks takes O(n log n) time instead of the O(n^2) of adding them one
+	 * at a time.
+	 * @param newTasks tasks to add
+	 * @return the number of tasks added
+	 */
+	public int addTasks(ArrayList<Task> newTasks) {
+		ArrayList<Task> tasks = getTasks();
+		int added = 0;
+		tasks.ensureCapacity(tasks.size() + newTasks.size());
+		for(int i = 0; i < newTasks.size(); i++) {
+			Task task = newTasks.get(i);
+			if(tasksById.get(task.getTaskId()) == null) {
+				tasksById.put(task.getTaskId(), task);
+				if(taskKeys != null) {
+					taskKeys.add(task);
+				}
+				if(textIndex != null) {
+					textIndex.add(task);
+				}
+				tasks.add(task);
+				task.setTaskListener(taskListener);
+				added++;
+			}
+		}
+		if(added > 0) {
+			// Sorting is stable and nearly linear when the old tasks and the new ones are each in order
+			tasks.sort(Comparator.comparingInt(Task::getTaskId));
+			changed();
+			counter += added;
+		}
+		return added;
+	}
+
 	/**
 	 * This method calls the addTask(Task t) method and does the exact same thing except creates the 
 	 * task in the method
@@ -85,32 +169,78 @@ public class Product {
 	 * @param type of the Task
 	 * @param creator of the Task
 	 * @param note for the task
+	 * @return the task that was added
 	 */
-	public void addTask(String title, Type type, String creator, String note) {
-		Task t = new Task(counter, title, type, creator, note);
+	public Task addTask(String title, Type type, String creator, String note) {
+		Task t = createTask(title, type, creator, note);
 		addTask(t);
+		return t;
 	}
 
 	/**
-	 * Returns the list of tasks in the product
+	 * Creates a task with the next id of the product without adding it, so the task can be checked and
+	 * journaled before it is added with addTask(Task).
+	 * @param title of the Task
+	 * @param type of the Task
+	 * @param creator of the Task
+	 * @param note for the task
+	 * @return the task that was created
+	 */
+	public Task createTask(String title, Type type, String creator, String note) {
+		// The counter is only set once the tasks are loaded
+		getTasks();
+		return new Task(counter, title, type, creator, note);
+	}
+
+	/**
+	 * Returns the source the tasks of the product are still to be loaded from, which can copy the lines
+	 * of the tasks without loading them.
+	 * @return the source of the tasks, or null if the tasks are loaded or do not come from a source
+	 */
+	public TasksSource getTasksSource() {
+		return tasksLoader instanceof TasksSource ? (TasksSource) tasksLoader : null;
+	}
+
+	/**
+	 * Moves a product whose tasks are not loaded yet to another source holding the same tasks, such as
+	 * the file the product was just saved to. Does nothing if the tasks are already loaded.
+	 * @param source to load the tasks from
+	 */
+	public void setTasksSource(TasksSource source) {
+		if(tasksLoader != null && source != null) {
+			tasksLoader = source;
+		}
+	}
+
+	/**
+	 * Returns the list of tasks in the product, loading them first if they are not loaded yet
 	 * @return list of tasks
+	 * @throws IllegalArgumentException if the tasks are not loaded yet and their loader fails, such as
+	 * with the message "Unable to load file." if the file they are loaded from has changed
 	 */
 	public ArrayList<Task> getTasks() {
+		if(tasksLoader != null) {
+			tasks = tasksLoader.get();
+			tasksLoader = null;
+			setTaskCounter();
+			tasksById = new IntHashMap<Task>(tasks.size());
+			for(int i = 0; i < tasks.size(); i++) {
+				tasks.get(i).setTaskListener(taskListener);
+				tasksById.put(tasks.get(i).getTaskId(), tasks.get(i));
+			}
+		}
 		return tasks;
 	}
 
 	/**
-	 * Returns a task from the product with the given id
+	 * Returns a task from the product with the given id, found through the index of tasks by id in
+	 * constant time
 	 * @param id of the task to be returned
 	 * @return Task from the product with the given ID
 	 */
 	public Task getTaskById(int id) {
-		for(int i = 0; i < tasks.size(); i++) {
-			if(tasks.get(i).getTaskId() == id) {
-				return tasks.get(i);
-			}
-		}
-		return null;
+		getTasks();
+		return tasksById.get(id);
 	}
 
 	/**
@@ -119,10 +249,9 @@ public class Product {
 	 * @param c command to be executed
 	 */
 	public void executeCommand(int id, Command c) {
-		for(int i = 0; i < tasks.size(); i++) {
-			if(tasks.get(i).getTaskId() == id) {
-				tasks.get(i).update(c); 
-			}
+		Task task = getTaskById(id);
+		if(task != null) {
+			task.update(c);
 		}
 	}
 
@@ -131,12 +260,193 @@ public class Product {
 	 * @param id of the task to delete
 	 */
 	public void deleteTaskById(int id) {		
-		for(int i = 0; i < tasks.size(); i++) {
-			if(tasks.get(i).getTaskId() == id) {
-				tasks.remove(i);
+		ArrayList<Task> tasks = getTasks();
+		Task task = tasksById.remove(id);
+		if(task == null) {
+			return;
+		}
+		tasks.remove(indexOf(id));
+		if(taskKeys != null) {
+			taskKeys.remove(task);
+		}
+		if(textIndex != null) {
+			textIndex.remove(task);
+		}
+		task.setTaskListener(null);
+		changed();
+	}
+
+	/**
+	 * Returns the tasks that are in the given state, of the given type and owned by the given owner,
+	 * where a null argument matches every task. The tasks are indexed by state, type and owner the first
+	 * time they are searched, and the index is kept up to date as tasks are added, deleted and changed
+	 * by commands, so a search only visits the tasks of the smallest group it names.
+	 * @param stateName name of the state, or null for any state
+	 * @param type of the tasks, or null for any type
+	 * @param owner of the tasks, or null for any owner
+	 * @return the matching tasks, sorted by id
+	 */
+	public ArrayList<Task> findTasks(String stateName, Type type, String owner) {
+		ArrayList<Task> tasks = getTasks();
+		if(stateName == null && type == null && owner == null) {
+			return new ArrayList<Task>(tasks);
+		}
+		return keys().getIndex().find(stateName, type, owner);
+	}
+
+	/**
+	 * Returns the tasks whose titles or notes match a query, best match first. The query is a list of
+	 * words and phrases in double quotes, matched without regard to case, and a task matches if it holds
+	 * any of them. A task ranks higher the more often its matches appear in it, and the fewer other
+	 * tasks they appear in. The words are indexed the first time the tasks are searched, and new tasks
+	 * and notes are indexed as they are added, so a search does not read the text of every task.
+	 * @param query words and phrases to search for
+	 * @return the matching tasks, best match first, or an empty list if the query is null or has no words
+	 */
+	public ArrayList<Task> searchTasks(String query) {
+		ArrayList<Task> tasks = getTasks();
+		if(query == null) {
+			return new ArrayList<Task>();
+		}
+		if(textIndex == null) {
+			textIndex = new TextIndex(tasks);
+		}
+		return textIndex.search(query);
+	}
+
+	/**
+	 * Returns the number of tasks in the given state. The tasks are counted the first time a count is
+	 * read, and the counts are kept up to date as tasks are added, deleted and changed by commands, so
+	 * reading one after that takes constant time.
+	 * @param stateName name of the state
+	 * @return the number of tasks in the state
+	 */
+	public int getStateCount(String stateName) {
+		return keys().getStatistics().getStateCount(stateName);
+	}
+
+	/**
+	 * Returns the number of tasks of the given type in constant time.
+	 * @param type of the tasks
+	 * @return the number of tasks of the type
+	 */
+	public int getTypeCount(Type type) {
+		return keys().getStatistics().getTypeCount(type);
+	}
+
+	/**
+	 * Returns the number of tasks owned by the given owner in constant time. Tasks without an owner are
+	 * counted under Task.UNOWNED.
+	 * @param owner of the tasks
+	 * @return the number of tasks with the owner
+	 */
+	public int getOwnerCount(String owner) {
+		return keys().getStatistics().getOwnerCount(owner);
+	}
+
+	/**
+	 * Returns the number of verified tasks in constant time.
+	 * @return the number of verified tasks
+	 */
+	public int getVerifiedCount() {
+		return keys().getStatistics().getVerifiedCount();
+	}
+
+	/**
+	 * Returns the keys of the tasks, recording them the first time they are needed.
+	 * @return the keys of the tasks
+	 */
+	private TaskKeys keys() {
+		ArrayList<Task> tasks = getTasks();
+		if(taskKeys == null) {
+			taskKeys = new TaskKeys(tasks);
+		}
+		return taskKeys;
+	}
+
+	/**
+	 * Finds a task id in the tasks list, which is sorted by id, by binary search.
+	 * @param id of the task to find
+	 * @return the index of the task, or -(insertion point) - 1 if no task has the id
+	 */
+	private int indexOf(int id) {
+		int low = 0;
+		int high = tasks.size() - 1;
+		while(low <= high) {
+			int mid = (low + high) >>> 1;
+			int midId = tasks.get(mid).getTaskId();
+			if(midId < id) {
+				low = mid + 1;
+			} else if(midId > id) {
+				high = mid - 1;
+			} else {
+				return mid;
 			}
 		}
+		return -(low + 1);
+	}
+
+	/**
+	 * Returns true if the product or one of its tasks has changed since the product was last marked
+	 * clean. New products are dirty until they are saved.
+	 * @return true if the product has unsaved changes
+	 */
+	public boolean isDirty() {
+		return dirty;
+	}
+
+	/**
+	 * Sets whether the product has unsaved changes. Readers and writers mark a product clean once it
+	 * matches what is stored.
+	 * @param dirty true if the product has unsaved changes
+	 */
+	public void setDirty(boolean dirty) {
+		this.dirty = dirty;
+	}
+
+	/**
+	 * Returns the number of changes made to the product or its tasks since it was created. Unlike the
+	 * dirty flag, the count is never reset, so any number of readers can each tell whether the product
+	 * changed since they last looked at it.
+	 * @return the number of changes made to the product
+	 */
+	public int getChangeCount() {
+		return changeCount;
+	}
+
+	/**
+	 * Moves a task that changed to its new place in the indexes and statistics and counts the change.
+	 * @param task that changed
+	 */
+	private void taskChanged(Task task) {
+		if(taskKeys != null) {
+			taskKeys.update(task);
+		}
+		if(textIndex != null) {
+			textIndex.update(task);
+		}
+		changed();
+	}
+
+	/**
+	 * Marks the product dirty and counts the change.
+	 */
+	private void changed() {
+		dirty = true;
+		changeCount++;
+	}
+
+	/**
+	 * Loader of the tasks of a product that can also copy the lines the tasks are stored as, so a product
+	 * that was never loaded can be saved without parsing its tasks.
+	 */
+	public interface TasksSource extends Supplier<ArrayList<Task>> {
+		/**
+		 * Copies the task and note lines of the product, without its product line, to a stream.
+		 * @param out stream to copy to
+		 * @throws IOException if the lines cannot be read or written
+		 */
+		void copyTo(OutputStream out) throws IOException;
 	}
 	
-	
-}
\ No newline at end of file
+}
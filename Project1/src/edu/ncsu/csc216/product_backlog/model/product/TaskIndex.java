@@ -0,0 +1,167 @@
+package edu.ncsu.csc216.product_backlog.model.product;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.TreeSet;
+
+import edu.ncsu.csc216.product_backlog.model.product.TaskKeys.Keys;
+import edu.ncsu.csc216.product_backlog.model.task.Task;
+import edu.ncsu.csc216.product_backlog.model.task.Task.Type;
+
+/**
+ * The TaskIndex class keeps the tasks of a product grouped by state, by type and by owner, each group
+ * sorted by id. A task is moved between groups when it changes, so a search only visits the tasks of
+ * the smallest group it names instead of every task in the product. The keys each task is grouped under
+ * are the ones TaskKeys remembers, which also tells the index when a task is added, deleted or changed.
+ * @author Riya Gunda
+ */
+class TaskIndex {
+
+	/** Orders the tasks of a group by id */
+	private static final Comparator<Task> BY_ID = Comparator.comparingInt(Task::getTaskId);
+
+	/** Tasks by the name of their state */
+	private final HashMap<String, TreeSet<Task>> byState = new HashMap<String, TreeSet<Task>>();
+	/** Tasks by their type */
+	private final EnumMap<Type, TreeSet<Task>> byType = new EnumMap<Type, TreeSet<Task>>(Type.class);
+	/** Tasks by their owner */
+	private final HashMap<String, TreeSet<Task>> byOwner = new HashMap<String, TreeSet<Task>>();
+	/** Keys the tasks are grouped under */
+	private final TaskKeys keys;
+
+	/**
+	 * Creates an index of the tasks whose keys are remembered.
+	 * @param keys of the tasks to index
+	 */
+	TaskIndex(TaskKeys keys) {
+		this.keys = keys;
+		keys.forEach(this::add);
+	}
+
+	/**
+	 * Adds a task to the index.
+	 * @param task to add
+	 * @param indexed keys of the task
+	 */
+	void add(Task task, Keys indexed) {
+		group(byState, indexed.state).add(task);
+		if(indexed.type != null) {
+			group(byType, indexed.type).add(task);
+		}
+		group(byOwner, indexed.owner).add(task);
+	}
+
+	/**
+	 * Removes a task from the index.
+	 * @param task to remove
+	 * @param indexed keys the task was grouped under
+	 */
+	void remove(Task task, Keys indexed) {
+		ungroup(byState, indexed.state, task);
+		if(indexed.type != null) {
+			ungroup(byType, indexed.type, task);
+		}
+		ungroup(byOwner, indexed.owner, task);
+	}
+
+	/**
+	 * Moves a task that changed to the groups of its current state and owner.
+	 * @param task that changed
+	 * @param indexed keys the task was grouped under before it changed
+	 */
+	void update(Task task, Keys indexed) {
+		String state = task.getStateName();
+		if(!state.equals(indexed.state)) {
+			ungroup(byState, indexed.state, task);
+			group(byState, state).add(task);
+		}
+		String owner = task.getOwner();
+		if(!owner.equals(indexed.owner)) {
+			ungroup(byOwner, indexed.owner, task);
+			group(byOwner, owner).add(task);
+		}
+	}
+
+	/**
+	 * Returns the tasks that are in the given state, of the given type and owned by the given owner.
+	 * At least one of them must be given.
+	 * @param state name of the state, or null for any state
+	 * @param type of the tasks, or null for any type
+	 * @param owner of the tasks, or null for any owner
+	 * @return the matching tasks, sorted by id
+	 */
+	ArrayList<Task> find(String state, Type type, String owner) {
+		TreeSet<Task> smallest = null;
+		if(state != null) {
+			smallest = smaller(smallest, byState.get(state));
+		}
+		if(type != null) {
+			smallest = smaller(smallest, byType.get(type));
+		}
+		if(owner != null) {
+			smallest = smaller(smallest, byOwner.get(owner));
+		}
+		ArrayList<Task> found = new ArrayList<Task>();
+		if(smallest == null) {
+			return found;
+		}
+		for(Task task : smallest) {
+			Keys indexed = keys.get(task);
+			if((state == null || state.equals(indexed.state)) && (type == null || type == indexed.type)
+					&& (owner == null || owner.equals(indexed.owner))) {
+				found.add(task);
+			}
+		}
+		return found;
+	}
+
+	/**
+	 * Returns the smaller of two groups, where a missing group is empty and so always the smallest.
+	 * @param current smallest group so far, or null if there is none
+	 * @param group to compare, or null if it is missing
+	 * @return the smaller group, or an empty group if either is missing
+	 */
+	private static TreeSet<Task> smaller(TreeSet<Task> current, TreeSet<Task> group) {
+		if(group == null) {
+			return new TreeSet<Task>(BY_ID);
+		}
+		return current == null || group.size() < current.size() ? group : current;
+	}
+
+	/**
+	 * Returns the group of a key, creating it if it does not exist yet.
+	 * @param <K> type of the keys
+	 * @param groups by key
+	 * @param key of the group
+	 * @return the group of the key
+	 */
+	private static <K> TreeSet<Task> group(Map<K, TreeSet<Task>> groups, K key) {
+		TreeSet<Task> group = groups.get(key);
+		if(group == null) {
+			group = new TreeSet<Task>(BY_ID);
+			groups.put(key, group);
+		}
+		return group;
+	}
+
+	/**
+	 * Removes a task from the group of a key, dropping the group once it is empty.
+	 * @param <K> type of the keys
+	 * @param groups by key
+	 * @param key of the group
+	 * @param task to remove
+	 */
+	private static <K> void ungroup(Map<K, TreeSet<Task>> groups, K key, Task task) {
+		TreeSet<Task> group = groups.get(key);
+		if(group != null) {
+			group.remove(task);
+			if(group.isEmpty()) {
+				groups.remove(key);
+			}
+		}
+	}
+
+}
@@ -0,0 +1,154 @@
+package edu.ncsu.csc216.product_backlog.model.product;
+
+import java.util.ArrayList;
+import java.util.IdentityHashMap;
+import java.util.function.BiConsumer;
+
+import edu.ncsu.csc216.product_backlog.model.task.Task;
+import edu.ncsu.csc216.product_backlog.model.task.Task.Type;
+
+/**
+ * The TaskKeys class remembers the state, type, owner and verification each task of a product had when
+ * it was last seen. The index and the statistics of the product both work from these keys, so a task is
+ * tracked once however many of them are in use. When a task changes, each of them is moved from the
+ * remembered keys to the current ones before the keys are brought up to date.
+ * @author Riya Gunda
+ */
+class TaskKeys {
+
+	/** Keys each task was last seen with */
+	private final IdentityHashMap<Task, Keys> keys;
+	/** Index of the tasks by their keys, built the first time it is needed, or null */
+	private TaskIndex index;
+	/** Counts of the tasks by their keys, built the first time they are needed, or null */
+	private TaskStatistics statistics;
+
+	/**
+	 * Records the keys of the given tasks.
+	 * @param tasks to record
+	 */
+	TaskKeys(ArrayList<Task> tasks) {
+		keys = new IdentityHashMap<Task, Keys>(tasks.size());
+		for(int i = 0; i < tasks.size(); i++) {
+			keys.put(tasks.get(i), new Keys(tasks.get(i)));
+		}
+	}
+
+	/**
+	 * Records the keys of a task that was added and adds it to the index and statistics.
+	 * @param task that was added
+	 */
+	void add(Task task) {
+		Keys added = new Keys(task);
+		keys.put(task, added);
+		if(index != null) {
+			index.add(task, added);
+		}
+		if(statistics != null) {
+			statistics.add(added);
+		}
+	}
+
+	/**
+	 * Forgets a task that was deleted and removes it from the index and statistics.
+	 * @param task that was deleted
+	 */
+	void remove(Task task) {
+		Keys removed = keys.remove(task);
+		if(removed == null) {
+			return;
+		}
+		if(index != null) {
+			index.remove(task, removed);
+		}
+		if(statistics != null) {
+			statistics.remove(removed);
+		}
+	}
+
+	/**
+	 * Moves a task that changed to its current keys in the index and statistics and then remembers the
+	 * current keys.
+	 * @param task that changed
+	 */
+	void update(Task task) {
+		Keys old = keys.get(task);
+		if(old == null) {
+			return;
+		}
+		if(index != null) {
+			index.update(task, old);
+		}
+		if(statistics != null) {
+			statistics.update(task, old);
+		}
+		old.state = task.getStateName();
+		old.owner = task.getOwner();
+		old.verified = task.isVerified();
+	}
+
+	/**
+	 * Returns the keys a task was last seen with.
+	 * @param task to look up
+	 * @return the keys of the task, or null if the task is not recorded
+	 */
+	Keys get(Task task) {
+		return keys.get(task);
+	}
+
+	/**
+	 * Calls an action with every task and its keys.
+	 * @param action to call
+	 */
+	void forEach(BiConsumer<Task, Keys> action) {
+		keys.forEach(action);
+	}
+
+	/**
+	 * Returns the index of the tasks, building it the first time it is needed.
+	 * @return the index of the tasks
+	 */
+	TaskIndex getIndex() {
+		if(index == null) {
+			index = new TaskIndex(this);
+		}
+		return index;
+	}
+
+	/**
+	 * Returns the counts of the tasks, building them the first time they are needed.
+	 * @return the counts of the tasks
+	 */
+	TaskStatistics getStatistics() {
+		if(statistics == null) {
+			statistics = new TaskStatistics(this);
+		}
+		return statistics;
+	}
+
+	/**
+	 * State, type, owner and verification a task was last seen with.
+	 */
+	static class Keys {
+		/** Name of the state */
+		String state;
+		/** Type of the task */
+		final Type type;
+		/** Owner of the task */
+		String owner;
+		/** True if the task is verified */
+		boolean verified;
+
+		/**
+		 * Records the current keys of a task.
+		 * @param task to record
+		 */
+		Keys(Task task) {
+			this.state = task.getStateName();
+			this.type = task.getType();
+			this.owner = task.getOwner();
+			this.verified = task.isVerified();
+		}
+	}
+
+}
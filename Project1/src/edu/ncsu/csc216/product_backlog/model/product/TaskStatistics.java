@@ -0,0 +1,151 @@
+package edu.ncsu.csc216.product_backlog.model.product;
+
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.Map;
+
+import edu.ncsu.csc216.product_backlog.model.product.TaskKeys.Keys;
+import edu.ncsu.csc216.product_backlog.model.task.Task;
+import edu.ncsu.csc216.product_backlog.model.task.Task.Type;
+
+/**
+ * The TaskStatistics class counts the tasks of a product in each state, of each type and with each
+ * owner, and the tasks that are verified. The counts are moved as tasks are added, deleted and changed,
+ * so reading one takes constant time however many tasks there are. The tasks are counted under the keys
+ * TaskKeys remembers, which also tells the statistics when a task is added, deleted or changed.
+ * @author Riya Gunda
+ */
+class TaskStatistics {
+
+	/** Number of tasks by the name of their state */
+	private final HashMap<String, int[]> byState = new HashMap<String, int[]>();
+	/** Number of tasks by their type */
+	private final EnumMap<Type, int[]> byType = new EnumMap<Type, int[]>(Type.class);
+	/** Number of tasks by their owner */
+	private final HashMap<String, int[]> byOwner = new HashMap<String, int[]>();
+	/** Number of verified tasks */
+	private int verified;
+
+	/**
+	 * Creates statistics of the tasks whose keys are remembered.
+	 * @param keys of the tasks to count
+	 */
+	TaskStatistics(TaskKeys keys) {
+		keys.forEach((task, counted) -> add(counted));
+	}
+
+	/**
+	 * Counts a task that was added.
+	 * @param keys of the task that was added
+	 */
+	void add(Keys keys) {
+		move(byState, keys.state, 1);
+		if(keys.type != null) {
+			move(byType, keys.type, 1);
+		}
+		move(byOwner, keys.owner, 1);
+		if(keys.verified) {
+			verified++;
+		}
+	}
+
+	/**
+	 * Stops counting a task that was deleted.
+	 * @param keys the task that was deleted was counted with
+	 */
+	void remove(Keys keys) {
+		move(byState, keys.state, -1);
+		if(keys.type != null) {
+			move(byType, keys.type, -1);
+		}
+		move(byOwner, keys.owner, -1);
+		if(keys.verified) {
+			verified--;
+		}
+	}
+
+	/**
+	 * Moves the counts of a task that changed to its current state, owner and verification.
+	 * @param task that changed
+	 * @param keys the task was counted with before it changed
+	 */
+	void update(Task task, Keys keys) {
+		String state = task.getStateName();
+		if(!state.equals(keys.state)) {
+			move(byState, keys.state, -1);
+			move(byState, state, 1);
+		}
+		String owner = task.getOwner();
+		if(!owner.equals(keys.owner)) {
+			move(byOwner, keys.owner, -1);
+			move(byOwner, owner, 1);
+		}
+		if(task.isVerified() != keys.verified) {
+			verified += task.isVerified() ? 1 : -1;
+		}
+	}
+
+	/**
+	 * Returns the number of tasks in a state.
+	 * @param state name of the state
+	 * @return the number of tasks in the state
+	 */
+	int getStateCount(String state) {
+		return count(byState.get(state));
+	}
+
+	/**
+	 * Returns the number of tasks of a type.
+	 * @param type of the tasks
+	 * @return the number of tasks of the type
+	 */
+	int getTypeCount(Type type) {
+		return type == null ? 0 : count(byType.get(type));
+	}
+
+	/**
+	 * Returns the number of tasks with an owner.
+	 * @param owner of the tasks
+	 * @return the number of tasks with the owner
+	 */
+	int getOwnerCount(String owner) {
+		return count(byOwner.get(owner));
+	}
+
+	/**
+	 * Returns the number of verified tasks.
+	 * @return the number of verified tasks
+	 */
+	int getVerifiedCount() {
+		return verified;
+	}
+
+	/**
+	 * Returns a count, where a missing count is zero.
+	 * @param count to read, or null
+	 * @return the count
+	 */
+	private static int count(int[] count) {
+		return count == null ? 0 : count[0];
+	}
+
+	/**
+	 * Adds to the count of a key, dropping the count once it is zero.
+	 * @param <K> type of the keys
+	 * @param counts by key
+	 * @param key to count
+	 * @param delta to add to the count
+	 */
+	private static <K> void move(Map<K, int[]> counts, K key, int delta) {
+		int[] count = counts.get(key);
+		if(count == null) {
+			count = new int[1];
+			counts.put(key, count);
+		}
+		count[0] += delta;
+		if(count[0] == 0) {
+			counts.remove(key);
+		}
+	}
+
+}
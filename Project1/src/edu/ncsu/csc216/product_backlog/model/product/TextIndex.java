@@ -0,0 +1,287 @@
+package edu.ncsu.csc216.product_backlog.model.product;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.List;
+
+import edu.ncsu.csc216.product_backlog.model.task.Task;
+
+/**
+ * The TextIndex class is an inverted index of the words in the titles and notes of the tasks of a
+ * product. Every word is kept with the tasks it appears in and its positions in each of them, so a
+ * search only visits the tasks that hold its words, and phrases are matched by comparing positions
+ * instead of scanning the text. Notes are only ever added to a task, so a task that changed only has its
+ * new notes indexed. The state a note was added in, which starts every note, is not indexed.
+ * @author Riya Gunda
+ */
+class TextIndex {
+
+	/** Times a word in the title counts compared to a word in a note */
+	private static final int TITLE_WEIGHT = 2;
+
+	/** Tasks and positions of every word */
+	private final HashMap<String, IdentityHashMap<Task, Posting>> postings =
+			new HashMap<String, IdentityHashMap<Task, Posting>>();
+	/** What has been indexed of each task */
+	private final IdentityHashMap<Task, Indexed> indexed = new IdentityHashMap<Task, Indexed>();
+
+	/**
+	 * Creates an index of the given tasks.
+	 * @param tasks to index
+	 */
+	TextIndex(ArrayList<Task> tasks) {
+		for(int i = 0; i < tasks.size(); i++) {
+			add(tasks.get(i));
+		}
+	}
+
+	/**
+	 * Adds a task to the index.
+	 * @param task to add
+	 */
+	void add(Task task) {
+		Indexed doc = new Indexed();
+		indexed.put(task, doc);
+		indexText(task, doc, task.getTitle(), 0);
+		doc.titleEnd = doc.nextPosition;
+		update(task);
+	}
+
+	/**
+	 * Removes a task from the index.
+	 * @param task to remove
+	 */
+	void remove(Task task) {
+		Indexed doc = indexed.remove(task);
+		if(doc == null) {
+			return;
+		}
+		for(int i = 0; i < doc.words.size(); i++) {
+			IdentityHashMap<Task, Posting> tasks = postings.get(doc.words.get(i));
+			tasks.remove(task);
+			if(tasks.isEmpty()) {
+				postings.remove(doc.words.get(i));
+			}
+		}
+	}
+
+	/**
+	 * Indexes the notes added to a task since it was last indexed.
+	 * @param task that changed
+	 */
+	void update(Task task) {
+		Indexed doc = indexed.get(task);
+		if(doc == null) {
+			return;
+		}
+		ArrayList<String> notes = task.getNotes();
+		for(; doc.notesIndexed < notes.size(); doc.notesIndexed++) {
+			String note = notes.get(doc.notesIndexed);
+			int start = 0;
+			if(note.startsWith("[")) {
+				int close = note.indexOf("] ");
+				start = close < 0 ? 0 : close + 2;
+			}
+			indexText(task, doc, note, start);
+		}
+	}
+
+	/**
+	 * Returns the tasks that match a query, best match first. The query is a list of words and phrases
+	 * in double quotes, and a task matches if it holds any of them. Each match scores the number of
+	 * times it appears in the task, where a title counts twice, weighted by how few tasks it appears in.
+	 * Tasks that score the same are sorted by id.
+	 * @param query to search for
+	 * @return the matching tasks, best match first
+	 */
+	ArrayList<Task> search(String query) {
+		IdentityHashMap<Task, double[]> scores = new IdentityHashMap<Task, double[]>();
+		boolean quoted = false;
+		int start = 0;
+		for(int i = 0; i <= query.length(); i++) {
+			if(i == query.length() || query.charAt(i) == '"') {
+				ArrayList<String> words = tokenize(query, start, i);
+				if(quoted) {
+					score(scores, words);
+				} else {
+					for(int j = 0; j < words.size(); j++) {
+						score(scores, words.subList(j, j + 1));
+					}
+				}
+				quoted = !quoted;
+				start = i + 1;
+			}
+		}
+		ArrayList<Task> found = new ArrayList<Task>(scores.keySet());
+		found.sort((a, b) -> {
+			int byScore = Double.compare(scores.get(b)[0], scores.get(a)[0]);
+			return byScore != 0 ? byScore : Integer.compare(a.getTaskId(), b.getTaskId());
+		});
+		return found;
+	}
+
+	/**
+	 * Adds the score of a word or phrase to every task it appears in.
+	 * @param scores of the tasks found so far
+	 * @param words of the phrase, in order
+	 */
+	private void score(IdentityHashMap<Task, double[]> scores, List<String> words) {
+		if(words.isEmpty()) {
+			return;
+		}
+		IdentityHashMap<Task, Posting> first = postings.get(words.get(0));
+		if(first == null) {
+			return;
+		}
+		ArrayList<Posting> phrase = new ArrayList<Posting>(words.size());
+		IdentityHashMap<Task, Integer> counts = new IdentityHashMap<Task, Integer>();
+		for(Posting posting : first.values()) {
+			phrase.clear();
+			phrase.add(posting);
+			for(int i = 1; i < words.size() && phrase.size() == i; i++) {
+				IdentityHashMap<Task, Posting> tasks = postings.get(words.get(i));
+				Posting next = tasks == null ? null : tasks.get(posting.task);
+				if(next != null) {
+					phrase.add(next);
+				}
+			}
+			if(phrase.size() == words.size()) {
+				int count = count(phrase, indexed.get(posting.task).titleEnd);
+				if(count > 0) {
+					counts.put(posting.task, count);
+				}
+			}
+		}
+		double weight = Math.log(1.0 + (double) indexed.size() / Math.max(1, counts.size()));
+		for(Task task : counts.keySet()) {
+			double[] score = scores.get(task);
+			if(score == null) {
+				score = new double[1];
+				scores.put(task, score);
+			}
+			score[0] += counts.get(task) * weight;
+		}
+	}
+
+	/**
+	 * Counts the times the words of a phrase appear one after another in a task, where each time in the
+	 * title counts TITLE_WEIGHT times.
+	 * @param phrase postings of the words of the phrase in the task, in order
+	 * @param titleEnd first position after the title
+	 * @return the weighted number of times the phrase appears
+	 */
+	private static int count(ArrayList<Posting> phrase, int titleEnd) {
+		Posting first = phrase.get(0);
+		int count = 0;
+		for(int i = 0; i < first.size; i++) {
+			int position = first.positions[i];
+			boolean match = true;
+			for(int j = 1; j < phrase.size() && match; j++) {
+				Posting next = phrase.get(j);
+				match = Arrays.binarySearch(next.positions, 0, next.size, position + j) >= 0;
+			}
+			if(match) {
+				count += position < titleEnd ? TITLE_WEIGHT : 1;
+			}
+		}
+		return count;
+	}
+
+	/**
+	 * Adds the words of a text to the index at the next positions of a task, leaving a gap after them so
+	 * no phrase matches across two texts.
+	 * @param task the text belongs to
+	 * @param doc what has been indexed of the task
+	 * @param text to index
+	 * @param start index of the first character to index
+	 */
+	private void indexText(Task task, Indexed doc, String text, int start) {
+		ArrayList<String> words = tokenize(text, start, text.length());
+		for(int i = 0; i < words.size(); i++) {
+			String word = words.get(i);
+			IdentityHashMap<Task, Posting> tasks = postings.get(word);
+			if(tasks == null) {
+				tasks = new IdentityHashMap<Task, Posting>();
+				postings.put(word, tasks);
+			}
+			Posting posting = tasks.get(task);
+			if(posting == null) {
+				posting = new Posting(task);
+				tasks.put(task, posting);
+				doc.words.add(word);
+			}
+			posting.add(doc.nextPosition++);
+		}
+		doc.nextPosition++;
+	}
+
+	/**
+	 * Splits text into lower case words, where a word is a run of letters and digits.
+	 * @param text to split
+	 * @param start index of the first character to split
+	 * @param end index after the last character to split
+	 * @return the words in order
+	 */
+	static ArrayList<String> tokenize(String text, int start, int end) {
+		ArrayList<String> words = new ArrayList<String>();
+		StringBuilder word = new StringBuilder();
+		for(int i = start; i <= end; i++) {
+			char c = i < end ? text.charAt(i) : ' ';
+			if(Character.isLetterOrDigit(c)) {
+				word.append(Character.toLowerCase(c));
+			} else if(word.length() > 0) {
+				words.add(word.toString());
+				word.setLength(0);
+			}
+		}
+		return words;
+	}
+
+	/**
+	 * Positions of one word in one task, in increasing order.
+	 */
+	private static class Posting {
+		/** Task the word appears in */
+		private final Task task;
+		/** Positions of the word, of which only the first size are used */
+		private int[] positions = new int[2];
+		/** Number of positions */
+		private int size;
+
+		/**
+		 * Creates an empty posting for a task.
+		 * @param task the word appears in
+		 */
+		Posting(Task task) {
+			this.task = task;
+		}
+
+		/**
+		 * Adds a position after every earlier one.
+		 * @param position to add
+		 */
+		void add(int position) {
+			if(size == positions.length) {
+				positions = Arrays.copyOf(positions, size * 2);
+			}
+			positions[size++] = position;
+		}
+	}
+
+	/**
+	 * What has been indexed of a task.
+	 */
+	private static class Indexed {
+		/** Words that appear in the task */
+		private final ArrayList<String> words = new ArrayList<String>();
+		/** Position of the next word */
+		private int nextPosition;
+		/** First position after the title */
+		private int titleEnd;
+		/** Number of notes indexed */
+		private int notesIndexed;
+	}
+
+}
@@ -4,6 +4,8 @@
 package edu.ncsu.csc216.product_backlog.model.task;
 
 import java.util.ArrayList;
+import java.util.Objects;
+import java.util.function.Supplier;
 
 import edu.ncsu.csc216.product_backlog.model.command.Command;
 import edu.ncsu.csc216.product_backlog.model.command.Command.CommandValue;
@@ -73,11 +75,11 @@ public class Task {
 				if(CommandValue.CLAIM == c.getCommand()) {
 					owner = c.getOwner();
 					setState(OWNED_NAME); 
-					notes.add("[Owned] " + c.getNoteText());
+					getNotes().add("[Owned] " + c.getNoteText());
 				} else if(CommandValue.REJECT == c.getCommand()) {
 					owner = UNOWNED;
 					setState(REJECTED_NAME);
-					notes.add("[Rejected] " + c.getNoteText());
+					getNotes().add("[Rejected] " + c.getNoteText());
 				} else {
 					throw new UnsupportedOperationException("Invalid transition.");				
 				}
@@ -120,12 +122,12 @@ public class Task {
 			public void updateState(Command c) {
 				if(CommandValue.BACKLOG == c.getCommand()) {
 					setState(BACKLOG_NAME); 
-					notes.add("[Backlog] " + c.getNoteText());
+					getNotes().add("[Backlog] " + c.getNoteText());
 					isVerified = false;
 				} else if(CommandValue.PROCESS == c.getCommand()) {
 					
 					setState(PROCESSING_NAME);
-					notes.add("[Processing] " + c.getNoteText());
+					getNotes().add("[Processing] " + c.getNoteText());
 					isVerified = false;
 				} else {
 					throw new UnsupportedOperationException("Invalid transition.");				
@@ -168,15 +170,15 @@ public class Task {
 			@Override
 			public void updateState(Command c) {
 				if(CommandValue.PROCESS == c.getCommand()) {
-					notes.add("[Processing] " + c.getNoteText());
+					getNotes().add("[Processing] " + c.getNoteText());
 					setState(PROCESSING_NAME); 
 				} else if(CommandValue.BACKLOG == c.getCommand()) {
-					notes.add("[Backlog] " + c.getNoteText());
+					getNotes().add("[Backlog] " + c.getNoteText());
 					owner = UNOWNED;
 					setState(BACKLOG_NAME);
 					isVerified = false;
 				} else if(CommandValue.REJECT == c.getCommand()) {
-					notes.add("[Rejected] " + c.getNoteText());
+					getNotes().add("[Rejected] " + c.getNoteText());
 					owner = UNOWNED;
 					setState(REJECTED_NAME);
 				} else {
@@ -221,17 +223,17 @@ public class Task {
 			@Override
 			public void updateState(Command c) {
 				if(CommandValue.VERIFY == c.getCommand() && !(getType() == Type.KNOWLEDGE_ACQUISITION)) {
-					notes.add("[Verifying] " + c.getNoteText());
+					getNotes().add("[Verifying] " + c.getNoteText());
 					setState(VERIFYING_NAME); 
 				} else if(CommandValue.PROCESS == c.getCommand()) {
-					notes.add("[Processing] " + c.getNoteText());
+					getNotes().add("[Processing] " + c.getNoteText());
 				} else if(CommandValue.BACKLOG == c.getCommand()) {
-					notes.add("[Backlog] " + c.getNoteText());
+					getNotes().add("[Backlog] " + c.getNoteText());
 					owner = UNOWNED;
 					setState(BACKLOG_NAME);
 					isVerified = false;
 				} else if (CommandValue.COMPLETE == c.getCommand() && getType() == Type.KNOWLEDGE_ACQUISITION) {
-					notes.add("[Done] " + c.getNoteText());
+					getNotes().add("[Done] " + c.getNoteText());
 					setState(DONE_NAME); 
 				} else {
 					throw new UnsupportedOperationException("Invalid transition.");
@@ -274,7 +276,7 @@ public class Task {
 			@Override
 			public void updateState(Command c) {
 				if(CommandValue.BACKLOG == c.getCommand()) {
-					notes.add("[Backlog] " + c.getNoteText());
+					getNotes().add("[Backlog] " + c.getNoteText());
 					setState(BACKLOG_NAME); 
 					isVerified = false;
 				} else {
@@ -317,11 +319,11 @@ public class Task {
 			@Override
 			public void updateState(Command c) {
 				if(CommandValue.COMPLETE == c.getCommand()) {
-					notes.add("[Done] " + c.getNoteText());
+					getNotes().add("[Done] " + c.getNoteText());
 					isVerified = true;
 					setState(DONE_NAME); 
 				} else if(CommandValue.PROCESS == c.getCommand()) {
-					notes.add("[Processing] " + c.getNoteText());
+					getNotes().add("[Processing] " + c.getNoteText());
 					setState(PROCESSING_NAME);
 				}
 				else throw new UnsupportedOperationException("Invalid transition.");
@@ -343,6 +345,18 @@ public class Task {
 		public enum Type { /** Feature type */ FEATURE, /** Bug type */BUG, 
 			/** Technical work type */TECHNICAL_WORK, /** Knowledge acquisition type */KNOWLEDGE_ACQUISITION };
 
+		/**
+		 * Listener that is told every time a task changes, so the product that owns the task can keep
+		 * track of its changes.
+		 */
+		public interface TaskListener {
+			/**
+			 * Called after the given task has changed.
+			 * @param task that changed
+			 */
+			void taskChanged(Task task);
+		}
+
 		/**
 		 * Integer representing the unique identifier for a task.
 		 */
@@ -374,10 +388,21 @@ public class Task {
 		private boolean isVerified;
 
 		/**
-		 * List of strings containing additional notes or details about the task.
+		 * List of strings containing additional notes or details about the task. Null until the notes
+		 * are first needed if they are loaded lazily.
 		 */
 		private ArrayList<String> notes;
 
+		/**
+		 * Loads the notes the first time they are needed, or null if the notes are already loaded.
+		 */
+		private Supplier<ArrayList<String>> notesLoader;
+
+		/**
+		 * Listener told about every change to the task, or null if there is none.
+		 */
+		private TaskListener listener;
+
 		/**
 		 * The current state of the task, determined by the TaskState interface implementation.
 		 */
@@ -520,6 +545,36 @@ public class Task {
 		setNotes(notes);
 	}
 	
+	/**
+	 * The constructor sets the values for the task's id, state, title, type, creator, owner and verified
+	 * and the loader that reads the task's notes the first time they are needed. The loader must return
+	 * at least one note.
+	 * @param id of the task
+	 * @param state of the task
+	 * @param title of the task
+	 * @param type of the task
+	 * @param creator of the task
+	 * @param owner of the task
+	 * @param verified of the task
+	 * @param notesLoader that loads the notes of the task
+	 * @throws IllegalArgumentException with the message "Invalid task information" if any of the 
+	 * parameters are null or empty or 0 if an int
+	 */
+	public Task(int id, String state, String title, String type, String creator, String owner, String verified,
+			Supplier<ArrayList<String>> notesLoader) {
+		setTaskId(id);
+		setState(state);
+		setTitle(title);
+		setTypeFromString(type);
+		setCreator(creator);
+		setOwner(owner);
+		setVerified(verified);
+		if(notesLoader == null) {
+			throw new IllegalArgumentException("Invalid task information.");
+		}
+		this.notesLoader = notesLoader;
+	}
+	
 	/**
 	 * Sets the id value for the task
 	 * @param taskId of the task
@@ -635,8 +690,9 @@ public class Task {
 	    } 
 		String concat = "[" + currentState.getStateName() + "] " + note;
 		
-	    this.notes.add(concat);
-	    return this.notes.size() - 1;
+	    getNotes().add(concat);
+	    taskChanged();
+	    return notes.size() - 1;
 	}
 	
 	/**
@@ -781,10 +837,14 @@ public class Task {
 	}
 	
 	/**
-	 * Returns a list of all the notes for a task
+	 * Returns a list of all the notes for a task, loading them first if they are loaded lazily
 	 * @return array list of notes for a task
 	 */
 	public ArrayList<String> getNotes() {
+		if(notesLoader != null) {
+			notes = notesLoader.get();
+			notesLoader = null;
+		}
 		return notes;
 	}
 	
@@ -794,7 +854,7 @@ public class Task {
 	 */
 	public String getNotesList() {
 		String list = "";
-		for(String note : notes) {
+		for(String note : getNotes()) {
 			list += "- " + note + "\n";
 		}
 		return list;
@@ -810,11 +870,42 @@ public class Task {
 	}
 	
 	/**
-	 * This method updates any task based on the command given
+	 * This method updates any task based on the command given. The fields of the task are only set
+	 * through private setters, from the constructors before a listener can be attached and from here,
+	 * so the listener is told about every change here, also when the command fails partway.
 	 * @param command to execute
 	 */
 	public void update(Command command) {
-		currentState.updateState(command);
+		TaskState state = currentState;
+		String oldOwner = owner;
+		boolean verified = isVerified;
+		boolean updated = false;
+		try {
+			currentState.updateState(command);
+			updated = true;
+		} finally {
+			// A transition whose note cannot be loaded has still moved the task
+			if(updated || currentState != state || !Objects.equals(owner, oldOwner) || isVerified != verified) {
+				taskChanged();
+			}
+		}
+	}
+
+	/**
+	 * Sets the listener that is told about every change to the task, replacing any earlier listener.
+	 * @param listener to tell about changes, or null to stop telling anyone
+	 */
+	public void setTaskListener(TaskListener listener) {
+		this.listener = listener;
+	}
+
+	/**
+	 * Tells the listener, if there is one, that the task has changed.
+	 */
+	private void taskChanged() {
+		if(listener != null) {
+			listener.taskChanged(this);
+		}
 	}
 	
 	/**
@@ -822,9 +913,10 @@ public class Task {
 	 * @return String array of notes
 	 */
 	public String[] getNotesArray() {
-		String[] noteArray = new String[notes.size()];
-		for(int i = 0; i < notes.size(); i++) {
-			noteArray[i] = notes.get(i);
+		ArrayList<String> noteList = getNotes();
+		String[] noteArray = new String[noteList.size()];
+		for(int i = 0; i < noteList.size(); i++) {
+			noteArray[i] = noteList.get(i);
 		}
 		return noteArray;
 	}
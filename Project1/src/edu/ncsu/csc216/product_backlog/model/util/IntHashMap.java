@@ -0,0 +1,223 @@
+package edu.ncsu.csc216.product_backlog.model.util;
+
+import java.util.Arrays;
+
+/**
+ * The IntHashMap class maps ints to values using open addressing over a pair of arrays, so looking up,
+ * adding or removing a key takes constant time without boxing the key into an Integer or allocating an
+ * entry for it. Null values cannot be stored, since get returns null for a missing key. The map is not
+ * safe to use from more than one thread at a time.
+ * @author Riya Gunda
+ * @param <V> type of the values
+ */
+public class IntHashMap<V> {
+
+	/** Marks a free slot, chosen so that it can never be a valid id */
+	private static final int FREE = Integer.MIN_VALUE;
+
+	/** Keys of the slots, or FREE */
+	private int[] keys;
+	/** Values of the slots */
+	private Object[] values;
+	/** Value of the key FREE, which cannot be kept in a slot, or null if it is not in the map */
+	private Object freeValue;
+	/** Number of keys in the map */
+	private int size;
+
+	/**
+	 * Creates an empty map.
+	 */
+	public IntHashMap() {
+		this(8);
+	}
+
+	/**
+	 * Creates an empty map that can hold the given number of keys before it grows.
+	 * @param expected number of keys the map will hold
+	 */
+	public IntHashMap(int expected) {
+		allocate(capacityFor(expected));
+	}
+
+	/**
+	 * Returns the value of a key.
+	 * @param key to look up
+	 * @return the value of the key, or null if the key is not in the map
+	 */
+	@SuppressWarnings("unchecked")
+	public V get(int key) {
+		if(key == FREE) {
+			return (V) freeValue;
+		}
+		int i = find(key);
+		return i < 0 ? null : (V) values[i];
+	}
+
+	/**
+	 * Sets the value of a key.
+	 * @param key to set
+	 * @param value of the key, not null
+	 * @return the previous value of the key, or null if the key was not in the map
+	 * @throws NullPointerException if the value is null
+	 */
+	@SuppressWarnings("unchecked")
+	public V put(int key, V value) {
+		if(value == null) {
+			throw new NullPointerException();
+		}
+		if(key == FREE) {
+			Object previous = freeValue;
+			freeValue = value;
+			if(previous == null) {
+				size++;
+			}
+			return (V) previous;
+		}
+		int mask = keys.length - 1;
+		int i = mix(key) & mask;
+		while(keys[i] != FREE) {
+			if(keys[i] == key) {
+				Object previous = values[i];
+				values[i] = value;
+				return (V) previous;
+			}
+			i = (i + 1) & mask;
+		}
+		keys[i] = key;
+		values[i] = value;
+		size++;
+		if(size * 2 > keys.length) {
+			rehash(keys.length * 2);
+		}
+		return null;
+	}
+
+	/**
+	 * Removes a key from the map.
+	 * @param key to remove
+	 * @return the value the key had, or null if the key was not in the map
+	 */
+	@SuppressWarnings("unchecked")
+	public V remove(int key) {
+		if(key == FREE) {
+			Object previous = freeValue;
+			freeValue = null;
+			if(previous != null) {
+				size--;
+			}
+			return (V) previous;
+		}
+		int i = find(key);
+		if(i < 0) {
+			return null;
+		}
+		Object previous = values[i];
+		size--;
+		// Shift later keys of the same run back, so every key stays reachable from its home slot
+		int mask = keys.length - 1;
+		int gap = i;
+		int j = (i + 1) & mask;
+		while(keys[j] != FREE) {
+			int home = mix(keys[j]) & mask;
+			if(((j - home) & mask) >= ((j - gap) & mask)) {
+				keys[gap] = keys[j];
+				values[gap] = values[j];
+				gap = j;
+			}
+			j = (j + 1) & mask;
+		}
+		keys[gap] = FREE;
+		values[gap] = null;
+		return (V) previous;
+	}
+
+	/**
+	 * Returns the number of keys in the map.
+	 * @return the number of keys
+	 */
+	public int size() {
+		return size;
+	}
+
+	/**
+	 * Removes every key from the map.
+	 */
+	public void clear() {
+		Arrays.fill(keys, FREE);
+		Arrays.fill(values, null);
+		freeValue = null;
+		size = 0;
+	}
+
+	/**
+	 * Returns the slot of a key.
+	 * @param key to look for, not FREE
+	 * @return the slot holding the key, or -1 if the key is not in the map
+	 */
+	private int find(int key) {
+		int mask = keys.length - 1;
+		int i = mix(key) & mask;
+		while(keys[i] != FREE) {
+			if(keys[i] == key) {
+				return i;
+			}
+			i = (i + 1) & mask;
+		}
+		return -1;
+	}
+
+	/**
+	 * Moves every key into new arrays with the given number of slots.
+	 * @param capacity number of slots, a power of two
+	 */
+	private void rehash(int capacity) {
+		int[] oldKeys = keys;
+		Object[] oldValues = values;
+		allocate(capacity);
+		int mask = capacity - 1;
+		for(int j = 0; j < oldKeys.length; j++) {
+			if(oldKeys[j] != FREE) {
+				int i = mix(oldKeys[j]) & mask;
+				while(keys[i] != FREE) {
+					i = (i + 1) & mask;
+				}
+				keys[i] = oldKeys[j];
+				values[i] = oldValues[j];
+			}
+		}
+	}
+
+	/**
+	 * Creates empty arrays with the given number of slots.
+	 * @param capacity number of slots, a power of two
+	 */
+	private void allocate(int capacity) {
+		keys = new int[capacity];
+		Arrays.fill(keys, FREE);
+		values = new Object[capacity];
+	}
+
+	/**
+	 * Returns the number of slots needed to hold the given number of keys at most half full.
+	 * @param expected number of keys
+	 * @return a power of two number of slots
+	 */
+	private static int capacityFor(int expected) {
+		int capacity = 16;
+		while(capacity < expected * 2 && capacity < 1 << 30) {
+			capacity <<= 1;
+		}
+		return capacity;
+	}
+
+	/**
+	 * Spreads the bits of a key, so ids that follow each other do not fill neighboring slots.
+	 * @param key to spread
+	 * @return the hash of the key
+	 */
+	private static int mix(int key) {
+		int h = key * 0x9E3779B9;
+		return h ^ (h >>> 16);
+	}
+
+}
@@ -0,0 +1,47 @@
+package edu.ncsu.csc216.product_backlog.model.util;
+
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * The StringPool class keeps one canonical instance of every String it is given, so values that repeat
+ * across many tasks, like the names of creators and owners, are held in memory once no matter how many
+ * tasks refer to them. The pool can be used from any thread. It never forgets a value, so it is only
+ * meant for values drawn from a small set, not for free text like titles and notes. Only the readers
+ * and the importer pool values, where many tasks arrive at once; tasks and commands created by hand
+ * keep the text they were given, so text typed into a long running session never fills the pool.
+ * @author Riya Gunda
+ */
+public class StringPool {
+
+	/** Canonical instance of every value pooled so far */
+	private static final ConcurrentHashMap<String, String> POOL = new ConcurrentHashMap<String, String>();
+
+	/**
+	 * Returns the canonical instance of the given value, making the value itself canonical if it was
+	 * not pooled before.
+	 * @param value to pool
+	 * @return the canonical instance equal to value, or null if value is null
+	 */
+	public static String intern(String value) {
+		if(value == null) {
+			return null;
+		}
+		String pooled = POOL.get(value);
+		if(pooled == null) {
+			pooled = POOL.putIfAbsent(value, value);
+			if(pooled == null) {
+				pooled = value;
+			}
+		}
+		return pooled;
+	}
+
+	/**
+	 * Returns the number of values in the pool.
+	 * @return the number of pooled values
+	 */
+	public static int size() {
+		return POOL.size();
+	}
+
+}
@@ -10,9 +10,11 @@ import java.awt.GridLayout;
 import java.awt.event.ActionEvent;
 import java.awt.event.ActionListener;
 import java.io.File;
+import java.util.concurrent.ForkJoinPool;
 
 import javax.swing.BorderFactory;
 import javax.swing.JButton;
+import javax.swing.JCheckBoxMenuItem;
 import javax.swing.JComboBox;
 import javax.swing.JFileChooser;
 import javax.swing.JFrame;
@@ -27,6 +29,7 @@ import javax.swing.JTable;
 import javax.swing.JTextArea;
 import javax.swing.JTextField;
 import javax.swing.ListSelectionModel;
+import javax.swing.SwingUtilities;
 import javax.swing.border.Border;
 import javax.swing.border.EtchedBorder;
 import javax.swing.border.TitledBorder;
@@ -57,10 +60,14 @@ public class ProductBacklogGUI extends JFrame implements ActionListener {
 	private static final String LOAD_TITLE = "Load";
 	/** Text for the Load Task XML menu item. */
 	private static final String SAVE_TITLE = "Save";
+	/** Text for the Autosave menu item. */
+	private static final String AUTOSAVE_TITLE = "Autosave";
 	/** Text for the Clear menu item. */
 	private static final String CLEAR_TITLE = "Clear";
 	/** Text for the Quit menu item. */
 	private static final String QUIT_TITLE = "Quit";
+	/** Time in milliseconds from a change to the autosave that writes it. */
+	private static final long AUTOSAVE_INTERVAL = 2000;
 	/** Menu bar for the GUI that contains Menus. */
 	private JMenuBar menuBar;
 	/** Menu for the GUI. */
@@ -69,6 +76,8 @@ public class ProductBacklogGUI extends JFrame implements ActionListener {
 	private JMenuItem itemLoad;
 	/** Menu item for saving a products and tasks. */
 	private JMenuItem itemSave;
+	/** Menu item for turning saving every change to a file on and off. */
+	private JCheckBoxMenuItem itemAutosave;
 	/** Menu item for clearing products and tasks. */
 	private JMenuItem itemClear;
 	/** Menu item for quitting the program. */
@@ -159,10 +168,12 @@ public class ProductBacklogGUI extends JFrame implements ActionListener {
 		menu = new JMenu(FILE_MENU_TITLE);
 		itemLoad = new JMenuItem(LOAD_TITLE);
 		itemSave = new JMenuItem(SAVE_TITLE);
+		itemAutosave = new JCheckBoxMenuItem(AUTOSAVE_TITLE);
 		itemClear = new JMenuItem(CLEAR_TITLE);
 		itemQuit = new JMenuItem(QUIT_TITLE);
 		itemLoad.addActionListener(this);
 		itemSave.addActionListener(this);
+		itemAutosave.addActionListener(this);
 		itemClear.addActionListener(this);
 		itemQuit.addActionListener(this);
 		
@@ -172,6 +183,7 @@ public class ProductBacklogGUI extends JFrame implements ActionListener {
 		//Build Menu and add to GUI
 		menu.add(itemLoad);
 		menu.add(itemSave);
+		menu.add(itemAutosave);
 		menu.add(itemClear);
 		menu.add(itemQuit);
 		menuBar.add(menu);
@@ -198,40 +210,109 @@ public class ProductBacklogGUI extends JFrame implements ActionListener {
 				JOptionPane.showMessageDialog(this, exp.getMessage());
 			}	
 		} else if (e.getSource() == itemLoad) {
-			//Load an existing file
+			//Load an existing file in the background, showing the progress in the title
 			try {
-				model.loadFromFile(getFileName(true));
-				itemClear.setEnabled(true);
-				pnlProduct.updateProducts();
-				cardLayout.show(panel, PRODUCT_PANEL);
-				validate();
-				repaint();
-			} catch (IllegalArgumentException exp) {
-				JOptionPane.showMessageDialog(this, "Unable to load file.");
+				model.loadFromFileAsync(getFileName(true), ForkJoinPool.commonPool(),
+						progress -> showProgress("Loading", progress))
+						.whenComplete((result, error) -> SwingUtilities.invokeLater(() -> loaded(error)));
 			} catch (IllegalStateException exp) {
 				//Don't do anything - user canceled (or error)
 			}
 		} else if (e.getSource() == itemSave) {
-			//Save products and tasks lists to file
+			//Save products and tasks lists to file in the background, showing the progress in the title
 			try {
-				model.saveToFile(getFileName(false));
-			} catch (IllegalArgumentException exp) {
-				JOptionPane.showMessageDialog(this, "Unable to save file.");
+				model.saveToFileAsync(getFileName(false), false, ForkJoinPool.commonPool(),
+						progress -> showProgress("Saving", progress))
+						.whenComplete((result, error) -> SwingUtilities.invokeLater(() -> savedFile(error)));
 			} catch (IllegalStateException exp) {
 				//Don't do anything - user canceled (or error)
 			}
+		} else if (e.getSource() == itemAutosave) {
+			//Start saving every change to a file in the background, or stop once the last change is saved
+			if (itemAutosave.isSelected()) {
+				try {
+					model.startAutosave(getFileName(false), AUTOSAVE_INTERVAL, message ->
+							SwingUtilities.invokeLater(() -> JOptionPane.showMessageDialog(this, message)));
+				} catch (IllegalArgumentException exp) {
+					itemAutosave.setSelected(false);
+					JOptionPane.showMessageDialog(this, "Unable to save file.");
+				} catch (IllegalStateException exp) {
+					//User canceled (or error), so nothing is saved automatically
+					itemAutosave.setSelected(false);
+				}
+			} else {
+				try {
+					model.stopAutosave();
+				} catch (IllegalArgumentException exp) {
+					JOptionPane.showMessageDialog(this, "Unable to save file.");
+				}
+			}
 		} else if (e.getSource() == itemQuit) {
-			//Quit the program
+			//Save in the background, then quit the program
 			try {
-				model.saveToFile(getFileName(false));
-				System.exit(0);  //Ignore FindBugs warning here - this is the only place to quit the program!
-			} catch (IllegalArgumentException exp) {
-				JOptionPane.showMessageDialog(this, "Unable to save file.");
+				model.saveToFileAsync(getFileName(false), false, ForkJoinPool.commonPool(),
+						progress -> showProgress("Saving", progress))
+						.whenComplete((result, error) -> SwingUtilities.invokeLater(() -> saved(error)));
 			} catch (IllegalStateException exp) {
 				//Don't do anything - user canceled (or error)
 			}
 		}
 	}
+
+	/**
+	 * Shows the progress of a load or save in the title of the window. May be called from any thread.
+	 * @param action being done
+	 * @param progress part of the action done so far, from 0 to 1
+	 */
+	private void showProgress(String action, double progress) {
+		int percent = (int) (progress * 100);
+		SwingUtilities.invokeLater(() -> setTitle(APP_TITLE + " - " + action + " " + percent + "%"));
+	}
+
+	/**
+	 * Shows the loaded products once a load finished, or tells the user it failed.
+	 * @param error that made the load fail, or null if it succeeded
+	 */
+	private void loaded(Throwable error) {
+		setTitle(APP_TITLE);
+		if (error != null) {
+			JOptionPane.showMessageDialog(this, "Unable to load file.");
+			return;
+		}
+		itemClear.setEnabled(true);
+		pnlProduct.updateProducts();
+		cardLayout.show(panel, PRODUCT_PANEL);
+		validate();
+		repaint();
+	}
+
+	/**
+	 * Clears the progress from the title once a save finished, and tells the user if it failed.
+	 * @param error that made the save fail, or null if it succeeded
+	 */
+	private void savedFile(Throwable error) {
+		setTitle(APP_TITLE);
+		if (error != null) {
+			JOptionPane.showMessageDialog(this, "Unable to save file.");
+		}
+	}
+
+	/**
+	 * Quits the program once the save made when quitting finished, or tells the user it failed.
+	 * @param error that made the save fail, or null if it succeeded
+	 */
+	private void saved(Throwable error) {
+		setTitle(APP_TITLE);
+		try {
+			if (error != null) {
+				throw new IllegalArgumentException("Unable to save file.");
+			}
+			BacklogManager.getInstance().stopAutosave();
+			System.exit(0);  //Ignore FindBugs warning here - this is the only place to quit the program!
+		} catch (IllegalArgumentException exp) {
+			JOptionPane.showMessageDialog(this, "Unable to save file.");
+		}
+	}
 	
 	/**
 	 * Returns a file name generated through interactions with a JFileChooser
@@ -399,7 +480,11 @@ public class ProductBacklogGUI extends JFrame implements ActionListener {
 					updateProducts();
 				} else {				
 					String productName = comboProductList.getItemAt(idx);
-					BacklogManager.getInstance().loadProduct(productName);
+					try {
+						BacklogManager.getInstance().loadProduct(productName);
+					} catch (IllegalArgumentException iae) {
+						JOptionPane.showMessageDialog(ProductBacklogGUI.this, iae.getMessage());
+					}
 				}
 				updateProducts();
 			} else if (e.getSource() == btnAdd) {
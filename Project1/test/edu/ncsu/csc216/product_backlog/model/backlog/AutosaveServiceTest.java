@@ -0,0 +1,147 @@
+/**
+ *
+ */
+package edu.ncsu.csc216.product_backlog.model.backlog;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.io.File;
+import java.util.ArrayList;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import edu.ncsu.csc216.product_backlog.model.io.ProductsReader;
+import edu.ncsu.csc216.product_backlog.model.io.ProductsWriter;
+import edu.ncsu.csc216.product_backlog.model.product.Product;
+import edu.ncsu.csc216.product_backlog.model.task.Task.Type;
+
+/**
+ * This JUnit test class tests the methods of the AutosaveService class and makes sure bursts of changes
+ * are saved once
+ * @author Riya Gunda
+ *
+ */
+class AutosaveServiceTest {
+
+	/** File the products are saved to */
+	private static final String FILE = "test-files/autosave_tester.txt";
+
+	/**
+	 * Deletes the files written by a test
+	 */
+	@AfterEach
+	void tearDown() {
+		new File(FILE).delete();
+		new File(FILE + ".idx").delete();
+	}
+
+	/**
+	 * Test method for {@link edu.ncsu.csc216.product_backlog.model.backlog.AutosaveService#changed()}.
+	 */
+	@Test
+	void testChanged() {
+		ArrayList<Product> products = ProductsReader.readProductsFile("test-files/tasks1.txt");
+		products.add(new Product("Autosave"));
+		Object lock = new Object();
+		AutosaveService autosave = new AutosaveService(FILE, 60000, lock, () -> products, null);
+		autosave.flush(false);
+		assertFalse(products.get(2).isDirty());
+		int saves = autosave.getSaveCount();
+		for(int i = 0; i < 100; i++) {
+			synchronized(lock) {
+				products.get(2).addTask("Task " + i, Type.FEATURE, "rgunda", "Note " + i);
+			}
+			autosave.changed();
+		}
+		assertEquals(saves, autosave.getSaveCount());
+		assertTrue(products.get(2).isDirty());
+		autosave.close();
+		assertFalse(products.get(2).isDirty());
+		assertEquals(saves + 1, autosave.getSaveCount());
+		assertEquals(100, ProductsReader.readProductsFile(FILE).get(2).getTasks().size());
+	}
+
+	/**
+	 * Tests that products whose tasks are not loaded are saved without loading them, and load their tasks
+	 * from the saved file afterwards
+	 */
+	@Test
+	void testUnloadedProducts() {
+		ArrayList<Product> original = ProductsReader.readProductsFile("test-files/tasks1.txt");
+		ProductsWriter.writeProductsToFile(FILE, original);
+		ArrayList<Product> products = ProductsReader.readProductsFileIndexed(FILE);
+		Object lock = new Object();
+		AutosaveService autosave = new AutosaveService(FILE, 60000, lock, () -> products, null);
+		autosave.flush(false);
+		synchronized(lock) {
+			products.get(1).setProductName("Renamed");
+			products.get(0).addTask("Autosaved", Type.BUG, "rgunda", "Saved with the rest");
+		}
+		autosave.changed();
+		autosave.close();
+		assertNotNull(products.get(1).getTasksSource());
+		assertFalse(products.get(1).isDirty());
+		assertFalse(products.get(0).isDirty());
+
+		assertEquals(original.get(1).getTasks().size(), products.get(1).getTasks().size());
+		ArrayList<Product> saved = ProductsReader.readProductsFile(FILE);
+		assertEquals("Renamed", saved.get(1).getProductName());
+		assertEquals(original.get(1).getTasks().size(), saved.get(1).getTasks().size());
+		assertEquals(original.get(0).getTasks().size() + 1, saved.get(0).getTasks().size());
+	}
+
+	/**
+	 * Tests that a save that fails is reported and tried again
+	 */
+	@Test
+	void testFailedSave() {
+		ArrayList<Product> products = ProductsReader.readProductsFile("test-files/tasks1.txt");
+		ArrayList<String> errors = new ArrayList<String>();
+		AutosaveService autosave = new AutosaveService("test-files/no_directory/autosave.txt", 60000,
+				new Object(), () -> products, message -> {
+					synchronized(errors) {
+						errors.add(message);
+					}
+				});
+		Exception e = assertThrows(IllegalArgumentException.class, () -> autosave.flush(false));
+		assertEquals("Unable to save file.", e.getMessage());
+		e = assertThrows(IllegalArgumentException.class, autosave::close);
+		assertEquals("Unable to save file.", e.getMessage());
+		synchronized(errors) {
+			assertTrue(errors.size() >= 2);
+			assertEquals("Unable to save file.", errors.get(0));
+		}
+	}
+
+	/**
+	 * Tests that a save failing with any runtime exception is reported and tried again, and that the
+	 * changes are saved once the failure goes away
+	 */
+	@Test
+	void testFailedSaveRuntimeException() {
+		ArrayList<Product> products = ProductsReader.readProductsFile("test-files/tasks1.txt");
+		AtomicBoolean broken = new AtomicBoolean(true);
+		ArrayList<String> errors = new ArrayList<String>();
+		AutosaveService autosave = new AutosaveService(FILE, 60000, new Object(), () -> {
+			if(broken.get()) {
+				throw new IllegalStateException("Broken source");
+			}
+			return products;
+		}, message -> {
+			synchronized(errors) {
+				errors.add(message);
+			}
+		});
+		Exception e = assertThrows(IllegalArgumentException.class, () -> autosave.flush(false));
+		assertEquals("Unable to save file.", e.getMessage());
+		synchronized(errors) {
+			assertEquals("Unable to save file.", errors.get(0));
+		}
+		broken.set(false);
+		autosave.close();
+		assertEquals(products.size(), ProductsReader.readProductsFile(FILE).size());
+	}
+
+}
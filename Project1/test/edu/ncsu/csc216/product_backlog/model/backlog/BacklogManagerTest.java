@@ -8,6 +8,7 @@ import static org.junit.jupiter.api.Assertions.*;
 import org.junit.jupiter.api.Test;
 
 import edu.ncsu.csc216.product_backlog.model.command.Command.CommandValue;
+import edu.ncsu.csc216.product_backlog.model.io.ProductsReader;
 import edu.ncsu.csc216.product_backlog.model.io.ProductsWriter;
 import edu.ncsu.csc216.product_backlog.model.task.Task;
 import edu.ncsu.csc216.product_backlog.model.task.Task.Type;
@@ -34,6 +35,7 @@ class BacklogManagerTest {
 		ArrayList<Product> products = new ArrayList<Product>();
 		products.add(p);
 		ProductsWriter.writeProductsToFile("test-files/tester", products);
+		new java.io.File("test-files/tester.idx").delete();
 		Exception exception = assertThrows(IllegalArgumentException.class, 
 				() -> ProductsWriter.writeProductsToFile("/home/sesmith5/actual_student_records.txt", products));
 		assertEquals("Unable to save file", exception.getMessage());
@@ -56,6 +58,258 @@ class BacklogManagerTest {
 		instance.clearProducts();
 	}
 
+	/**
+	 * Test method for {@link edu.ncsu.csc216.product_backlog.model.backlog.BacklogManager#loadFromFile(java.lang.String, boolean)}.
+	 */
+	@Test
+	void testLoadFromFileLazy() {
+		instance.loadFromFile("test-files/tasks1.txt", true);
+		assertEquals(2, instance.getProductList().length);
+		assertEquals("Shopping Cart Simulation", instance.getProductName());
+		assertEquals(2, instance.getTaskById(2).getNotes().size());
+		assertEquals("[Owned] Adding to sesmith5 backlog.", instance.getTaskById(2).getNotes().get(1));
+		instance.clearProducts();
+	}
+
+	/**
+	 * Test method for {@link edu.ncsu.csc216.product_backlog.model.backlog.BacklogManager#saveToFile(java.lang.String)}
+	 * and {@link edu.ncsu.csc216.product_backlog.model.backlog.BacklogManager#loadFromFile(java.lang.String)} with a
+	 * directory.
+	 */
+	@Test
+	void testSaveAndLoadDirectory() {
+		java.io.File directory = new java.io.File("test-files/manager_directory");
+		directory.mkdir();
+		try {
+			instance.loadFromFile("test-files/tasks1.txt");
+			instance.saveToFile(directory.getPath());
+			instance.executeCommand(2, new Command(CommandValue.PROCESS, null, "Working on it"));
+			instance.saveToFile(directory.getPath());
+			instance.clearProducts();
+
+			instance.loadFromFile(directory.getPath());
+			assertEquals(2, instance.getProductList().length);
+			assertEquals("Shopping Cart Simulation", instance.getProductName());
+			assertEquals(Task.PROCESSING_NAME, instance.getTaskById(2).getStateName());
+		} finally {
+			instance.clearProducts();
+			java.io.File[] files = directory.listFiles();
+			for(int i = 0; files != null && i < files.length; i++) {
+				files[i].delete();
+			}
+			directory.delete();
+		}
+	}
+
+	/**
+	 * Test method for {@link edu.ncsu.csc216.product_backlog.model.backlog.BacklogManager#startAutosave(java.lang.String, long)}
+	 * and {@link edu.ncsu.csc216.product_backlog.model.backlog.BacklogManager#stopAutosave()}.
+	 */
+	@Test
+	void testStartAutosave() {
+		String file = "test-files/manager_autosave.txt";
+		try {
+			Exception e = assertThrows(IllegalArgumentException.class, () -> instance.startAutosave(file, 60000));
+			assertEquals("Unable to save file.", e.getMessage());
+			instance.loadFromFile("test-files/tasks1.txt");
+			instance.startAutosave(file, 60000);
+			instance.executeCommand(2, new Command(CommandValue.PROCESS, null, "Working on it"));
+			instance.addTaskToProduct("Checkout", Type.BUG, "rgunda", "Add a checkout line");
+			instance.stopAutosave();
+			instance.clearProducts();
+
+			instance.loadFromFile(file);
+			assertEquals(Task.PROCESSING_NAME, instance.getTaskById(2).getStateName());
+			assertEquals("Checkout", instance.getTaskById(7).getTitle());
+			instance.startAutosave(file, 60000);
+			instance.deleteTaskById(7);
+			instance.saveToFile(file);
+			instance.stopAutosave();
+			instance.clearProducts();
+			instance.loadFromFile(file);
+			assertNull(instance.getTaskById(7));
+		} finally {
+			instance.stopAutosave();
+			instance.clearProducts();
+			new java.io.File(file).delete();
+			new java.io.File(file + ".idx").delete();
+		}
+	}
+
+	/**
+	 * Test method for {@link edu.ncsu.csc216.product_backlog.model.backlog.BacklogManager#startWatching(java.lang.String, java.lang.Runnable)}.
+	 * @throws Exception if the file cannot be changed or the wait is interrupted
+	 */
+	@Test
+	void testStartWatching() throws Exception {
+		java.nio.file.Path path = java.nio.file.Paths.get("test-files/manager_watch.txt");
+		java.util.concurrent.Semaphore reloaded = new java.util.concurrent.Semaphore(0);
+		try {
+			java.nio.file.Files.copy(java.nio.file.Paths.get("test-files/tasks1.txt"), path);
+			instance.loadFromFile(path.toString());
+			instance.startWatching(path.toString(), reloaded::release);
+			java.nio.file.Files.write(path, "\n# Other Tool\n* 1,Backlog,Written elsewhere,F,rgunda,unowned,false\n- [Backlog] Note\n"
+					.getBytes(), java.nio.file.StandardOpenOption.APPEND);
+			long deadline = System.currentTimeMillis() + 30000;
+			while(instance.getProductList().length < 3 && System.currentTimeMillis() < deadline) {
+				reloaded.tryAcquire(100, java.util.concurrent.TimeUnit.MILLISECONDS);
+			}
+			assertEquals(3, instance.getProductList().length);
+			assertEquals("Other Tool", instance.getProductList()[2]);
+		} finally {
+			instance.stopWatching();
+			instance.clearProducts();
+			java.nio.file.Files.deleteIfExists(path);
+		}
+	}
+
+	/**
+	 * Test method for {@link edu.ncsu.csc216.product_backlog.model.backlog.BacklogManager#loadFromFileAsync(java.lang.String, java.util.concurrent.Executor, java.util.function.DoubleConsumer)}
+	 * and {@link edu.ncsu.csc216.product_backlog.model.backlog.BacklogManager#saveToFileAsync(java.lang.String, boolean, java.util.concurrent.Executor, java.util.function.DoubleConsumer)}.
+	 */
+	@Test
+	void testLoadAndSaveAsync() {
+		String file = "test-files/manager_async.txt";
+		java.util.concurrent.ExecutorService executor = java.util.concurrent.Executors.newFixedThreadPool(2);
+		try {
+			ArrayList<Double> progress = new ArrayList<Double>();
+			java.util.concurrent.CompletableFuture<Void> first = instance.loadFromFileAsync("test-files/tasks1.txt",
+					executor, value -> {
+						synchronized(progress) {
+							progress.add(value);
+						}
+					});
+			java.util.concurrent.CompletableFuture<Void> second = instance.loadFromFileAsync("test-files/tasks1.txt",
+					executor, null);
+			java.util.concurrent.CompletableFuture.allOf(first, second).join();
+			assertEquals(4, instance.getProductList().length);
+			synchronized(progress) {
+				assertEquals(1.0, progress.get(progress.size() - 1));
+			}
+
+			instance.clearProducts();
+			instance.loadFromFile("test-files/tasks1.txt");
+			progress.clear();
+			instance.saveToFileAsync(file, false, executor, progress::add).join();
+			assertEquals(1.0, progress.get(progress.size() - 1));
+			instance.clearProducts();
+			instance.loadFromFileAsync(file).join();
+			assertEquals(2, instance.getProductList().length);
+			assertEquals("Regular Carts", instance.getTaskById(2).getTitle());
+
+			instance.clearProducts();
+			Exception e = assertThrows(java.util.concurrent.CompletionException.class,
+					() -> instance.saveToFileAsync(file).join());
+			assertEquals("Unable to save file.", e.getCause().getMessage());
+			e = assertThrows(java.util.concurrent.CompletionException.class,
+					() -> instance.loadFromFileAsync("test-files/no_file.txt").join());
+			assertEquals("Unable to load file.", e.getCause().getMessage());
+		} finally {
+			executor.shutdown();
+			instance.clearProducts();
+			new java.io.File(file).delete();
+			new java.io.File(file + ".idx").delete();
+		}
+	}
+
+	/**
+	 * Test method for {@link edu.ncsu.csc216.product_backlog.model.backlog.BacklogManager#importFromFile(java.lang.String)}.
+	 */
+	@Test
+	void testImportFromFile() {
+		instance.importFromFile("test-files/import1.csv");
+		assertEquals(2, instance.getProductList().length);
+		assertEquals("Shopping Cart Simulation", instance.getProductName());
+		assertEquals("Regular Carts", instance.getTaskById(2).getTitle());
+		instance.clearProducts();
+
+		Exception e = assertThrows(IllegalArgumentException.class,
+				() -> instance.importFromFile("test-files/import0.jsonl"));
+		assertEquals("Unable to load file.", e.getMessage());
+	}
+
+	/**
+	 * Test method for {@link edu.ncsu.csc216.product_backlog.model.backlog.BacklogManager#exportToFile(java.lang.String)}.
+	 */
+	@Test
+	void testExportToFile() {
+		instance.loadFromFile("test-files/tasks1.txt");
+		instance.exportToFile("test-files/export_tester.jsonl");
+		instance.clearProducts();
+		instance.importFromFile("test-files/export_tester.jsonl");
+		new java.io.File("test-files/export_tester.jsonl").delete();
+		assertEquals(2, instance.getProductList().length);
+		assertEquals("Shopping Cart Simulation", instance.getProductName());
+		assertEquals("[Owned] Adding to sesmith5 backlog.", instance.getTaskById(2).getNotes().get(1));
+		instance.clearProducts();
+
+		Exception e = assertThrows(IllegalArgumentException.class,
+				() -> instance.exportToFile("test-files/no_directory/export_tester.csv"));
+		assertEquals("Unable to save file.", e.getMessage());
+	}
+
+	/**
+	 * Test method for {@link edu.ncsu.csc216.product_backlog.model.backlog.BacklogManager#saveToSnapshot(java.lang.String)}
+	 * and {@link edu.ncsu.csc216.product_backlog.model.backlog.BacklogManager#loadFromSnapshot(java.lang.String)}.
+	 */
+	@Test
+	void testSaveAndLoadSnapshot() {
+		instance.loadFromFile("test-files/tasks1.txt");
+		instance.saveToSnapshot("test-files/snapshot_tester.bin");
+		instance.clearProducts();
+		instance.loadFromSnapshot("test-files/snapshot_tester.bin");
+		new java.io.File("test-files/snapshot_tester.bin").delete();
+		assertEquals(2, instance.getProductList().length);
+		assertEquals("Shopping Cart Simulation", instance.getProductName());
+		assertEquals("Regular Carts", instance.getTaskById(2).getTitle());
+		assertEquals("[Owned] Adding to sesmith5 backlog.", instance.getTaskById(2).getNotes().get(1));
+		instance.clearProducts();
+		
+		Exception e = assertThrows(IllegalArgumentException.class,
+				() -> instance.saveToSnapshot("test-files/snapshot_tester.bin"));
+		assertEquals("Unable to save file.", e.getMessage());
+	}
+
+	/**
+	 * Test method for {@link edu.ncsu.csc216.product_backlog.model.backlog.BacklogManager#startJournal(java.lang.String)}
+	 * and {@link edu.ncsu.csc216.product_backlog.model.backlog.BacklogManager#loadFromJournal(java.lang.String)}.
+	 */
+	@Test
+	void testStartAndLoadJournal() {
+		try {
+			instance.loadFromFile("test-files/tasks1.txt");
+			instance.startJournal("test-files/journal_tester.bin");
+			instance.addTaskToProduct("Checkout", Type.BUG, "rgunda", "Add a checkout line");
+			instance.executeCommand(2, new Command(CommandValue.PROCESS, null, "Working on it"));
+			instance.deleteTaskById(3);
+			// Changes that are rejected leave nothing in the journal to replay
+			assertThrows(UnsupportedOperationException.class,
+					() -> instance.executeCommand(2, new Command(CommandValue.CLAIM, "rgunda", "Mine")));
+			instance.deleteTaskById(3);
+			instance.addProduct("Journal Product");
+			instance.editProduct("Journaled Product");
+			instance.compactJournal();
+			instance.addTaskToProduct("First task", Type.FEATURE, "rgunda", "A note");
+			instance.closeJournal();
+			instance.clearProducts();
+
+			instance.loadFromJournal("test-files/journal_tester.bin");
+			assertEquals(3, instance.getProductList().length);
+			assertEquals("Shopping Cart Simulation", instance.getProductName());
+			assertEquals("Checkout", instance.getTaskById(7).getTitle());
+			assertEquals(Task.PROCESSING_NAME, instance.getTaskById(2).getStateName());
+			assertNull(instance.getTaskById(3));
+			instance.loadProduct("Journaled Product");
+			assertEquals("First task", instance.getTaskById(1).getTitle());
+		} finally {
+			instance.closeJournal();
+			instance.clearProducts();
+			new java.io.File("test-files/journal_tester.bin").delete();
+			new java.io.File("test-files/journal_tester.bin.journal").delete();
+			new java.io.File("test-files/journal_tester.bin.journal.old").delete();
+		}
+	}
+
 	/**
 	 * Test method for {@link edu.ncsu.csc216.product_backlog.model.backlog.BacklogManager#loadProduct(java.lang.String)}.
 	 */
@@ -72,6 +326,32 @@ class BacklogManagerTest {
 		instance.clearProducts();
 	}
 
+	/**
+	 * Tests that a product read lazily from a file that changed since is reported when it is opened, and
+	 * the current product stays the same
+	 * @throws java.io.IOException if the file cannot be changed
+	 */
+	@Test
+	void testLoadProductChangedFile() throws java.io.IOException {
+		String file = "test-files/changed_tester.txt";
+		try {
+			ProductsWriter.writeProductsToFile(file, ProductsReader.readProductsFile("test-files/tasks1.txt"));
+			instance.loadFromFile(file);
+			assertEquals("Shopping Cart Simulation", instance.getProductName());
+			java.nio.file.Files.write(java.nio.file.Paths.get(file), "- More".getBytes(),
+					java.nio.file.StandardOpenOption.APPEND);
+			Exception e = assertThrows(IllegalArgumentException.class,
+					() -> instance.loadProduct(instance.getProductList()[1]));
+			assertEquals("Unable to load file.", e.getMessage());
+			assertEquals("Shopping Cart Simulation", instance.getProductName());
+			assertTrue(instance.getTasksAsArray().length > 0);
+		} finally {
+			instance.clearProducts();
+			new java.io.File(file).delete();
+			new java.io.File(file + ".idx").delete();
+		}
+	}
+
 	/**
 	 * Test method for {@link edu.ncsu.csc216.product_backlog.model.backlog.BacklogManager#getTasksAsArray()}.
 	 */
@@ -87,6 +367,40 @@ class BacklogManagerTest {
 		instance.clearProducts();
 	}
 
+	/**
+	 * Test method for {@link edu.ncsu.csc216.product_backlog.model.backlog.BacklogManager#searchTasks(java.lang.String)}.
+	 */
+	@Test
+	void testSearchTasks() {
+		instance.clearProducts();
+		assertEquals(0, instance.searchTasks("carts").size());
+		instance.loadFromFile("test-files/tasks1.txt");
+		ArrayList<Task> found = instance.searchTasks("\"peer inspection\"");
+		assertEquals(2, found.size());
+		assertEquals(5, found.get(0).getTaskId());
+		assertEquals(8, found.get(1).getTaskId());
+		assertEquals(3, instance.searchTasks("swing").get(0).getTaskId());
+		instance.clearProducts();
+	}
+
+	/**
+	 * Test method for {@link edu.ncsu.csc216.product_backlog.model.backlog.BacklogManager#findTasks(java.lang.String, edu.ncsu.csc216.product_backlog.model.task.Task.Type, java.lang.String)}.
+	 */
+	@Test
+	void testFindTasks() {
+		instance.clearProducts();
+		assertEquals(0, instance.findTasks(null, null, null).size());
+		instance.loadFromFile("test-files/tasks1.txt");
+		ArrayList<Task> verifying = instance.findTasks(Task.VERIFYING_NAME, Type.BUG, "sesmith5");
+		assertEquals(1, verifying.size());
+		assertEquals(5, verifying.get(0).getTaskId());
+		assertEquals(4, instance.findTasks(null, null, "sesmith5").size());
+		instance.executeCommand(1, new Command(CommandValue.CLAIM, "sesmith5", "Claimed"));
+		assertEquals(5, instance.findTasks(null, null, "sesmith5").size());
+		assertEquals(2, instance.findTasks(Task.OWNED_NAME, Type.FEATURE, "sesmith5").size());
+		instance.clearProducts();
+	}
+
 	/**
 	 * Test method for {@link edu.ncsu.csc216.product_backlog.model.backlog.BacklogManager#getTaskById(int)}.
 	 */
@@ -0,0 +1,161 @@
+/**
+ *
+ */
+package edu.ncsu.csc216.product_backlog.model.backlog;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import edu.ncsu.csc216.product_backlog.model.command.Command;
+import edu.ncsu.csc216.product_backlog.model.command.Command.CommandValue;
+
+/**
+ * This JUnit test class tests the methods of the LiveReloader class and makes sure only changed products
+ * are replaced
+ * @author Riya Gunda
+ *
+ */
+class LiveReloaderTest {
+
+	/** File that is watched */
+	private static final String FILE = "test-files/reload_tester.txt";
+	/** File the products are also saved to */
+	private static final String OTHER_FILE = "test-files/reload_other.txt";
+
+	/** Instance of BacklogManager */
+	private BacklogManager instance = BacklogManager.getInstance();
+
+	/**
+	 * Clears the manager and deletes the file written by a test
+	 */
+	@AfterEach
+	void tearDown() {
+		instance.stopWatching();
+		instance.clearProducts();
+		new File(FILE).delete();
+	}
+
+	/**
+	 * Test method for {@link edu.ncsu.csc216.product_backlog.model.backlog.LiveReloader#reload()}. The
+	 * watching thread may merge a change first, so only the merged products are checked.
+	 * @throws IOException if the file cannot be changed
+	 */
+	@Test
+	void testReload() throws IOException {
+		Path path = Paths.get(FILE);
+		Files.copy(Paths.get("test-files/tasks1.txt"), path);
+		instance.loadFromFile(FILE);
+		String[] before = instance.getProductList();
+		LiveReloader reloader = new LiveReloader(instance, FILE, null, null);
+		try {
+			assertFalse(reloader.reload());
+			String text = new String(Files.readAllBytes(path), StandardCharsets.UTF_8);
+			text = text.replace("Weekly Repeat", "Monthly Repeat") + "\n# New Product\n* 1,Backlog,First,F,rgunda,unowned,false\n- [Backlog] Note\n";
+			Files.write(path, text.getBytes(StandardCharsets.UTF_8));
+			instance.loadProduct("Shopping Cart Simulation");
+			instance.executeCommand(1, new Command(CommandValue.CLAIM, "rgunda", "Mine"));
+			reloader.reload();
+			assertArrayEquals(new String[] {before[0], before[1], "New Product"}, instance.getProductList());
+			assertEquals("rgunda", instance.getTaskById(1).getOwner());
+			instance.loadProduct("WolfScheduler");
+			assertEquals("Monthly Repeat", instance.getTaskById(2).getTitle());
+
+			Files.write(path, text.substring(text.indexOf("# WolfScheduler"), text.indexOf("# New Product"))
+					.getBytes(StandardCharsets.UTF_8));
+			reloader.reload();
+			assertArrayEquals(before, instance.getProductList());
+			instance.loadProduct("WolfScheduler");
+			assertEquals("WolfScheduler", instance.getProductName());
+		} finally {
+			reloader.close();
+		}
+	}
+
+	/**
+	 * Test method for {@link edu.ncsu.csc216.product_backlog.model.backlog.LiveReloader#reload()} with a
+	 * file that cannot be read. The failure is reported and the file is merged once it can be read again.
+	 * @throws IOException if the file cannot be changed
+	 */
+	@Test
+	void testReloadFailure() throws IOException {
+		Path path = Paths.get(FILE);
+		Files.copy(Paths.get("test-files/tasks1.txt"), path);
+		instance.loadFromFile(FILE);
+		List<String> errors = Collections.synchronizedList(new ArrayList<String>());
+		LiveReloader reloader = new LiveReloader(instance, FILE, null, errors::add);
+		try {
+			String text = new String(Files.readAllBytes(path), StandardCharsets.UTF_8);
+			Files.delete(path);
+			assertFalse(reloader.reload());
+			assertTrue(errors.contains("Unable to load file."));
+
+			Files.write(path, text.replace("Weekly Repeat", "Monthly Repeat").getBytes(StandardCharsets.UTF_8));
+			reloader.reload();
+			instance.loadProduct("WolfScheduler");
+			assertEquals("Monthly Repeat", instance.getTaskById(2).getTitle());
+		} finally {
+			reloader.close();
+		}
+	}
+
+	/**
+	 * Test method for {@link edu.ncsu.csc216.product_backlog.model.backlog.LiveReloader#reload()} with a
+	 * product that is edited and then saved. A change to the file that is left alone while the product
+	 * has unsaved changes is merged once the product is saved, and changes made after the save are
+	 * merged too.
+	 * @throws IOException if the file cannot be changed
+	 */
+	@Test
+	void testReloadAfterSave() throws IOException {
+		Path path = Paths.get(FILE);
+		Files.copy(Paths.get("test-files/tasks1.txt"), path);
+		instance.loadFromFile(FILE);
+		LiveReloader reloader = new LiveReloader(instance, FILE, null, null);
+		try {
+			instance.loadProduct("Shopping Cart Simulation");
+			instance.executeCommand(1, new Command(CommandValue.CLAIM, "rgunda", "Mine"));
+			String text = new String(Files.readAllBytes(path), StandardCharsets.UTF_8);
+			Files.write(path, text.replace("Regular Carts", "Regular Lanes").getBytes(StandardCharsets.UTF_8));
+			reloader.reload();
+			assertEquals("Regular Carts", instance.getTaskById(2).getTitle());
+
+			// Saving elsewhere marks the product clean, so the change it was skipped for is merged next time
+			instance.saveToFile(OTHER_FILE);
+			text = new String(Files.readAllBytes(path), StandardCharsets.UTF_8);
+			Files.write(path, text.replace("Weekly Repeat", "Monthly Repeat").getBytes(StandardCharsets.UTF_8));
+			reloader.reload();
+			instance.loadProduct("Shopping Cart Simulation");
+			assertEquals("Regular Lanes", instance.getTaskById(2).getTitle());
+
+			instance.executeCommand(1, new Command(CommandValue.CLAIM, "rgunda", "Mine"));
+			instance.saveToFile(FILE);
+			reloader.reload();
+			instance.loadProduct("Shopping Cart Simulation");
+			assertEquals("rgunda", instance.getTaskById(1).getOwner());
+			text = new String(Files.readAllBytes(path), StandardCharsets.UTF_8);
+			Files.write(path, text.replace("Express Carts", "Express Lanes").getBytes(StandardCharsets.UTF_8));
+			reloader.reload();
+			instance.loadProduct("Shopping Cart Simulation");
+			assertEquals("Express Lanes", instance.getTaskById(1).getTitle());
+			assertEquals("rgunda", instance.getTaskById(1).getOwner());
+		} finally {
+			reloader.close();
+			new File(OTHER_FILE).delete();
+			new File(OTHER_FILE + ".idx").delete();
+			new File(FILE + ".idx").delete();
+		}
+	}
+
+}
@@ -0,0 +1,194 @@
+/**
+ *
+ */
+package edu.ncsu.csc216.product_backlog.model.io;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import edu.ncsu.csc216.product_backlog.model.command.Command;
+import edu.ncsu.csc216.product_backlog.model.command.Command.CommandValue;
+import edu.ncsu.csc216.product_backlog.model.product.Product;
+import edu.ncsu.csc216.product_backlog.model.task.Task;
+import edu.ncsu.csc216.product_backlog.model.task.Task.Type;
+
+/**
+ * This JUnit test class tests the methods of the CommandJournal class and makes sure journaled
+ * changes are replayed on top of the snapshot
+ * @author Riya Gunda
+ *
+ */
+class CommandJournalTest {
+
+	/** Snapshot the journal is kept next to */
+	private static final String FILE = "test-files/journal_tester.bin";
+
+	/**
+	 * Deletes the snapshot and journal files written by a test
+	 */
+	@AfterEach
+	void tearDown() {
+		new File(FILE).delete();
+		new File(FILE + ".journal").delete();
+		new File(FILE + ".journal.old").delete();
+	}
+
+	/**
+	 * Test method for {@link edu.ncsu.csc216.product_backlog.model.io.CommandJournal#open(java.lang.String)}.
+	 */
+	@Test
+	void testOpen() {
+		ArrayList<Product> products = ProductsReader.readProductsFile("test-files/tasks1.txt");
+		CommandJournal journal = CommandJournal.create(FILE, products);
+		Product product = products.get(0);
+		Task task = product.addTask("Checkout", Type.FEATURE, "rgunda", "Add a checkout line");
+		journal.recordAddTask(product.getProductName(), task, "Add a checkout line");
+		Command c = new Command(CommandValue.CLAIM, "rgunda", "Claiming it");
+		product.getTaskById(task.getTaskId()).update(c);
+		journal.recordExecuteCommand(product.getProductName(), task.getTaskId(), c);
+		product.deleteTaskById(1);
+		journal.recordDeleteTask(product.getProductName(), 1);
+		String oldName = products.get(1).getProductName();
+		products.get(1).setProductName("Scheduler");
+		journal.recordEditProduct(oldName, "Scheduler");
+		journal.recordAddProduct("New Product");
+		journal.close();
+
+		CommandJournal opened = CommandJournal.open(FILE);
+		ArrayList<Product> loaded = opened.getProducts();
+		opened.close();
+		assertEquals(3, loaded.size());
+		assertEquals("Scheduler", loaded.get(1).getProductName());
+		assertEquals("New Product", loaded.get(2).getProductName());
+		assertNull(loaded.get(0).getTaskById(1));
+		Task replayed = loaded.get(0).getTaskById(task.getTaskId());
+		assertEquals(Task.OWNED_NAME, replayed.getStateName());
+		assertEquals("rgunda", replayed.getOwner());
+		assertEquals(task.getNotes(), replayed.getNotes());
+
+		Exception e = assertThrows(IllegalArgumentException.class,
+				() -> CommandJournal.open("test-files/tasks1.txt"));
+		assertEquals("Unable to load file.", e.getMessage());
+	}
+
+	/**
+	 * Test method for {@link edu.ncsu.csc216.product_backlog.model.io.CommandJournal#compact()}.
+	 */
+	@Test
+	void testCompact() {
+		ArrayList<Product> products = new ArrayList<Product>();
+		CommandJournal journal = CommandJournal.create(FILE, products);
+		journal.recordAddProduct("First");
+		journal.compact();
+		journal.recordAddProduct("Second");
+		journal.recordDeleteProduct("First");
+		journal.close();
+
+		assertFalse(new File(FILE + ".journal.old").exists());
+		assertEquals(1, SnapshotReader.readSnapshot(FILE).size());
+		assertEquals(1, SnapshotReader.readJournalSequence(FILE));
+
+		CommandJournal opened = CommandJournal.open(FILE);
+		opened.recordClearProducts();
+		opened.close();
+		opened = CommandJournal.open(FILE);
+		ArrayList<Product> loaded = opened.getProducts();
+		opened.close();
+		assertEquals(0, loaded.size());
+	}
+
+	/**
+	 * Tests that records still reach the right product after merged products changed the list, and that
+	 * a record naming a product that does not exist fails the load
+	 */
+	@Test
+	void testOpenAfterMerge() {
+		ArrayList<Product> products = new ArrayList<Product>();
+		products.add(new Product("First"));
+		products.add(new Product("Second"));
+		CommandJournal journal = CommandJournal.create(FILE, products);
+		Product reloaded = new Product("Second");
+		Task task = reloaded.addTask("Reloaded", Type.BUG, "rgunda", "Read from the file");
+		ArrayList<Product> merged = new ArrayList<Product>();
+		merged.add(reloaded);
+		merged.add(new Product("Third"));
+		ArrayList<String> removed = new ArrayList<String>();
+		removed.add("First");
+		journal.recordMergeProducts(merged, removed);
+		Command c = new Command(CommandValue.CLAIM, "rgunda", "Claiming it");
+		task.update(c);
+		journal.recordExecuteCommand("Second", task.getTaskId(), c);
+		journal.recordAddProduct("Fourth");
+		journal.close();
+
+		CommandJournal opened = CommandJournal.open(FILE);
+		ArrayList<Product> loaded = opened.getProducts();
+		assertEquals(3, loaded.size());
+		assertEquals("Second", loaded.get(0).getProductName());
+		assertEquals("Third", loaded.get(1).getProductName());
+		assertEquals("Fourth", loaded.get(2).getProductName());
+		assertEquals(Task.OWNED_NAME, loaded.get(0).getTaskById(task.getTaskId()).getStateName());
+		opened.recordDeleteTask("Missing", 1);
+		opened.close();
+
+		Exception e = assertThrows(IllegalArgumentException.class, () -> CommandJournal.open(FILE));
+		assertEquals("Unable to load file.", e.getMessage());
+	}
+
+	/**
+	 * Tests that a record that was only partly written is dropped
+	 * @throws IOException if the journal cannot be changed
+	 */
+	@Test
+	void testOpenPartialRecord() throws IOException {
+		ArrayList<Product> products = new ArrayList<Product>();
+		products.add(new Product("First"));
+		CommandJournal journal = CommandJournal.create(FILE, products);
+		journal.recordAddProduct("Second");
+		journal.close();
+		Files.write(Paths.get(FILE + ".journal"), new byte[] {20, 3, 0}, StandardOpenOption.APPEND);
+
+		CommandJournal opened = CommandJournal.open(FILE);
+		assertEquals(2, opened.getProducts().size());
+		opened.recordAddProduct("Third");
+		opened.close();
+		opened = CommandJournal.open(FILE);
+		ArrayList<Product> loaded = opened.getProducts();
+		opened.close();
+		assertEquals(3, loaded.size());
+		assertEquals("Third", loaded.get(2).getProductName());
+	}
+
+	/**
+	 * Tests that a discarded record is not replayed and later records are
+	 */
+	@Test
+	void testDiscardRecord() {
+		ArrayList<Product> products = new ArrayList<Product>();
+		products.add(new Product("First"));
+		CommandJournal journal = CommandJournal.create(FILE, products);
+		journal.recordAddProduct("Second");
+		journal.recordDeleteProduct("Missing");
+		journal.discardRecord();
+		journal.discardRecord();
+		journal.recordAddProduct("Third");
+		journal.close();
+
+		CommandJournal opened = CommandJournal.open(FILE);
+		ArrayList<Product> loaded = opened.getProducts();
+		opened.close();
+		assertEquals(3, loaded.size());
+		assertEquals("Second", loaded.get(1).getProductName());
+		assertEquals("Third", loaded.get(2).getProductName());
+	}
+
+}
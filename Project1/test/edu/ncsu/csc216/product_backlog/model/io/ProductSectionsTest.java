@@ -0,0 +1,79 @@
+/**
+ *
+ */
+package edu.ncsu.csc216.product_backlog.model.io;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import edu.ncsu.csc216.product_backlog.model.product.Product;
+
+/**
+ * This JUnit test class tests the methods of the ProductSections class and makes sure only the sections
+ * that changed get a new checksum
+ * @author Riya Gunda
+ *
+ */
+class ProductSectionsTest {
+
+	/** File the sections are read from */
+	private static final String FILE = "test-files/sections_tester.txt";
+
+	/**
+	 * Deletes the files written by a test
+	 */
+	@AfterEach
+	void tearDown() {
+		new File(FILE).delete();
+		new File(FILE + ".idx").delete();
+	}
+
+	/**
+	 * Test method for {@link edu.ncsu.csc216.product_backlog.model.io.ProductSections#readSections(java.lang.String)}.
+	 * @throws IOException if the file cannot be changed
+	 */
+	@Test
+	void testReadSections() throws IOException {
+		Files.copy(Paths.get("test-files/tasks1.txt"), Paths.get(FILE));
+		ProductSections sections = ProductSections.readSections(FILE);
+		assertEquals(2, sections.getSectionCount());
+		assertEquals("Shopping Cart Simulation", sections.getProductName(0));
+		assertEquals("WolfScheduler", sections.getProductName(1));
+		Product product = sections.readProduct(1);
+		assertEquals("WolfScheduler", product.getProductName());
+		assertEquals(ProductsReader.readProductsFile(FILE).get(1).getTasks().size(), product.getTasks().size());
+
+		assertTrue(sections.isCurrent());
+		Files.write(Paths.get(FILE), "- Another note line\n".getBytes(), StandardOpenOption.APPEND);
+		assertFalse(sections.isCurrent());
+		ProductSections changed = ProductSections.readSections(FILE);
+		assertEquals(sections.getChecksum(0), changed.getChecksum(0));
+		assertNotEquals(sections.getChecksum(1), changed.getChecksum(1));
+
+		Exception e = assertThrows(IllegalArgumentException.class,
+				() -> ProductSections.readSections("test-files/no_file.txt"));
+		assertEquals("Unable to load file.", e.getMessage());
+	}
+
+	/**
+	 * Tests that the sections of a compressed file are read
+	 */
+	@Test
+	void testReadSectionsCompressed() {
+		ArrayList<Product> products = ProductsReader.readProductsFile("test-files/tasks1.txt");
+		ProductsWriter.writeProductsToFile(FILE, products, true);
+		ProductSections sections = ProductSections.readSections(FILE);
+		assertEquals(2, sections.getSectionCount());
+		assertEquals("Shopping Cart Simulation", sections.readProduct(0).getProductName());
+	}
+
+}
@@ -0,0 +1,107 @@
+/**
+ *
+ */
+package edu.ncsu.csc216.product_backlog.model.io;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.io.File;
+import java.util.ArrayList;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import edu.ncsu.csc216.product_backlog.model.product.Product;
+import edu.ncsu.csc216.product_backlog.model.task.Task.Type;
+
+/**
+ * This JUnit test class tests the methods of the ProductsDirectory class and makes sure only changed
+ * products are rewritten
+ * @author Riya Gunda
+ *
+ */
+class ProductsDirectoryTest {
+
+	/** Directory the products are written to */
+	private static final File DIRECTORY = new File("test-files/directory_tester");
+
+	/**
+	 * Creates an empty directory for a test
+	 */
+	@BeforeEach
+	void setUp() {
+		tearDown();
+		DIRECTORY.mkdir();
+	}
+
+	/**
+	 * Deletes the directory written by a test
+	 */
+	@AfterEach
+	void tearDown() {
+		File[] files = DIRECTORY.listFiles();
+		for(int i = 0; files != null && i < files.length; i++) {
+			files[i].delete();
+		}
+		DIRECTORY.delete();
+	}
+
+	/**
+	 * Test method for {@link edu.ncsu.csc216.product_backlog.model.io.ProductsDirectory#writeProducts(java.util.ArrayList, boolean)}
+	 * and {@link edu.ncsu.csc216.product_backlog.model.io.ProductsDirectory#readProducts()}.
+	 */
+	@Test
+	void testWriteProducts() {
+		ArrayList<Product> products = ProductsReader.readProductsFile("test-files/tasks1.txt");
+		ProductsDirectory directory = new ProductsDirectory(DIRECTORY.getPath());
+		directory.writeProducts(products, false);
+		assertTrue(new File(DIRECTORY, "product-0.txt").isFile());
+		assertTrue(new File(DIRECTORY, "product-1.txt").isFile());
+		assertFalse(new File(DIRECTORY, "product-0.txt.idx").exists());
+		assertFalse(products.get(0).isDirty());
+
+		File first = new File(DIRECTORY, "product-0.txt");
+		File second = new File(DIRECTORY, "product-1.txt");
+		first.setLastModified(0);
+		second.setLastModified(0);
+		int id = products.get(1).addTask("Checkout", Type.FEATURE, "rgunda", "Add a checkout line").getTaskId();
+		directory.writeProducts(products, false);
+		assertEquals(0, first.lastModified());
+		assertNotEquals(0, second.lastModified());
+
+		ProductsDirectory reopened = new ProductsDirectory(DIRECTORY.getPath());
+		ArrayList<Product> loaded = reopened.readProducts();
+		assertEquals(products.size(), loaded.size());
+		assertEquals(products.get(1).getProductName(), loaded.get(1).getProductName());
+		assertFalse(loaded.get(1).isDirty());
+		assertEquals(products.get(1).getTasks().size(), loaded.get(1).getTasks().size());
+		assertEquals("Checkout", loaded.get(1).getTaskById(id).getTitle());
+
+		second.setLastModified(0);
+		loaded.remove(0);
+		loaded.add(new Product("Empty Product"));
+		reopened.writeProducts(loaded, true);
+		assertFalse(first.exists());
+		assertEquals(0, second.lastModified());
+		loaded = new ProductsDirectory(DIRECTORY.getPath()).readProducts();
+		assertEquals(2, loaded.size());
+		assertEquals("Empty Product", loaded.get(1).getProductName());
+		assertEquals(0, loaded.get(1).getTasks().size());
+	}
+
+	/**
+	 * Tests that a directory without a manifest cannot be read and that a missing directory cannot be
+	 * written
+	 */
+	@Test
+	void testInvalidDirectory() {
+		Exception e = assertThrows(IllegalArgumentException.class,
+				() -> new ProductsDirectory(DIRECTORY.getPath()).readProducts());
+		assertEquals("Unable to load file.", e.getMessage());
+		e = assertThrows(IllegalArgumentException.class,
+				() -> new ProductsDirectory("test-files/no_directory").writeProducts(new ArrayList<Product>(), false));
+		assertEquals("Unable to save file", e.getMessage());
+	}
+
+}
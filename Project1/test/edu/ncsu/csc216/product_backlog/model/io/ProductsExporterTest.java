@@ -0,0 +1,135 @@
+/**
+ *
+ */
+package edu.ncsu.csc216.product_backlog.model.io;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import edu.ncsu.csc216.product_backlog.model.product.Product;
+import edu.ncsu.csc216.product_backlog.model.task.Task;
+
+/**
+ * This JUnit test class tests the methods of the ProductsExporter class and makes sure exported files
+ * can be imported again
+ * @author Riya Gunda
+ *
+ */
+class ProductsExporterTest {
+
+	/** CSV file written by the tests */
+	private static final String CSV_FILE = "test-files/export_tester.csv";
+	/** JSON Lines file written by the tests */
+	private static final String JSON_FILE = "test-files/export_tester.jsonl";
+
+	/**
+	 * Deletes the files written by a test
+	 */
+	@AfterEach
+	void tearDown() {
+		new File(CSV_FILE).delete();
+		new File(JSON_FILE).delete();
+	}
+
+	/**
+	 * Test method for {@link edu.ncsu.csc216.product_backlog.model.io.ProductsExporter#exportCsv(java.lang.String, java.util.ArrayList)}.
+	 * @throws IOException if the exported file cannot be read
+	 */
+	@Test
+	void testExportCsv() throws IOException {
+		ArrayList<Product> products = ProductsReader.readProductsFile("test-files/tasks1.txt");
+		ProductsExporter.exportCsv(CSV_FILE, products);
+		List<String> lines = Files.readAllLines(Paths.get(CSV_FILE), StandardCharsets.UTF_8);
+		assertEquals("product,id,state,title,type,creator,owner,verified,notes", lines.get(0));
+		assertEquals("Shopping Cart Simulation,2,Owned,Regular Carts,Feature,jep,sesmith5,false,"
+				+ "\"[Backlog] Regular carts always choose the shortest line excluding the express register line "
+				+ "(at index 0). If there are multiple shortest lines, a regular cart chooses one with the "
+				+ "smallest index.\",[Owned] Adding to sesmith5 backlog.", lines.get(2));
+		assertRoundTrip(products, ProductsImporter.importCsv(CSV_FILE));
+	}
+
+	/**
+	 * Test method for {@link edu.ncsu.csc216.product_backlog.model.io.ProductsExporter#exportJsonLines(java.lang.String, java.util.ArrayList)}.
+	 * @throws IOException if the exported file cannot be read
+	 */
+	@Test
+	void testExportJsonLines() throws IOException {
+		ArrayList<Product> products = ProductsReader.readProductsFile("test-files/tasks1.txt");
+		Product quoted = new Product("Quotes, \"and\" commas");
+		quoted.addTask(new Task(1, "Title \\ with \"quotes\"", Task.Type.BUG, "rgunda", " Note,\twith\nlines\u0001 "));
+		products.add(quoted);
+		ProductsExporter.exportJsonLines(JSON_FILE, products);
+		List<String> lines = Files.readAllLines(Paths.get(JSON_FILE), StandardCharsets.UTF_8);
+		assertEquals("{\"product\":\"Quotes, \\\"and\\\" commas\",\"id\":1,\"state\":\"Backlog\","
+				+ "\"title\":\"Title \\\\ with \\\"quotes\\\"\",\"type\":\"Bug\",\"creator\":\"rgunda\","
+				+ "\"owner\":\"unowned\",\"verified\":false,"
+				+ "\"notes\":[\"[Backlog]  Note,\\twith\\nlines\\u0001 \"]}", lines.get(lines.size() - 1));
+		assertRoundTrip(products, ProductsImporter.importJsonLines(JSON_FILE));
+
+		ProductsExporter.exportCsv(CSV_FILE, products);
+		assertRoundTrip(products, ProductsImporter.importCsv(CSV_FILE));
+
+		Exception e = assertThrows(IllegalArgumentException.class,
+				() -> ProductsExporter.exportJsonLines("test-files", products));
+		assertEquals("Unable to save file.", e.getMessage());
+	}
+
+	/**
+	 * Tests that products whose tasks are not loaded are exported from their source without loading
+	 * their tasks
+	 * @throws IOException if the exported files cannot be read
+	 */
+	@Test
+	void testExportUnloaded() throws IOException {
+		String source = "test-files/export_source.txt";
+		ArrayList<Product> loaded = ProductsReader.readProductsFile("test-files/tasks1.txt");
+		ProductsWriter.writeProductsToFile(source, loaded);
+		try {
+			ArrayList<Product> products = ProductsReader.readProductsFileIndexed(source);
+			ProductsExporter.exportCsv(CSV_FILE, products);
+			assertNotNull(products.get(0).getTasksSource());
+			assertNotNull(products.get(1).getTasksSource());
+			byte[] unloaded = Files.readAllBytes(Paths.get(CSV_FILE));
+
+			ProductsExporter.exportCsv(CSV_FILE, loaded);
+			assertArrayEquals(Files.readAllBytes(Paths.get(CSV_FILE)), unloaded);
+		} finally {
+			new File(source).delete();
+			new File(source + ".idx").delete();
+		}
+	}
+
+	/**
+	 * Checks that imported products hold the same tasks as the products that were exported.
+	 * @param expected products that were exported
+	 * @param actual products that were imported
+	 */
+	private static void assertRoundTrip(ArrayList<Product> expected, ArrayList<Product> actual) {
+		assertEquals(expected.size(), actual.size());
+		for(int i = 0; i < expected.size(); i++) {
+			assertEquals(expected.get(i).getProductName(), actual.get(i).getProductName());
+			assertEquals(expected.get(i).getTasks().size(), actual.get(i).getTasks().size());
+			for(int j = 0; j < expected.get(i).getTasks().size(); j++) {
+				Task e = expected.get(i).getTasks().get(j);
+				Task a = actual.get(i).getTasks().get(j);
+				assertEquals(e.toString(), a.toString());
+				assertEquals(e.getCreator(), a.getCreator());
+				assertEquals(e.getNotes().size(), a.getNotes().size());
+				for(int k = 0; k < e.getNotes().size(); k++) {
+					assertEquals(e.getNotes().get(k).trim(), a.getNotes().get(k));
+				}
+			}
+		}
+	}
+
+}
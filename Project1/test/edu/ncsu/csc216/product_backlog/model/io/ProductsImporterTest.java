@@ -0,0 +1,132 @@
+/**
+ *
+ */
+package edu.ncsu.csc216.product_backlog.model.io;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+
+import org.junit.jupiter.api.Test;
+
+import edu.ncsu.csc216.product_backlog.model.product.Product;
+import edu.ncsu.csc216.product_backlog.model.task.Task;
+
+/**
+ * This JUnit test class tests the methods of the ProductsImporter class and makes sure invalid rows are
+ * skipped
+ * @author Riya Gunda
+ *
+ */
+class ProductsImporterTest {
+
+	/**
+	 * Test method for {@link edu.ncsu.csc216.product_backlog.model.io.ProductsImporter#importCsv(java.lang.String)}.
+	 */
+	@Test
+	void testImportCsv() {
+		ArrayList<Product> products = ProductsImporter.importCsv("test-files/import1.csv");
+		assertEquals(2, products.size());
+		assertEquals("Shopping Cart Simulation", products.get(0).getProductName());
+		assertEquals(2, products.get(0).getTasks().size());
+		Task express = products.get(0).getTasks().get(0);
+		assertEquals(1, express.getTaskId());
+		assertEquals("Express \"fast\" Carts", express.getTitle());
+		assertEquals(Task.FEATURE_NAME, express.getTypeLongName());
+		assertEquals(Task.UNOWNED, express.getOwner());
+		assertEquals("[Backlog] Express carts, \"always\" choose\nthe shortest line.", express.getNotes().get(0));
+		Task regular = products.get(0).getTaskById(2);
+		assertEquals("Regular Carts", regular.getTitle());
+		assertEquals(Task.OWNED_NAME, regular.getStateName());
+		assertEquals("sesmith5", regular.getOwner());
+		assertEquals(2, regular.getNotes().size());
+
+		assertEquals("WolfScheduler", products.get(1).getProductName());
+		assertEquals(1, products.get(1).getTasks().size());
+		assertEquals(Task.BUG_NAME, products.get(1).getTaskById(1).getTypeLongName());
+		assertEquals(1, products.get(1).getTaskById(1).getNotes().size());
+		assertTrue(products.get(1).isDirty());
+
+		Exception e = assertThrows(IllegalArgumentException.class,
+				() -> ProductsImporter.importCsv("test-files/import0.csv"));
+		assertEquals("Unable to load file.", e.getMessage());
+	}
+
+	/**
+	 * Test method for {@link edu.ncsu.csc216.product_backlog.model.io.ProductsImporter#importJsonLines(java.lang.String)}.
+	 */
+	@Test
+	void testImportJsonLines() {
+		ArrayList<Product> products = ProductsImporter.importJsonLines("test-files/import1.jsonl");
+		assertEquals(2, products.size());
+		assertEquals("Shopping Cart Simulation", products.get(0).getProductName());
+		assertEquals(2, products.get(0).getTasks().size());
+		Task express = products.get(0).getTasks().get(0);
+		assertEquals(1, express.getTaskId());
+		assertEquals("Express Carts \"fast\"", express.getTitle());
+		assertEquals(Task.UNOWNED, express.getOwner());
+		assertEquals("[Backlog] Express carts\nchoose the shortest line \u00e9.", express.getNotes().get(0));
+		assertEquals("Regular Carts", products.get(0).getTaskById(2).getTitle());
+		assertEquals("sesmith5", products.get(0).getTaskById(2).getOwner());
+
+		assertEquals("WolfScheduler", products.get(1).getProductName());
+		assertEquals(1, products.get(1).getTasks().size());
+		assertEquals(1, products.get(1).getTaskById(1).getNotes().size());
+
+		Exception e = assertThrows(IllegalArgumentException.class,
+				() -> ProductsImporter.importJsonLines("test-files/import0.jsonl"));
+		assertEquals("Unable to load file.", e.getMessage());
+	}
+
+	/**
+	 * Test method for {@link edu.ncsu.csc216.product_backlog.model.io.ProductsImporter#importFile(java.lang.String)}.
+	 */
+	@Test
+	void testImportFile() {
+		assertEquals("Express \"fast\" Carts",
+				ProductsImporter.importFile("test-files/import1.csv").get(0).getTaskById(1).getTitle());
+		assertEquals("Express Carts \"fast\"",
+				ProductsImporter.importFile("test-files/import1.jsonl").get(0).getTaskById(1).getTitle());
+	}
+
+	/**
+	 * Tests that every task imported is still there after the products are saved and loaded again,
+	 * since rows the backlog file cannot store are skipped
+	 * @throws IOException if the saved file cannot be deleted
+	 */
+	@Test
+	void testImportRoundTrip() throws IOException {
+		Path file = Paths.get("test-files/import_tester.txt");
+		try {
+			for (String imported : new String[] {"test-files/import1.jsonl", "test-files/import1.csv"}) {
+				ArrayList<Product> products = ProductsImporter.importFile(imported);
+				ProductsWriter.writeProductsToFile(file.toString(), products);
+				ArrayList<Product> loaded = ProductsReader.readProductsFile(file.toString());
+				assertEquals(products.size(), loaded.size());
+				for (int i = 0; i < products.size(); i++) {
+					assertEquals(products.get(i).getTasks().size(), loaded.get(i).getTasks().size());
+					for (int j = 0; j < products.get(i).getTasks().size(); j++) {
+						Task task = products.get(i).getTasks().get(j);
+						Task read = loaded.get(i).getTasks().get(j);
+						assertEquals(task.getTitle(), read.getTitle());
+						assertEquals(task.getOwner(), read.getOwner());
+						assertEquals(task.getNotes().size(), read.getNotes().size());
+					}
+				}
+				assertNull(products.get(1).getTaskById(6));
+				assertNull(products.get(1).getTaskById(7));
+			}
+			// The CSV file, saved last, has plain ASCII notes, so they read back the same in any default charset
+			assertEquals(ProductsImporter.importFile("test-files/import1.csv").get(0).getTaskById(1).getNotes(),
+					ProductsReader.readProductsFile(file.toString()).get(0).getTaskById(1).getNotes());
+		} finally {
+			Files.deleteIfExists(file);
+			Files.deleteIfExists(Paths.get("test-files/import_tester.txt.idx"));
+		}
+	}
+
+}
@@ -5,11 +5,23 @@ package edu.ncsu.csc216.product_backlog.model.io;
 
 import static org.junit.jupiter.api.Assertions.*;
 
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.nio.file.attribute.FileTime;
 import java.util.ArrayList;
+import java.util.zip.GZIPOutputStream;
 
+import org.junit.jupiter.api.AfterEach;
 import org.junit.jupiter.api.Test;
 
 import edu.ncsu.csc216.product_backlog.model.product.Product;
+import edu.ncsu.csc216.product_backlog.model.task.Task;
+import edu.ncsu.csc216.product_backlog.model.task.Task.Type;
 
 /**
  * This JUnit test class tests the methods of the ProductsReader class and makes sure the files can be
@@ -19,6 +31,16 @@ import edu.ncsu.csc216.product_backlog.model.product.Product;
  */
 class ProductsReaderTest {
 
+	/**
+	 * Deletes the index files written next to the files written by a test
+	 * @throws IOException if an index cannot be deleted
+	 */
+	@AfterEach
+	void tearDown() throws IOException {
+		Files.deleteIfExists(Paths.get("test-files/tester.txt.idx"));
+		Files.deleteIfExists(Paths.get("test-files/lazy_tester.txt.idx"));
+		Files.deleteIfExists(Paths.get("test-files/indexed_tester.txt.idx"));
+	}
 
 	/**
 	 * Test method for {@link edu.ncsu.csc216.product_backlog.model.io.ProductsReader#readProductsFile(java.lang.String)}.
@@ -36,4 +58,338 @@ class ProductsReaderTest {
 		
 	}
 
+	/**
+	 * Tests that tasks read from the same file share one String for each creator and owner
+	 */
+	@Test
+	void testReadProductsFilePooled() {
+		ArrayList<Product> products = ProductsReader.readProductsFile("test-files/tasks1.txt");
+		ArrayList<Product> mapped = ProductsReader.readProductsFileMapped("test-files/tasks1.txt");
+		Task first = products.get(0).getTaskById(2);
+		assertSame(first.getOwner(), products.get(0).getTaskById(3).getOwner());
+		assertSame(first.getOwner(), products.get(0).getTaskById(3).getCreator());
+		assertSame(first.getCreator(), products.get(0).getTaskById(8).getCreator());
+		assertSame(first.getOwner(), mapped.get(0).getTaskById(5).getOwner());
+		assertSame(first.getCreator(), mapped.get(0).getTaskById(1).getCreator());
+	}
+
+	/**
+	 * Tests that lines split across blocks of the file, and lines longer than a block, are read whole
+	 * @throws IOException if the test file cannot be written
+	 */
+	@Test
+	void testReadProductsFileLongLines() throws IOException {
+		StringBuilder note = new StringBuilder();
+		for (int i = 0; i < 20000; i++) {
+			note.append("Long note ");
+		}
+		Product product = new Product("Long Lines");
+		for (int i = 1; i <= 2000; i++) {
+			product.addTask(new Task(i, "Task " + i, Task.Type.BUG, "rgunda", i == 1000 ? note.toString() : "Note " + i));
+		}
+		ArrayList<Product> products = new ArrayList<Product>();
+		products.add(product);
+		Path file = Paths.get("test-files/long_tester.txt");
+		try {
+			ProductsWriter.writeProductsToFile(file.toString(), products, false, false, null);
+			ArrayList<Product> read = ProductsReader.readProductsFile(file.toString());
+			assertEquals(2000, read.get(0).getTasks().size());
+			assertEquals("Task 2000", read.get(0).getTaskById(2000).getTitle());
+			assertEquals("[Backlog] " + note.toString().trim(), read.get(0).getTaskById(1000).getNotes().get(0));
+			assertEquals("[Backlog] Note 1001", read.get(0).getTaskById(1001).getNotes().get(0));
+		} finally {
+			Files.deleteIfExists(file);
+		}
+	}
+
+	/**
+	 * Test method for {@link edu.ncsu.csc216.product_backlog.model.io.ProductsReader#readProductsFileVerified(java.lang.String)}
+	 * and {@link edu.ncsu.csc216.product_backlog.model.io.ProductsReader#verifyProductsFile(java.lang.String)}.
+	 * @throws IOException if the test file cannot be written
+	 */
+	@Test
+	void testReadProductsFileVerified() throws IOException {
+		ArrayList<Product> products = ProductsReader.readProductsFile("test-files/tasks1.txt");
+		Path file = Paths.get("test-files/verified_tester.txt");
+		Path compressed = Paths.get("test-files/verified_tester.txt.gz");
+		try {
+			ProductsWriter.writeProductsToFileChecksummed(file.toString(), products, false);
+			assertEquals(0, ProductsReader.verifyProductsFile(file.toString()));
+			ArrayList<Product> verified = ProductsReader.readProductsFileVerified(file.toString());
+			assertEquals(2, verified.size());
+			assertEquals("WolfScheduler", verified.get(1).getProductName());
+			assertEquals(products.get(0).getTasks().size(), verified.get(0).getTasks().size());
+			assertFalse(verified.get(0).isDirty());
+
+			byte[] bytes = Files.readAllBytes(file);
+			int title = new String(bytes).indexOf("Express Carts");
+			bytes[title] = 'e';
+			Files.write(file, bytes);
+			assertEquals(1, ProductsReader.verifyProductsFile(file.toString()));
+			verified = ProductsReader.readProductsFileVerified(file.toString());
+			assertEquals(1, verified.size());
+			assertEquals("WolfScheduler", verified.get(0).getProductName());
+			assertEquals("express Carts", ProductsReader.readProductsFile(file.toString()).get(0).getTaskById(1).getTitle());
+
+			ProductsWriter.writeProductsToFileChecksummed(compressed.toString(), products, true);
+			assertEquals(0, ProductsReader.verifyProductsFile(compressed.toString()));
+			assertEquals(2, ProductsReader.readProductsFileVerified(compressed.toString()).size());
+			try (OutputStream out = new GZIPOutputStream(Files.newOutputStream(compressed))) {
+				out.write(bytes);
+			}
+			assertEquals(1, ProductsReader.verifyProductsFile(compressed.toString()));
+			verified = ProductsReader.readProductsFileVerified(compressed.toString());
+			assertEquals(1, verified.size());
+			assertEquals("WolfScheduler", verified.get(0).getProductName());
+
+			assertEquals(2, ProductsReader.verifyProductsFile("test-files/tasks1.txt"));
+			assertEquals(0, ProductsReader.readProductsFileVerified("test-files/tasks1.txt").size());
+			Exception e = assertThrows(IllegalArgumentException.class,
+					() -> ProductsReader.verifyProductsFile("test-files/tasks0.txt"));
+			assertEquals("Unable to load file.", e.getMessage());
+		} finally {
+			Files.deleteIfExists(file);
+			Files.deleteIfExists(Paths.get("test-files/verified_tester.txt.idx"));
+			Files.deleteIfExists(compressed);
+		}
+	}
+
+	/**
+	 * Tests that note lines that look like checksum trailers are kept by every way of reading a file,
+	 * while the trailers written by ProductsWriter are skipped
+	 * @throws IOException if the test file cannot be written
+	 */
+	@Test
+	void testReadProductsFileTrailerLikeNotes() throws IOException {
+		ArrayList<Product> products = new ArrayList<Product>();
+		products.add(new Product("Shopping Cart"));
+		products.get(0).addTask(new Task(1, "Carts", Type.FEATURE, "jep", "First\n= 0123abcd 5"));
+		products.get(0).addTask(new Task(2, "Wait Time", Type.BUG, "jep", "Second\n= 0123abcd 7"));
+		Path file = Paths.get("test-files/trailer_tester.txt");
+		try {
+			for (int checksummed = 0; checksummed < 2; checksummed++) {
+				if (checksummed == 0) {
+					ProductsWriter.writeProductsToFile(file.toString(), products);
+				} else {
+					ProductsWriter.writeProductsToFileChecksummed(file.toString(), products, false);
+					assertEquals(0, ProductsReader.verifyProductsFile(file.toString()));
+				}
+				ArrayList<ArrayList<Product>> reads = new ArrayList<ArrayList<Product>>();
+				reads.add(ProductsReader.readProductsFile(file.toString()));
+				reads.add(ProductsReader.readProductsFileMapped(file.toString()));
+				reads.add(ProductsReader.readProductsFileLazy(file.toString()));
+				reads.add(ProductsReader.readProductsFileParallel(file.toString()));
+				reads.add(ProductsReader.readProductsFileIndexed(file.toString()));
+				for (ArrayList<Product> read : reads) {
+					assertEquals(1, read.size());
+					assertEquals("[Backlog] First\n= 0123abcd 5", read.get(0).getTaskById(1).getNotes().get(0));
+					assertEquals("[Backlog] Second\n= 0123abcd 7", read.get(0).getTaskById(2).getNotes().get(0));
+				}
+			}
+		} finally {
+			Files.deleteIfExists(file);
+			Files.deleteIfExists(Paths.get("test-files/trailer_tester.txt.idx"));
+		}
+	}
+
+	/**
+	 * Tests that duplicate task ids are ignored and tasks are sorted by id when read
+	 */
+	@Test
+	void testReadProductsFileDuplicateId() {
+		ArrayList<Product> products = ProductsReader.readProductsFile("test-files/tasks2.txt");
+		assertEquals(1, products.size());
+		assertEquals(6, products.get(0).getTasks().size());
+		assertEquals(1, products.get(0).getTasks().get(0).getTaskId());
+		assertEquals("Calculating Wait Time", products.get(0).getTaskById(5).getTitle());
+		assertEquals(5, products.get(0).getTaskById(8).getNotes().size());
+		assertEquals("[Backlog] Special carts always choose the shortest special register line.\n"
+				+ "If there are multiple shortest special register lines, a special cart\n"
+				+ "chooses one with the smallest index.", products.get(0).getTaskById(8).getNotes().get(0));
+	}
+
+	/**
+	 * Tests that #, * and - only start a record at the beginning of a line
+	 */
+	@Test
+	void testReadProductsFileMarkersInText() {
+		ArrayList<Product> products = ProductsReader.readProductsFile("test-files/tasks26.txt");
+		assertEquals(1, products.size());
+		assertEquals("Wolf-Scheduler #2", products.get(0).getProductName());
+		assertEquals("Fix *all* the bugs", products.get(0).getTaskById(1).getTitle());
+		assertEquals("[Backlog] Re-run the tests - twice.", products.get(0).getTaskById(1).getNotes().get(0));
+		assertEquals(2, products.get(0).getTaskById(2).getNotes().size());
+		assertEquals("[Backlog] First line\nsecond line - still the same note",
+				products.get(0).getTaskById(2).getNotes().get(0));
+	}
+
+	/**
+	 * Test method for {@link edu.ncsu.csc216.product_backlog.model.io.ProductsReader#readProductsFileMapped(java.lang.String)}.
+	 */
+	@Test
+	void testReadProductsFileMapped() {
+		String[] files = {"test-files/tasks1.txt", "test-files/tasks2.txt", "test-files/tasks26.txt"};
+		for (String file : files) {
+			ArrayList<Product> expected = ProductsReader.readProductsFile(file);
+			ArrayList<Product> actual = ProductsReader.readProductsFileMapped(file);
+			assertEquals(expected.size(), actual.size());
+			for (int i = 0; i < expected.size(); i++) {
+				assertEquals(expected.get(i).getProductName(), actual.get(i).getProductName());
+				assertEquals(expected.get(i).getTasks().size(), actual.get(i).getTasks().size());
+				for (int j = 0; j < expected.get(i).getTasks().size(); j++) {
+					Task e = expected.get(i).getTasks().get(j);
+					Task a = actual.get(i).getTasks().get(j);
+					assertEquals(e.toString(), a.toString());
+					assertEquals(e.getCreator(), a.getCreator());
+					assertEquals(e.getNotes(), a.getNotes());
+				}
+			}
+		}
+
+		Exception e = assertThrows(IllegalArgumentException.class,
+				() -> ProductsReader.readProductsFileMapped("test-files/tasks0.txt"));
+		assertEquals("Unable to load file.", e.getMessage());
+		assertEquals(0, ProductsReader.readProductsFileMapped("test-files/tasks5.txt").size());
+	}
+
+	/**
+	 * Test method for {@link edu.ncsu.csc216.product_backlog.model.io.ProductsReader#readProductsFileParallel(java.lang.String)}.
+	 */
+	@Test
+	void testReadProductsFileParallel() {
+		ArrayList<Product> products = ProductsReader.readProductsFileParallel("test-files/tasks1.txt");
+		assertEquals(2, products.size());
+		assertEquals("Shopping Cart Simulation", products.get(0).getProductName());
+		assertEquals(6, products.get(0).getTasks().size());
+		assertEquals("WolfScheduler", products.get(1).getProductName());
+		assertEquals("Weekly Repeat", products.get(1).getTaskById(2).getTitle());
+
+		products = ProductsReader.readProductsFileParallel("test-files/exp_task_backlog.txt");
+		assertEquals("Product", products.get(0).getProductName());
+		assertEquals("A Product", products.get(1).getProductName());
+
+		Exception e = assertThrows(IllegalArgumentException.class,
+				() -> ProductsReader.readProductsFileParallel("test-files/tasks0.txt"));
+		assertEquals("Unable to load file.", e.getMessage());
+		assertEquals(0, ProductsReader.readProductsFileParallel("test-files/tasks3.txt").size());
+	}
+
+	/**
+	 * Test method for {@link edu.ncsu.csc216.product_backlog.model.io.ProductsReader#readProductsFileLazy(java.lang.String)}.
+	 */
+	@Test
+	void testReadProductsFileLazy() throws IOException {
+		Path copy = Paths.get("test-files/lazy_tester.txt");
+		Files.copy(Paths.get("test-files/tasks2.txt"), copy, StandardCopyOption.REPLACE_EXISTING);
+		try {
+			ArrayList<Product> expected = ProductsReader.readProductsFile(copy.toString());
+			ArrayList<Product> products = ProductsReader.readProductsFileLazy(copy.toString());
+			assertEquals(6, products.get(0).getTasks().size());
+			assertEquals("[Backlog] Special carts always choose the shortest special register line.\n"
+					+ "If there are multiple shortest special register lines, a special cart\n"
+					+ "chooses one with the smallest index.", products.get(0).getTaskById(8).getNotes().get(0));
+
+			ProductsWriter.writeProductsToFile(copy.toString(), products);
+			ArrayList<Product> saved = ProductsReader.readProductsFile(copy.toString());
+			for (int i = 0; i < expected.get(0).getTasks().size(); i++) {
+				assertEquals(expected.get(0).getTasks().get(i).getNotes(), saved.get(0).getTasks().get(i).getNotes());
+			}
+
+			Task task = ProductsReader.readProductsFileLazy(copy.toString()).get(0).getTasks().get(0);
+			Files.write(copy, "# Changed\n".getBytes(), StandardOpenOption.APPEND);
+			Exception e = assertThrows(IllegalArgumentException.class, () -> task.getNotes());
+			assertEquals("Unable to load file.", e.getMessage());
+		} finally {
+			Files.deleteIfExists(copy);
+		}
+	}
+
+	/**
+	 * Test method for {@link edu.ncsu.csc216.product_backlog.model.io.ProductsReader#readProductsFileIndexed(java.lang.String)}.
+	 * @throws IOException if the indexed file cannot be changed
+	 */
+	@Test
+	void testReadProductsFileIndexed() throws IOException {
+		Path file = Paths.get("test-files/indexed_tester.txt");
+		ArrayList<Product> expected = ProductsReader.readProductsFile("test-files/tasks1.txt");
+		expected.add(new Product("No Tasks"));
+		ProductsWriter.writeProductsToFile(file.toString(), expected);
+		try {
+			assertTrue(Files.exists(Paths.get("test-files/indexed_tester.txt.idx")));
+			ArrayList<Product> products = ProductsReader.readProductsFileIndexed(file.toString());
+			assertEquals(2, products.size());
+			for (int i = 0; i < products.size(); i++) {
+				assertEquals(expected.get(i).getProductName(), products.get(i).getProductName());
+				assertEquals(expected.get(i).getTasks().size(), products.get(i).getTasks().size());
+				for (int j = 0; j < expected.get(i).getTasks().size(); j++) {
+					Task e = expected.get(i).getTasks().get(j);
+					Task a = products.get(i).getTasks().get(j);
+					assertEquals(e.toString(), a.toString());
+					assertEquals(e.getNotes(), a.getNotes());
+				}
+			}
+
+			Product product = ProductsReader.readProductsFileIndexed(file.toString()).get(1);
+			Files.write(file, "# Changed\n* 1,Backlog,Title,F,rgunda,unowned,false\n- Note\n".getBytes(),
+					StandardOpenOption.APPEND);
+			Exception e = assertThrows(IllegalArgumentException.class, () -> product.getTasks());
+			assertEquals("Unable to load file.", e.getMessage());
+			assertEquals(3, ProductsReader.readProductsFileIndexed(file.toString()).size());
+
+			// A change that keeps the size and modification time is caught by the checksum
+			ProductsWriter.writeProductsToFile(file.toString(), expected);
+			FileTime modified = Files.getLastModifiedTime(file);
+			String text = new String(Files.readAllBytes(file));
+			String name = expected.get(0).getProductName();
+			String changed = name.substring(0, name.length() - 1) + "X";
+			Files.write(file, text.replace("# " + name, "# " + changed).getBytes());
+			Files.setLastModifiedTime(file, modified);
+			assertEquals(changed, ProductsReader.readProductsFileIndexed(file.toString()).get(0).getProductName());
+		} finally {
+			Files.deleteIfExists(file);
+		}
+		assertEquals(2, ProductsReader.readProductsFileIndexed("test-files/tasks1.txt").size());
+	}
+
+	/**
+	 * Tests that files compressed with GZIP are recognized by every way of reading a file
+	 * @throws IOException if the compressed file cannot be deleted
+	 */
+	@Test
+	void testReadProductsFileCompressed() throws IOException {
+		ArrayList<Product> expected = ProductsReader.readProductsFile("test-files/tasks2.txt");
+		ProductsWriter.writeProductsToFile("test-files/compressed_tester.txt.gz", expected, true);
+		try {
+			ArrayList<ArrayList<Product>> read = new ArrayList<ArrayList<Product>>();
+			read.add(ProductsReader.readProductsFile("test-files/compressed_tester.txt.gz"));
+			read.add(ProductsReader.readProductsFileMapped("test-files/compressed_tester.txt.gz"));
+			read.add(ProductsReader.readProductsFileParallel("test-files/compressed_tester.txt.gz"));
+			read.add(ProductsReader.readProductsFileLazy("test-files/compressed_tester.txt.gz"));
+			for (ArrayList<Product> actual : read) {
+				assertEquals(1, actual.size());
+				for (int i = 0; i < expected.get(0).getTasks().size(); i++) {
+					Task e = expected.get(0).getTasks().get(i);
+					Task a = actual.get(0).getTasks().get(i);
+					assertEquals(e.toString(), a.toString());
+					assertEquals(e.getNotes(), a.getNotes());
+				}
+			}
+		} finally {
+			Files.deleteIfExists(Paths.get("test-files/compressed_tester.txt.gz"));
+		}
+	}
+
+	/**
+	 * Tests that invalid files are handled
+	 */
+	@Test
+	void testReadProductsFileInvalid() {
+		Exception e = assertThrows(IllegalArgumentException.class,
+				() -> ProductsReader.readProductsFile("test-files/tasks0.txt"));
+		assertEquals("Unable to load file.", e.getMessage());
+		assertEquals(0, ProductsReader.readProductsFile("test-files/tasks3.txt").size());
+		assertEquals(0, ProductsReader.readProductsFile("test-files/tasks13.txt").size());
+		assertEquals(0, ProductsReader.readProductsFile("test-files/tasks14.txt").size());
+	}
+
 }
@@ -7,9 +7,16 @@ import static org.junit.jupiter.api.Assertions.*;
 
 
 
+import org.junit.jupiter.api.AfterEach;
 import org.junit.jupiter.api.Test;
 
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Paths;
 import java.util.ArrayList;
+import java.util.zip.GZIPInputStream;
 
 import edu.ncsu.csc216.product_backlog.model.product.Product;
 import edu.ncsu.csc216.product_backlog.model.task.Task;
@@ -25,6 +32,17 @@ import edu.ncsu.csc216.product_backlog.model.task.Task;
  */
 class ProductsWriterTest {
 
+	/**
+	 * Deletes the index files written next to the files written by a test
+	 * @throws IOException if an index cannot be deleted
+	 */
+	@AfterEach
+	void tearDown() throws IOException {
+		Files.deleteIfExists(Paths.get("test-files/tester.txt.idx"));
+		Files.deleteIfExists(Paths.get("test-files/parallel_tester.txt.idx"));
+		Files.deleteIfExists(Paths.get("test-files/unloaded_tester.txt"));
+		Files.deleteIfExists(Paths.get("test-files/unloaded_tester.txt.idx"));
+	}
 	
 
 	/**
@@ -50,6 +68,133 @@ class ProductsWriterTest {
 	
 	}
 
+	/**
+	 * Tests that a written file reads back the same products, notes included
+	 */
+	@Test
+	void testWriteProductsToFileRoundTrip() {
+		ArrayList<Product> expected = ProductsReader.readProductsFile("test-files/tasks2.txt");
+		ProductsWriter.writeProductsToFile("test-files/tester.txt", expected);
+		ArrayList<Product> actual = ProductsReader.readProductsFile("test-files/tester.txt");
+		assertEquals(expected.size(), actual.size());
+		for (int i = 0; i < expected.get(0).getTasks().size(); i++) {
+			Task e = expected.get(0).getTasks().get(i);
+			Task a = actual.get(0).getTasks().get(i);
+			assertEquals(e.toString(), a.toString());
+			assertEquals(e.getNotes(), a.getNotes());
+		}
+	}
+
+	/**
+	 * Test method for {@link edu.ncsu.csc216.product_backlog.model.io.ProductsWriter#writeProductsToFileParallel(java.lang.String, java.util.ArrayList)}.
+	 * @throws IOException if the written files cannot be read
+	 */
+	@Test
+	void testWriteProductsToFileParallel() throws IOException {
+		ArrayList<Product> products = ProductsReader.readProductsFile("test-files/tasks1.txt");
+		ProductsWriter.writeProductsToFile("test-files/tester.txt", products);
+		try {
+			ProductsWriter.writeProductsToFileParallel("test-files/parallel_tester.txt", products);
+			assertArrayEquals(Files.readAllBytes(Paths.get("test-files/tester.txt")),
+					Files.readAllBytes(Paths.get("test-files/parallel_tester.txt")));
+
+			// Products whose tasks are not loaded are copied and then load from the file that was written
+			ProductsWriter.writeProductsToFile("test-files/unloaded_tester.txt", products);
+			ArrayList<Product> unloaded = ProductsReader.readProductsFileIndexed("test-files/unloaded_tester.txt");
+			ProductsWriter.writeProductsToFileParallel("test-files/parallel_tester.txt", unloaded);
+			assertArrayEquals(Files.readAllBytes(Paths.get("test-files/tester.txt")),
+					Files.readAllBytes(Paths.get("test-files/parallel_tester.txt")));
+			assertNotNull(unloaded.get(0).getTasksSource());
+			assertNotNull(unloaded.get(1).getTasksSource());
+			Files.delete(Paths.get("test-files/unloaded_tester.txt"));
+			assertEquals(products.get(0).getTasks().size(), unloaded.get(0).getTasks().size());
+			assertEquals(products.get(1).getTasks().size(), unloaded.get(1).getTasks().size());
+		} finally {
+			Files.deleteIfExists(Paths.get("test-files/parallel_tester.txt"));
+		}
+		Exception exception = assertThrows(IllegalArgumentException.class, 
+				() -> ProductsWriter.writeProductsToFileParallel("/home/sesmith5/actual_student_records.txt", products));
+		assertEquals("Unable to save file", exception.getMessage());
+	}
+
+	/**
+	 * Test method for {@link edu.ncsu.csc216.product_backlog.model.io.ProductsWriter#writeProductsToFile(java.lang.String, java.util.ArrayList, boolean)}.
+	 * @throws IOException if the written files cannot be read
+	 */
+	@Test
+	void testWriteProductsToFileCompressed() throws IOException {
+		ArrayList<Product> products = ProductsReader.readProductsFile("test-files/tasks1.txt");
+		ProductsWriter.writeProductsToFile("test-files/tester.txt", products);
+		byte[] expected = Files.readAllBytes(Paths.get("test-files/tester.txt"));
+		try {
+			ProductsWriter.writeProductsToFile("test-files/compressed_tester.txt.gz", products, true);
+			try (InputStream in = new GZIPInputStream(new FileInputStream("test-files/compressed_tester.txt.gz"))) {
+				assertArrayEquals(expected, in.readAllBytes());
+			}
+			ProductsWriter.writeProductsToFileParallel("test-files/compressed_tester.txt.gz", products, true);
+			try (InputStream in = new GZIPInputStream(new FileInputStream("test-files/compressed_tester.txt.gz"))) {
+				assertArrayEquals(expected, in.readAllBytes());
+			}
+		} finally {
+			Files.deleteIfExists(Paths.get("test-files/compressed_tester.txt.gz"));
+		}
+	}
+
+	/**
+	 * Test method for {@link edu.ncsu.csc216.product_backlog.model.io.ProductsWriter#writeProductsToFileChecksummed(java.lang.String, java.util.ArrayList, boolean)}.
+	 * @throws IOException if the written file cannot be read
+	 */
+	@Test
+	void testWriteProductsToFileChecksummed() throws IOException {
+		ArrayList<Product> products = ProductsReader.readProductsFile("test-files/tasks1.txt");
+		ProductsWriter.writeProductsToFile("test-files/tester.txt", products);
+		String plain = new String(Files.readAllBytes(Paths.get("test-files/tester.txt")));
+		ProductsWriter.writeProductsToFileChecksummed("test-files/tester.txt", products, false);
+		String checksummed = new String(Files.readAllBytes(Paths.get("test-files/tester.txt")));
+		String second = "# " + products.get(1).getProductName();
+		String firstBlock = plain.substring(0, plain.indexOf(second));
+		java.util.zip.CRC32C crc = new java.util.zip.CRC32C();
+		crc.update(firstBlock.getBytes());
+		String trailer = String.format("= %08x %d", crc.getValue(), firstBlock.getBytes().length);
+		assertTrue(checksummed.startsWith(firstBlock + trailer + System.lineSeparator() + second));
+		assertEquals(2, checksummed.split("\\R= ").length - 1);
+
+		ArrayList<Product> read = ProductsReader.readProductsFile("test-files/tester.txt");
+		assertEquals(2, read.size());
+		assertEquals(products.get(0).getTasks().size(), read.get(0).getTasks().size());
+		Task last = products.get(0).getTasks().get(products.get(0).getTasks().size() - 1);
+		assertEquals(last.getNotes(), read.get(0).getTaskById(last.getTaskId()).getNotes());
+		assertEquals(products.get(1).getTasks().size(), ProductsReader.readProductsFileIndexed("test-files/tester.txt")
+				.get(1).getTasks().size());
+		assertEquals(last.getNotes(), ProductsReader.readProductsFileLazy("test-files/tester.txt").get(0)
+				.getTaskById(last.getTaskId()).getNotes());
+	}
+
+	/**
+	 * Tests that products whose tasks are not loaded are written by copying their lines, without their
+	 * checksum trailers, and then load their tasks from the file that was written
+	 * @throws IOException if the written files cannot be read
+	 */
+	@Test
+	void testWriteProductsToFileUnloaded() throws IOException {
+		ArrayList<Product> loaded = ProductsReader.readProductsFile("test-files/tasks1.txt");
+		ProductsWriter.writeProductsToFile("test-files/tester.txt", loaded);
+		String plain = new String(Files.readAllBytes(Paths.get("test-files/tester.txt")));
+		ProductsWriter.writeProductsToFileChecksummed("test-files/unloaded_tester.txt", loaded, false);
+
+		ArrayList<Product> products = ProductsReader.readProductsFileIndexed("test-files/unloaded_tester.txt");
+		ProductsWriter.writeProductsToFile("test-files/tester.txt", products);
+		assertEquals(plain, new String(Files.readAllBytes(Paths.get("test-files/tester.txt"))));
+		assertNotNull(products.get(0).getTasksSource());
+		assertNotNull(products.get(1).getTasksSource());
+
+		// The products now load from the file that was written
+		Files.delete(Paths.get("test-files/unloaded_tester.txt"));
+		assertEquals(loaded.get(0).getTasks().size(), products.get(0).getTasks().size());
+		Task last = loaded.get(1).getTasks().get(loaded.get(1).getTasks().size() - 1);
+		assertEquals(last.getNotes(), products.get(1).getTaskById(last.getTaskId()).getNotes());
+	}
+
 	@Test
 	void testWriteProductsToFileInvalid() {
 		try {
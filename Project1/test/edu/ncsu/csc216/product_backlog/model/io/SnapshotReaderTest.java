@@ -0,0 +1,94 @@
+/**
+ * 
+ */
+package edu.ncsu.csc216.product_backlog.model.io;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+
+import org.junit.jupiter.api.Test;
+
+import edu.ncsu.csc216.product_backlog.model.product.Product;
+import edu.ncsu.csc216.product_backlog.model.task.Task;
+
+/**
+ * This JUnit test class tests the methods of the SnapshotReader class and makes sure a snapshot
+ * loads the same products that were saved
+ * @author Riya Gunda
+ *
+ */
+class SnapshotReaderTest {
+
+	/**
+	 * Test method for {@link edu.ncsu.csc216.product_backlog.model.io.SnapshotReader#readSnapshot(java.lang.String)}.
+	 */
+	@Test
+	void testReadSnapshot() {
+		ArrayList<Product> expected = ProductsReader.readProductsFile("test-files/tasks1.txt");
+		SnapshotWriter.writeSnapshot("test-files/snapshot_tester.bin", expected);
+		ArrayList<Product> actual = SnapshotReader.readSnapshot("test-files/snapshot_tester.bin");
+		new java.io.File("test-files/snapshot_tester.bin").delete();
+
+		assertEquals(expected.size(), actual.size());
+		for (int i = 0; i < expected.size(); i++) {
+			assertEquals(expected.get(i).getProductName(), actual.get(i).getProductName());
+			assertEquals(expected.get(i).getTasks().size(), actual.get(i).getTasks().size());
+			for (int j = 0; j < expected.get(i).getTasks().size(); j++) {
+				Task e = expected.get(i).getTasks().get(j);
+				Task a = actual.get(i).getTasks().get(j);
+				assertEquals(e.toString(), a.toString());
+				assertEquals(e.getCreator(), a.getCreator());
+				assertEquals(e.getNotes(), a.getNotes());
+			}
+		}
+	}
+
+	/**
+	 * Tests that files that are not snapshots cannot be loaded
+	 */
+	@Test
+	void testReadSnapshotInvalid() {
+		Exception e = assertThrows(IllegalArgumentException.class,
+				() -> SnapshotReader.readSnapshot("test-files/tasks0.txt"));
+		assertEquals("Unable to load file.", e.getMessage());
+		e = assertThrows(IllegalArgumentException.class,
+				() -> SnapshotReader.readSnapshot("test-files/tasks1.txt"));
+		assertEquals("Unable to load file.", e.getMessage());
+	}
+
+	/**
+	 * Tests that snapshots whose records do not add up to the task total in their header cannot be loaded
+	 * @throws IOException if the test file cannot be written
+	 */
+	@Test
+	void testReadSnapshotWrongTotals() throws IOException {
+		Path file = Paths.get("test-files/snapshot_tester.bin");
+		try {
+			SnapshotWriter.writeSnapshot(file.toString(), ProductsReader.readProductsFile("test-files/tasks1.txt"));
+			byte[] bytes = Files.readAllBytes(file);
+			// The task total is the varint after the four byte magic number, the version and the product count
+			int total = 6;
+			assertTrue(bytes[total] > 1);
+
+			bytes[total]--;
+			Files.write(file, bytes);
+			Exception e = assertThrows(IllegalArgumentException.class,
+					() -> SnapshotReader.readSnapshot(file.toString()));
+			assertEquals("Unable to load file.", e.getMessage());
+
+			bytes[total] += 2;
+			Files.write(file, bytes);
+			e = assertThrows(IllegalArgumentException.class,
+					() -> SnapshotReader.readSnapshot(file.toString()));
+			assertEquals("Unable to load file.", e.getMessage());
+		} finally {
+			Files.deleteIfExists(file);
+		}
+	}
+
+}
@@ -0,0 +1,52 @@
+/**
+ * 
+ */
+package edu.ncsu.csc216.product_backlog.model.io;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.io.DataInputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.util.ArrayList;
+
+import org.junit.jupiter.api.Test;
+
+import edu.ncsu.csc216.product_backlog.model.product.Product;
+
+/**
+ * This JUnit test class tests the methods of the SnapshotWriter class
+ * @author Riya Gunda
+ *
+ */
+class SnapshotWriterTest {
+
+	/**
+	 * Test method for {@link edu.ncsu.csc216.product_backlog.model.io.SnapshotWriter#writeSnapshot(java.lang.String, java.util.ArrayList)}.
+	 * @throws IOException if the snapshot cannot be read back
+	 */
+	@Test
+	void testWriteSnapshot() throws IOException {
+		ArrayList<Product> products = ProductsReader.readProductsFile("test-files/tasks1.txt");
+		SnapshotWriter.writeSnapshot("test-files/snapshot_tester.bin", products);
+		try (DataInputStream in = new DataInputStream(new FileInputStream("test-files/snapshot_tester.bin"))) {
+			assertEquals(SnapshotWriter.MAGIC, in.readInt());
+			assertEquals(SnapshotWriter.VERSION, in.readUnsignedByte());
+			assertEquals(2, in.readUnsignedByte());
+			assertEquals(9, in.readUnsignedByte());
+			assertEquals(27, in.readUnsignedByte());
+			assertEquals(0, in.readUnsignedByte());
+		} finally {
+			new File("test-files/snapshot_tester.bin").delete();
+		}
+
+		Exception e = assertThrows(IllegalArgumentException.class,
+				() -> SnapshotWriter.writeSnapshot("/home/sesmith5/actual_student_records.bin", products));
+		assertEquals("Unable to save file.", e.getMessage());
+		e = assertThrows(IllegalArgumentException.class,
+				() -> SnapshotWriter.writeSnapshot("", products));
+		assertEquals("Unable to save file.", e.getMessage());
+	}
+
+}
@@ -39,6 +39,58 @@ class ProductTest {
 		assertEquals("Invalid product name.", e1.getMessage());
 	}
 
+	/**
+	 * Tests that the tasks of a product made with a loader are loaded once, the first time they are
+	 * needed
+	 */
+	@Test
+	void testProductLazyTasks() {
+		int[] loads = new int[1];
+		Product p = new Product("Shopping cart", () -> {
+			loads[0]++;
+			ArrayList<Task> tasks = new ArrayList<Task>();
+			tasks.add(new Task(1, "Cart 1", Type.BUG, "rgunda", "First"));
+			return tasks;
+		});
+		assertEquals(0, loads[0]);
+		assertEquals("Cart 1", p.getTaskById(1).getTitle());
+		p.addTask("Cart 2", Type.FEATURE, "rgunda", "Second");
+		assertEquals(1, loads[0]);
+		assertEquals(2, p.getTasks().size());
+		assertEquals(2, p.getTasks().get(1).getTaskId());
+
+		Exception e = assertThrows(IllegalArgumentException.class, () -> new Product("Shopping cart", null));
+		assertEquals("Invalid tasks loader.", e.getMessage());
+	}
+
+	/**
+	 * Test method for {@link edu.ncsu.csc216.product_backlog.model.product.Product#isDirty()}.
+	 */
+	@Test
+	void testIsDirty() {
+		Product p = new Product("Shopping cart", () -> {
+			ArrayList<Task> tasks = new ArrayList<Task>();
+			tasks.add(new Task(1, "Cart 1", Type.BUG, "rgunda", "First"));
+			return tasks;
+		});
+		assertFalse(p.isDirty());
+		p.getTaskById(1).addNoteToList("Another note");
+		assertTrue(p.isDirty());
+		p.setDirty(false);
+		p.addTask("Cart 2", Type.FEATURE, "rgunda", "Second");
+		assertTrue(p.isDirty());
+		p.setDirty(false);
+		Task removed = p.getTaskById(1);
+		p.deleteTaskById(1);
+		assertTrue(p.isDirty());
+		p.setDirty(false);
+		removed.addNoteToList("Not part of the product");
+		assertFalse(p.isDirty());
+		p.setProductName("Cart");
+		assertTrue(p.isDirty());
+		assertTrue(new Product("Shopping cart").isDirty());
+	}
+
 	/**
 	 * Test method for {@link edu.ncsu.csc216.product_backlog.model.product.Product#addTask(edu.ncsu.csc216.product_backlog.model.task.Task)}.
 	 */
@@ -67,6 +119,166 @@ class ProductTest {
 		
 	}
 		
+	/**
+	 * Tests that tasks stay sorted by id when many are added and deleted out of order
+	 */
+	@Test
+	void testAddTaskOrdered() {
+		Product p = new Product("Shopping cart");
+		for(int i = 0; i < 50000; i++) {
+			p.addTask("cart " + i, Type.FEATURE, "sesmith5", "Note");
+		}
+		for(int id = 100000; id > 50000; id -= 3) {
+			p.addTask(new Task(id, "cart " + id, Type.BUG, "sesmith5", "Note"));
+		}
+		p.deleteTaskById(25000);
+		p.deleteTaskById(99999);
+		p.deleteTaskById(70000);
+		ArrayList<Task> tasks = p.getTasks();
+		for(int i = 1; i < tasks.size(); i++) {
+			assertTrue(tasks.get(i - 1).getTaskId() < tasks.get(i).getTaskId());
+		}
+		assertNull(p.getTaskById(25000));
+		assertEquals(49998, tasks.indexOf(p.getTaskById(50000)));
+		assertEquals(100000, tasks.get(tasks.size() - 1).getTaskId());
+		Exception e = assertThrows(IllegalArgumentException.class,
+				() -> p.addTask(new Task(100000, "cart", Type.BUG, "sesmith5", "Note")));
+		assertEquals("Task cannot be added.", e.getMessage());
+	}
+
+	/**
+	 * Test method for {@link edu.ncsu.csc216.product_backlog.model.product.Product#getStateCount(java.lang.String)},
+	 * {@link edu.ncsu.csc216.product_backlog.model.product.Product#getTypeCount(edu.ncsu.csc216.product_backlog.model.task.Task.Type)},
+	 * {@link edu.ncsu.csc216.product_backlog.model.product.Product#getOwnerCount(java.lang.String)} and
+	 * {@link edu.ncsu.csc216.product_backlog.model.product.Product#getVerifiedCount()}.
+	 */
+	@Test
+	void testStatistics() {
+		Product p = new Product("Shopping cart");
+		p.addTask("Express Carts", Type.FEATURE, "jep", "Note");
+		p.addTask("Wait Time", Type.BUG, "jep", "Note");
+		assertEquals(2, p.getStateCount(Task.BACKLOG_NAME));
+		assertEquals(1, p.getTypeCount(Type.BUG));
+		assertEquals(2, p.getOwnerCount(Task.UNOWNED));
+		assertEquals(0, p.getVerifiedCount());
+
+		p.executeCommand(2, new Command(CommandValue.CLAIM, "rgunda", "Claimed"));
+		p.executeCommand(2, new Command(CommandValue.PROCESS, null, "Processing"));
+		p.executeCommand(2, new Command(CommandValue.VERIFY, null, "Verifying"));
+		p.executeCommand(2, new Command(CommandValue.COMPLETE, null, "Passed"));
+		assertEquals(1, p.getStateCount(Task.BACKLOG_NAME));
+		assertEquals(1, p.getStateCount(Task.DONE_NAME));
+		assertEquals(1, p.getOwnerCount("rgunda"));
+		assertEquals(1, p.getVerifiedCount());
+
+		p.deleteTaskById(2);
+		assertEquals(0, p.getStateCount(Task.DONE_NAME));
+		assertEquals(0, p.getVerifiedCount());
+		p.addTasks(new ArrayList<Task>(java.util.Arrays.asList(new Task(7, "Done", "Special Carts", Task.FEATURE_NAME,
+				"jep", "sesmith5", "true", p.getTaskById(1).getNotes()))));
+		assertEquals(2, p.getTypeCount(Type.FEATURE));
+		assertEquals(1, p.getVerifiedCount());
+
+		ArrayList<Task> loaded = new ArrayList<Task>();
+		loaded.add(new Task(3, "Owned", "Regular Carts", Task.FEATURE_NAME, "jep", "sesmith5", "false",
+				p.getTaskById(1).getNotes()));
+		Product lazy = new Product("Lazy", () -> loaded);
+		assertEquals(1, lazy.getStateCount(Task.OWNED_NAME));
+		assertEquals(1, lazy.getOwnerCount("sesmith5"));
+	}
+
+	/**
+	 * Test method for {@link edu.ncsu.csc216.product_backlog.model.product.Product#searchTasks(java.lang.String)}.
+	 */
+	@Test
+	void testSearchTasks() {
+		Product p = new Product("Shopping cart");
+		p.addTask("Express Carts", Type.FEATURE, "jep", "Express carts choose the shortest line");
+		p.addTask("Regular Carts", Type.FEATURE, "jep", "Regular carts skip the express line");
+		assertEquals(0, p.searchTasks(null).size());
+		assertEquals(2, p.searchTasks("carts").size());
+		assertEquals(1, p.searchTasks("\"shortest line\"").size());
+
+		p.executeCommand(2, new Command(CommandValue.CLAIM, "rgunda", "Found the shortest line bug"));
+		ArrayList<Task> found = p.searchTasks("\"shortest line\"");
+		assertEquals(2, found.size());
+		p.getTaskById(1).addNoteToList("Shortest line also applies to carts with one item");
+		found = p.searchTasks("\"shortest line\"");
+		assertEquals(1, found.get(0).getTaskId());
+
+		p.addTask("Special Carts", Type.FEATURE, "jep", "Special carts choose a special line");
+		assertEquals(3, p.searchTasks("line").size());
+		assertEquals(3, p.searchTasks("special").get(0).getTaskId());
+		p.deleteTaskById(1);
+		assertEquals(0, p.searchTasks("item").size());
+		assertEquals(2, p.searchTasks("express carts").size());
+	}
+
+	/**
+	 * Test method for {@link edu.ncsu.csc216.product_backlog.model.product.Product#findTasks(java.lang.String, edu.ncsu.csc216.product_backlog.model.task.Task.Type, java.lang.String)}.
+	 */
+	@Test
+	void testFindTasks() {
+		Product p = new Product("Shopping cart");
+		for(int i = 1; i <= 6; i++) {
+			p.addTask("cart " + i, i % 2 == 0 ? Type.BUG : Type.FEATURE, "sesmith5", "Note");
+		}
+		assertEquals(6, p.findTasks(Task.BACKLOG_NAME, null, null).size());
+		assertEquals(3, p.findTasks(null, Type.BUG, Task.UNOWNED).size());
+		assertEquals(6, p.findTasks(null, null, null).size());
+
+		p.executeCommand(2, new Command(CommandValue.CLAIM, "rgunda", "Claimed"));
+		p.executeCommand(4, new Command(CommandValue.CLAIM, "rgunda", "Claimed"));
+		p.executeCommand(4, new Command(CommandValue.PROCESS, null, "Processing"));
+		p.executeCommand(5, new Command(CommandValue.CLAIM, "rgunda", "Claimed"));
+		ArrayList<Task> owned = p.findTasks(null, Type.BUG, "rgunda");
+		assertEquals(2, owned.size());
+		assertEquals(2, owned.get(0).getTaskId());
+		assertEquals(4, owned.get(1).getTaskId());
+		assertEquals(1, p.findTasks(Task.PROCESSING_NAME, Type.BUG, "rgunda").size());
+		assertEquals(3, p.findTasks(Task.BACKLOG_NAME, null, null).size());
+		assertEquals(0, p.findTasks(Task.VERIFYING_NAME, Type.BUG, "rgunda").size());
+		assertEquals(0, p.findTasks(null, null, "nobody").size());
+
+		p.deleteTaskById(2);
+		p.addTask(new Task(10, "cart 10", Type.BUG, "sesmith5", "Note"));
+		owned = p.findTasks(Task.OWNED_NAME, null, "rgunda");
+		assertEquals(1, owned.size());
+		assertEquals(5, owned.get(0).getTaskId());
+		ArrayList<Task> bugs = p.findTasks(Task.BACKLOG_NAME, Type.BUG, null);
+		assertEquals(2, bugs.size());
+		assertEquals(10, bugs.get(1).getTaskId());
+	}
+
+	/**
+	 * Test method for {@link edu.ncsu.csc216.product_backlog.model.product.Product#addTasks(java.util.ArrayList)}.
+	 */
+	@Test
+	void testAddTasks() {
+		Product p = new Product("Shopping cart");
+		p.addTask(new Task(3, "cart 03", Type.FEATURE, "sesmith5", "Third"));
+		p.setDirty(false);
+		ArrayList<Task> tasks = new ArrayList<Task>();
+		for(int id = 100000; id > 0; id -= 2) {
+			tasks.add(new Task(id, "cart " + id, Type.BUG, "sesmith5", "Note"));
+		}
+		tasks.add(new Task(3, "duplicate", Type.BUG, "sesmith5", "Note"));
+		tasks.add(new Task(8, "duplicate", Type.BUG, "sesmith5", "Note"));
+		assertEquals(50000, p.addTasks(tasks));
+		assertEquals(50001, p.getTasks().size());
+		assertTrue(p.isDirty());
+		assertEquals(2, p.getTasks().get(0).getTaskId());
+		assertEquals(3, p.getTasks().get(1).getTaskId());
+		assertEquals("cart 03", p.getTaskById(3).getTitle());
+		assertEquals("cart 8", p.getTaskById(8).getTitle());
+		assertEquals(100000, p.getTasks().get(50000).getTaskId());
+
+		p.setDirty(false);
+		p.getTaskById(8).update(new Command(CommandValue.CLAIM, "rgunda", "Changed"));
+		assertTrue(p.isDirty());
+		assertEquals(0, p.addTasks(new ArrayList<Task>()));
+	}
+
 	/**
 	 * Test method for {@link edu.ncsu.csc216.product_backlog.model.product.Product#addTask(java.lang.String, edu.ncsu.csc216.product_backlog.model.task.Task.Type, java.lang.String, java.lang.String)}.
 	 */
@@ -167,6 +379,13 @@ class ProductTest {
 		
 		p.deleteTaskById(1);
 		assertEquals(4, p.getTasks().size());
+		assertNull(p.getTaskById(1));
+		assertSame(t4, p.getTaskById(3));
+		p.deleteTaskById(1);
+		assertEquals(4, p.getTasks().size());
+		p.addTask(new Task(1, "cart 02", type, "sesmith5", "Added again."));
+		assertEquals("cart 02", p.getTaskById(1).getTitle());
+		assertEquals(1, p.getTasks().get(0).getTaskId());
 	}
 
 }
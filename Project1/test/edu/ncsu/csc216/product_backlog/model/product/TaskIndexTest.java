@@ -0,0 +1,82 @@
+/**
+ * 
+ */
+package edu.ncsu.csc216.product_backlog.model.product;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.ArrayList;
+
+import org.junit.jupiter.api.Test;
+
+import edu.ncsu.csc216.product_backlog.model.command.Command;
+import edu.ncsu.csc216.product_backlog.model.command.Command.CommandValue;
+import edu.ncsu.csc216.product_backlog.model.task.Task;
+import edu.ncsu.csc216.product_backlog.model.task.Task.Type;
+
+/**
+ * This JUnit test class tests the methods of the TaskIndex class
+ * @author Riya Gunda
+ *
+ */
+class TaskIndexTest {
+
+	/**
+	 * Test method for {@link edu.ncsu.csc216.product_backlog.model.product.TaskIndex#find(java.lang.String, edu.ncsu.csc216.product_backlog.model.task.Task.Type, java.lang.String)}.
+	 */
+	@Test
+	void testFind() {
+		ArrayList<Task> tasks = new ArrayList<Task>();
+		tasks.add(new Task(1, "Express Carts", Type.FEATURE, "jep", "Note"));
+		tasks.add(new Task(2, "Wait Time", Type.BUG, "jep", "Note"));
+		tasks.add(new Task(3, "Swing", Type.KNOWLEDGE_ACQUISITION, "jep", "Note"));
+		TaskIndex index = new TaskKeys(tasks).getIndex();
+		assertEquals(3, index.find(Task.BACKLOG_NAME, null, null).size());
+		assertEquals(1, index.find(null, Type.BUG, Task.UNOWNED).size());
+		assertEquals(0, index.find(Task.DONE_NAME, null, null).size());
+		assertEquals(0, index.find(null, Type.TECHNICAL_WORK, null).size());
+	}
+
+	/**
+	 * Test method for {@link edu.ncsu.csc216.product_backlog.model.product.TaskIndex#update(edu.ncsu.csc216.product_backlog.model.task.Task, edu.ncsu.csc216.product_backlog.model.product.TaskKeys.Keys)}.
+	 */
+	@Test
+	void testUpdate() {
+		ArrayList<Task> tasks = new ArrayList<Task>();
+		Task bug = new Task(2, "Wait Time", Type.BUG, "jep", "Note");
+		tasks.add(bug);
+		TaskKeys keys = new TaskKeys(tasks);
+		TaskIndex index = keys.getIndex();
+		bug.update(new Command(CommandValue.CLAIM, "sesmith5", "Claimed"));
+		// The index keeps the old keys until it is told the task changed
+		assertEquals(1, index.find(Task.BACKLOG_NAME, null, null).size());
+		keys.update(bug);
+		assertEquals(0, index.find(Task.BACKLOG_NAME, null, null).size());
+		assertEquals(bug, index.find(Task.OWNED_NAME, Type.BUG, "sesmith5").get(0));
+		keys.update(new Task(9, "Other", Type.BUG, "jep", "Note"));
+		assertEquals(1, index.find(null, Type.BUG, null).size());
+	}
+
+	/**
+	 * Test method for {@link edu.ncsu.csc216.product_backlog.model.product.TaskIndex#add(edu.ncsu.csc216.product_backlog.model.task.Task, edu.ncsu.csc216.product_backlog.model.product.TaskKeys.Keys)}
+	 * and {@link edu.ncsu.csc216.product_backlog.model.product.TaskIndex#remove(edu.ncsu.csc216.product_backlog.model.task.Task, edu.ncsu.csc216.product_backlog.model.product.TaskKeys.Keys)}.
+	 */
+	@Test
+	void testAddAndRemove() {
+		TaskKeys keys = new TaskKeys(new ArrayList<Task>());
+		TaskIndex index = keys.getIndex();
+		Task second = new Task(2, "Wait Time", Type.BUG, "jep", "Note");
+		Task first = new Task(1, "Carts", Type.BUG, "jep", "Note");
+		keys.add(second);
+		keys.add(first);
+		ArrayList<Task> bugs = index.find(null, Type.BUG, null);
+		assertEquals(2, bugs.size());
+		assertEquals(1, bugs.get(0).getTaskId());
+		keys.remove(first);
+		keys.remove(first);
+		assertEquals(1, index.find(null, Type.BUG, null).size());
+		keys.remove(second);
+		assertEquals(0, index.find(Task.BACKLOG_NAME, null, null).size());
+	}
+
+}
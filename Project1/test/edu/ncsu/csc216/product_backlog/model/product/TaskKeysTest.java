@@ -0,0 +1,69 @@
+/**
+ *
+ */
+package edu.ncsu.csc216.product_backlog.model.product;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.ArrayList;
+
+import org.junit.jupiter.api.Test;
+
+import edu.ncsu.csc216.product_backlog.model.command.Command;
+import edu.ncsu.csc216.product_backlog.model.command.Command.CommandValue;
+import edu.ncsu.csc216.product_backlog.model.task.Task;
+import edu.ncsu.csc216.product_backlog.model.task.Task.Type;
+
+/**
+ * This JUnit test class tests the methods of the TaskKeys class
+ * @author Riya Gunda
+ *
+ */
+class TaskKeysTest {
+
+	/**
+	 * Test method for {@link edu.ncsu.csc216.product_backlog.model.product.TaskKeys#update(edu.ncsu.csc216.product_backlog.model.task.Task)}.
+	 */
+	@Test
+	void testUpdate() {
+		ArrayList<Task> tasks = new ArrayList<Task>();
+		Task bug = new Task(2, "Wait Time", Type.BUG, "jep", "Note");
+		tasks.add(bug);
+		TaskKeys keys = new TaskKeys(tasks);
+		TaskIndex index = keys.getIndex();
+		assertSame(index, keys.getIndex());
+		bug.update(new Command(CommandValue.CLAIM, "sesmith5", "Claimed"));
+		assertEquals(Task.BACKLOG_NAME, keys.get(bug).state);
+
+		// Statistics built after the index start from the same remembered keys
+		TaskStatistics statistics = keys.getStatistics();
+		assertEquals(1, statistics.getStateCount(Task.BACKLOG_NAME));
+		keys.update(bug);
+		assertEquals(Task.OWNED_NAME, keys.get(bug).state);
+		assertEquals("sesmith5", keys.get(bug).owner);
+		assertEquals(1, statistics.getStateCount(Task.OWNED_NAME));
+		assertEquals(0, statistics.getStateCount(Task.BACKLOG_NAME));
+		assertEquals(bug, index.find(Task.OWNED_NAME, null, "sesmith5").get(0));
+		assertEquals(0, index.find(Task.BACKLOG_NAME, null, null).size());
+	}
+
+	/**
+	 * Test method for {@link edu.ncsu.csc216.product_backlog.model.product.TaskKeys#add(edu.ncsu.csc216.product_backlog.model.task.Task)}
+	 * and {@link edu.ncsu.csc216.product_backlog.model.product.TaskKeys#remove(edu.ncsu.csc216.product_backlog.model.task.Task)}.
+	 */
+	@Test
+	void testAddAndRemove() {
+		TaskKeys keys = new TaskKeys(new ArrayList<Task>());
+		TaskStatistics statistics = keys.getStatistics();
+		Task feature = new Task(1, "Carts", Type.FEATURE, "jep", "Note");
+		keys.add(feature);
+		assertEquals(Type.FEATURE, keys.get(feature).type);
+		assertEquals(1, statistics.getTypeCount(Type.FEATURE));
+		assertEquals(1, keys.getIndex().find(null, Type.FEATURE, null).size());
+		keys.remove(feature);
+		assertNull(keys.get(feature));
+		assertEquals(0, statistics.getTypeCount(Type.FEATURE));
+		assertEquals(0, keys.getIndex().find(null, Type.FEATURE, null).size());
+	}
+
+}
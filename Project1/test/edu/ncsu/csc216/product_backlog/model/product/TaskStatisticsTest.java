@@ -0,0 +1,84 @@
+/**
+ * 
+ */
+package edu.ncsu.csc216.product_backlog.model.product;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.ArrayList;
+
+import org.junit.jupiter.api.Test;
+
+import edu.ncsu.csc216.product_backlog.model.command.Command;
+import edu.ncsu.csc216.product_backlog.model.command.Command.CommandValue;
+import edu.ncsu.csc216.product_backlog.model.task.Task;
+import edu.ncsu.csc216.product_backlog.model.task.Task.Type;
+
+/**
+ * This JUnit test class tests the methods of the TaskStatistics class
+ * @author Riya Gunda
+ *
+ */
+class TaskStatisticsTest {
+
+	/**
+	 * Returns a list holding one note.
+	 * @return list of notes
+	 */
+	private static ArrayList<String> notes() {
+		ArrayList<String> notes = new ArrayList<String>();
+		notes.add("[Backlog] Note");
+		return notes;
+	}
+
+	/**
+	 * Test method for the constructor and the counts of the class.
+	 */
+	@Test
+	void testTaskStatistics() {
+		ArrayList<Task> tasks = new ArrayList<Task>();
+		tasks.add(new Task(1, "Backlog", "Express Carts", Task.FEATURE_NAME, "jep", "unowned", "false", notes()));
+		tasks.add(new Task(5, "Verifying", "Wait Time", Task.BUG_NAME, "jdyoung2", "sesmith5", "false", notes()));
+		tasks.add(new Task(8, "Done", "Special Carts", Task.FEATURE_NAME, "jep", "sesmith5", "true", notes()));
+		TaskStatistics statistics = new TaskKeys(tasks).getStatistics();
+		assertEquals(1, statistics.getStateCount(Task.BACKLOG_NAME));
+		assertEquals(1, statistics.getStateCount(Task.DONE_NAME));
+		assertEquals(0, statistics.getStateCount(Task.OWNED_NAME));
+		assertEquals(2, statistics.getTypeCount(Type.FEATURE));
+		assertEquals(0, statistics.getTypeCount(null));
+		assertEquals(2, statistics.getOwnerCount("sesmith5"));
+		assertEquals(1, statistics.getOwnerCount(Task.UNOWNED));
+		assertEquals(1, statistics.getVerifiedCount());
+	}
+
+	/**
+	 * Test method for {@link edu.ncsu.csc216.product_backlog.model.product.TaskStatistics#update(edu.ncsu.csc216.product_backlog.model.task.Task, edu.ncsu.csc216.product_backlog.model.product.TaskKeys.Keys)}
+	 * and {@link edu.ncsu.csc216.product_backlog.model.product.TaskStatistics#remove(edu.ncsu.csc216.product_backlog.model.product.TaskKeys.Keys)}.
+	 */
+	@Test
+	void testUpdateAndRemove() {
+		Task bug = new Task(5, "Verifying", "Wait Time", Task.BUG_NAME, "jdyoung2", "sesmith5", "false", notes());
+		TaskKeys keys = new TaskKeys(new ArrayList<Task>());
+		TaskStatistics statistics = keys.getStatistics();
+		keys.add(bug);
+		bug.update(new Command(CommandValue.COMPLETE, null, "Passed inspection"));
+		keys.update(bug);
+		assertEquals(0, statistics.getStateCount(Task.VERIFYING_NAME));
+		assertEquals(1, statistics.getStateCount(Task.DONE_NAME));
+		assertEquals(1, statistics.getVerifiedCount());
+		bug.update(new Command(CommandValue.BACKLOG, null, "Reopened"));
+		keys.update(bug);
+		assertEquals(0, statistics.getVerifiedCount());
+		assertEquals(1, statistics.getStateCount(Task.BACKLOG_NAME));
+		bug.update(new Command(CommandValue.CLAIM, "rgunda", "Claimed"));
+		keys.update(bug);
+		assertEquals(1, statistics.getOwnerCount("rgunda"));
+		assertEquals(0, statistics.getOwnerCount("sesmith5"));
+		keys.remove(bug);
+		keys.remove(bug);
+		assertEquals(0, statistics.getStateCount(Task.OWNED_NAME));
+		assertEquals(0, statistics.getTypeCount(Type.BUG));
+		assertEquals(0, statistics.getOwnerCount("rgunda"));
+	}
+
+}
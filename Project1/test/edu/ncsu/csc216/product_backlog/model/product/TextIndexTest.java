@@ -0,0 +1,95 @@
+/**
+ * 
+ */
+package edu.ncsu.csc216.product_backlog.model.product;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.ArrayList;
+
+import org.junit.jupiter.api.Test;
+
+import edu.ncsu.csc216.product_backlog.model.command.Command;
+import edu.ncsu.csc216.product_backlog.model.command.Command.CommandValue;
+import edu.ncsu.csc216.product_backlog.model.task.Task;
+import edu.ncsu.csc216.product_backlog.model.task.Task.Type;
+
+/**
+ * This JUnit test class tests the methods of the TextIndex class
+ * @author Riya Gunda
+ *
+ */
+class TextIndexTest {
+
+	/**
+	 * Test method for {@link edu.ncsu.csc216.product_backlog.model.product.TextIndex#tokenize(java.lang.String, int, int)}.
+	 */
+	@Test
+	void testTokenize() {
+		ArrayList<String> words = TextIndex.tokenize("Special carts, (2) LINES!", 0, 25);
+		assertEquals(4, words.size());
+		assertEquals("special", words.get(0));
+		assertEquals("2", words.get(2));
+		assertEquals("lines", words.get(3));
+		assertEquals(0, TextIndex.tokenize("  ...  ", 0, 7).size());
+	}
+
+	/**
+	 * Test method for {@link edu.ncsu.csc216.product_backlog.model.product.TextIndex#search(java.lang.String)}.
+	 */
+	@Test
+	void testSearch() {
+		ArrayList<Task> tasks = new ArrayList<Task>();
+		Task express = new Task(1, "Express Carts", Type.FEATURE, "jep", "Express carts choose the shortest line");
+		Task regular = new Task(2, "Regular Carts", Type.FEATURE, "jep", "Regular carts skip the express line");
+		Task swing = new Task(3, "Java Swing", Type.KNOWLEDGE_ACQUISITION, "jep", "Learn more about Swing");
+		tasks.add(express);
+		tasks.add(regular);
+		tasks.add(swing);
+		TextIndex index = new TextIndex(tasks);
+
+		ArrayList<Task> found = index.search("express");
+		assertEquals(2, found.size());
+		assertEquals(express, found.get(0));
+		assertEquals(regular, found.get(1));
+		assertEquals(2, index.search("CARTS").size());
+		assertEquals(0, index.search("backlog").size());
+		assertEquals(0, index.search("").size());
+
+		found = index.search("\"express line\"");
+		assertEquals(1, found.size());
+		assertEquals(regular, found.get(0));
+		assertEquals(0, index.search("\"line express\"").size());
+		// A phrase does not match across the title and a note
+		assertEquals(0, index.search("\"carts express\"").size());
+		assertEquals(3, index.search("swing \"shortest line\" regular").size());
+	}
+
+	/**
+	 * Test method for {@link edu.ncsu.csc216.product_backlog.model.product.TextIndex#update(edu.ncsu.csc216.product_backlog.model.task.Task)}
+	 * and {@link edu.ncsu.csc216.product_backlog.model.product.TextIndex#remove(edu.ncsu.csc216.product_backlog.model.task.Task)}.
+	 */
+	@Test
+	void testUpdateAndRemove() {
+		ArrayList<Task> tasks = new ArrayList<Task>();
+		Task bug = new Task(5, "Wait Time", Type.BUG, "jdyoung2", "Failing system tests");
+		tasks.add(bug);
+		TextIndex index = new TextIndex(tasks);
+		bug.update(new Command(CommandValue.CLAIM, "sesmith5", "Replicated locally in a unit test"));
+		assertEquals(0, index.search("replicated").size());
+		index.update(bug);
+		assertEquals(1, index.search("\"unit test\"").size());
+		index.update(bug);
+		// The state that starts every note is not indexed
+		assertEquals(0, index.search("owned").size());
+		index.add(new Task(6, "Unit tests", Type.TECHNICAL_WORK, "jep", "More tests"));
+		ArrayList<Task> found = index.search("tests");
+		assertEquals(2, found.size());
+		assertEquals(6, found.get(0).getTaskId());
+		index.remove(bug);
+		index.remove(bug);
+		assertEquals(1, index.search("tests").size());
+		assertEquals(0, index.search("failing").size());
+	}
+
+}
@@ -153,6 +153,32 @@ class TaskTest {
 		assertEquals("Invalid task information.", e1.getMessage());
 	}
 
+	/**
+	 * Test method for {@link edu.ncsu.csc216.product_backlog.model.task.Task#Task(int, java.lang.String, java.lang.String, java.lang.String, java.lang.String, java.lang.String, java.lang.String, java.util.function.Supplier)}.
+	 */
+	@Test
+	void testTaskLazyNotes() {
+		int[] loads = new int[1];
+		Task t = new Task(ID, STATE, TITLE, TYPE1, CREATOR, OWNER, VERIFIED, () -> {
+			loads[0]++;
+			ArrayList<String> lazy = new ArrayList<String>();
+			lazy.add("[Backlog] " + NOTE);
+			return lazy;
+		});
+		assertEquals(0, loads[0]);
+		assertEquals("Cart", t.getTitle());
+		assertEquals(1, t.getNotesArray().length);
+		assertEquals("[Backlog] This is a sentence.", t.getNotes().get(0));
+		t.update(new Command(CommandValue.PROCESS, null, "More work"));
+		assertEquals("[Processing] More work", t.getNotes().get(1));
+		assertEquals(1, loads[0]);
+		
+		Exception e1 = assertThrows(IllegalArgumentException.class,
+				() -> new Task(ID, STATE, TITLE, TYPE1, CREATOR, OWNER, VERIFIED, 
+						(java.util.function.Supplier<ArrayList<String>>) null));
+		assertEquals("Invalid task information.", e1.getMessage());
+	}
+
 	/**
 	 * Test method for {@link edu.ncsu.csc216.product_backlog.model.task.Task#addNoteToList(java.lang.String)}.
 	 */
@@ -372,6 +398,43 @@ class TaskTest {
 		notes.clear();
 	}
 
+	/**
+	 * Test method for {@link edu.ncsu.csc216.product_backlog.model.task.Task#setTaskListener(edu.ncsu.csc216.product_backlog.model.task.Task.TaskListener)}.
+	 */
+	@Test
+	void testSetTaskListener() {
+		Task t = new Task(1, "Cart", Type.FEATURE, "rgunda", "Hello");
+		ArrayList<Task> changed = new ArrayList<Task>();
+		t.setTaskListener(changed::add);
+		t.update(new Command(CommandValue.CLAIM, "rgunda", "Claiming it"));
+		t.addNoteToList("Another note");
+		assertEquals(2, changed.size());
+		assertSame(t, changed.get(0));
+		t.setTaskListener(null);
+		t.addNoteToList("Unheard note");
+		assertEquals(2, changed.size());
+	}
+
+	/**
+	 * Tests that the listener is told about a command that moved the task before its note could not be
+	 * loaded, and not about a command that was rejected
+	 */
+	@Test
+	void testUpdateNotesFail() {
+		Task t = new Task(1, Task.BACKLOG_NAME, "Cart", "F", "rgunda", "unowned", "false", () -> {
+			throw new IllegalArgumentException("Unable to load file.");
+		});
+		ArrayList<Task> changed = new ArrayList<Task>();
+		t.setTaskListener(changed::add);
+		assertThrows(UnsupportedOperationException.class,
+				() -> t.update(new Command(CommandValue.PROCESS, null, "Not yet")));
+		assertEquals(0, changed.size());
+		assertThrows(IllegalArgumentException.class,
+				() -> t.update(new Command(CommandValue.CLAIM, "rgunda", "Claiming it")));
+		assertEquals(Task.OWNED_NAME, t.getStateName());
+		assertEquals(1, changed.size());
+	}
+
 	/**
 	 * Test method for {@link edu.ncsu.csc216.product_backlog.model.task.Task#getNotesArray()}.
 	 */
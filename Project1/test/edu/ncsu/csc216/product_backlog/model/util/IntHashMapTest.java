@@ -0,0 +1,69 @@
+/**
+ *
+ */
+package edu.ncsu.csc216.product_backlog.model.util;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import org.junit.jupiter.api.Test;
+
+/**
+ * This JUnit test class tests the methods of the IntHashMap class
+ * @author Riya Gunda
+ *
+ */
+class IntHashMapTest {
+
+	/**
+	 * Test method for {@link edu.ncsu.csc216.product_backlog.model.util.IntHashMap#put(int, java.lang.Object)}
+	 * and {@link edu.ncsu.csc216.product_backlog.model.util.IntHashMap#get(int)}.
+	 */
+	@Test
+	void testPut() {
+		IntHashMap<String> map = new IntHashMap<String>();
+		assertEquals(0, map.size());
+		assertNull(map.get(1));
+		for(int i = 0; i < 10000; i++) {
+			assertNull(map.put(i * 16, "Value " + i));
+		}
+		assertEquals(10000, map.size());
+		for(int i = 0; i < 10000; i++) {
+			assertEquals("Value " + i, map.get(i * 16));
+			assertNull(map.get(i * 16 + 1));
+		}
+		assertEquals("Value 5", map.put(80, "Five"));
+		assertEquals("Five", map.get(80));
+		assertEquals(10000, map.size());
+
+		assertNull(map.put(Integer.MIN_VALUE, "Min"));
+		assertEquals("Min", map.get(Integer.MIN_VALUE));
+		assertEquals(10001, map.size());
+		assertThrows(NullPointerException.class, () -> map.put(2, null));
+	}
+
+	/**
+	 * Test method for {@link edu.ncsu.csc216.product_backlog.model.util.IntHashMap#remove(int)}.
+	 */
+	@Test
+	void testRemove() {
+		IntHashMap<Integer> map = new IntHashMap<Integer>(4);
+		for(int i = 1; i <= 5000; i++) {
+			map.put(i, i);
+		}
+		for(int i = 1; i <= 5000; i += 2) {
+			assertEquals(i, map.remove(i));
+		}
+		assertNull(map.remove(1));
+		assertEquals(2500, map.size());
+		for(int i = 1; i <= 5000; i++) {
+			assertEquals(i % 2 == 0 ? Integer.valueOf(i) : null, map.get(i));
+		}
+		map.put(Integer.MIN_VALUE, 0);
+		assertEquals(0, map.remove(Integer.MIN_VALUE));
+		assertNull(map.get(Integer.MIN_VALUE));
+		map.clear();
+		assertEquals(0, map.size());
+		assertNull(map.get(2));
+	}
+
+}
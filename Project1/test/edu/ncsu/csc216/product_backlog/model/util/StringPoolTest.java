@@ -0,0 +1,51 @@
+/**
+ *
+ */
+package edu.ncsu.csc216.product_backlog.model.util;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import org.junit.jupiter.api.Test;
+
+import edu.ncsu.csc216.product_backlog.model.command.Command;
+import edu.ncsu.csc216.product_backlog.model.command.Command.CommandValue;
+import edu.ncsu.csc216.product_backlog.model.task.Task;
+import edu.ncsu.csc216.product_backlog.model.task.Task.Type;
+
+/**
+ * This JUnit test class tests the methods of the StringPool class and makes sure equal Strings are
+ * shared
+ * @author Riya Gunda
+ *
+ */
+class StringPoolTest {
+
+	/**
+	 * Test method for {@link edu.ncsu.csc216.product_backlog.model.util.StringPool#intern(java.lang.String)}.
+	 */
+	@Test
+	void testIntern() {
+		String first = StringPool.intern(new String("pooltester"));
+		int size = StringPool.size();
+		String second = StringPool.intern(new String("pooltester"));
+		assertSame(first, second);
+		assertEquals("pooltester", second);
+		assertEquals(size, StringPool.size());
+		assertNotSame(first, StringPool.intern(new String("pooltester2")));
+		assertEquals(size + 1, StringPool.size());
+		assertNull(StringPool.intern(null));
+	}
+
+	/**
+	 * Tests that tasks and commands created by hand do not pool the text they are given
+	 */
+	@Test
+	void testTypedTextNotPooled() {
+		int size = StringPool.size();
+		Task task = new Task(1, "Cart", Type.FEATURE, "typed creator", "Hello");
+		task.update(new Command(CommandValue.CLAIM, "typed owner", "Claiming it"));
+		assertEquals("typed owner", task.getOwner());
+		assertEquals(size, StringPool.size());
+	}
+
+}